@@ -55,6 +55,20 @@ public boolean isFloatType() {
 
     public String getBufferType() {return bufferType;}
 
+    /**
+     * @return the capitalized type name as used by ByteBuffer accessors, e.g. "Float" for getFloat()
+     */
+    public String getProper() {
+        return Character.toUpperCase(type.charAt(0)) + type.substring(1);
+    }
+
+    /**
+     * @return the number of bytes of a single component
+     */
+    public int getBytes() {
+        return type.equals("double") ? 8 : 4;
+    }
+
     @Override
     public String toString() {
         return type;
@@ -49,4 +49,25 @@ public int getRow() {
     public int getCol() {
         return col;
     }
+
+    /**
+     * @return true if the entry is on the main diagonal
+     */
+    public boolean isDiagonal() {
+        return row == col;
+    }
+
+    /**
+     * @return true if the entry is above the main diagonal
+     */
+    public boolean isUpper() {
+        return row < col;
+    }
+
+    /**
+     * @return true if the entry is not in the last row of a 4x4 matrix, i.e. part of an affine transformation
+     */
+    public boolean isAffine() {
+        return row < 3;
+    }
 }
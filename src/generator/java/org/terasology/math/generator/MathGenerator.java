@@ -74,6 +74,11 @@ public void createQuat() throws IOException {
         generateQuat(doubleType);
     }
 
+    public void createAABB() throws IOException {
+        generateAABB(floatType);
+        generateAABB(doubleType);
+    }
+
     public void createMatrix(int dims) throws IOException {
         List<Entry> components = Lists.newArrayList();
         for (int i = 0; i < dims; i++) {
@@ -87,10 +92,35 @@ public void createMatrix(int dims) throws IOException {
         generateMatrix(components, dims, doubleType);
     }
 
+    /**
+     * Creates the field-based integer matrix FieldMatrix4i, which has no base or immutable types
+     */
+    public void createIntMatrix() throws IOException {
+        List<Entry> components = Lists.newArrayList();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                components.add(new Entry("m", "M", i, j));
+            }
+        }
+
+        ST st = templateDir.getInstanceOf("IntMatrix4");
+        st.add("componentType", intType);
+        st.add("dimensions", 4);
+        st.add("components", components);
+        st.add("year", year);
+
+        String fname = "FieldMatrix4" + intType.getAbbrev() + ".java";
+        st.write(new File(outputDir, fname), ErrorManager.DEFAULT_ERROR_LISTENER);
+        System.out.println("Created file " + fname);
+    }
+
     private void generateMatrix(List<Entry> entries, int dims, ComponentType type) throws IOException {
         generateMatrix("BaseMatrix", dims, entries, type);
         generateMatrix("ImmutableMatrix", dims, entries, type);
         generateMatrix("Matrix", dims, entries, type);
+        generateView("Matrix", dims, entries, type);
+        generateCodec("BaseMatrix" + dims, "Matrix" + dims, entries, type);
+        generateOffHeapArray("Matrix", dims, entries, type);
     }
 
     private void generateMatrix(String template, int dims, List<Entry> entries, ComponentType type) throws IOException {
@@ -109,6 +139,8 @@ private void generateQuat(ComponentType type) throws IOException {
         generateQuat("BaseQuat4", type);
         generateQuat("ImmutableQuat4", type);
         generateQuat("Quat4", type);
+        generateQuat("DualQuat4", type);
+        generateCodec("BaseQuat4", "Quat4", components4D, type);
     }
 
     private void generateQuat(String template, ComponentType type) throws IOException {
@@ -121,11 +153,73 @@ private void generateQuat(String template, ComponentType type) throws IOExceptio
         System.out.println("Created file " + fname);
     }
 
+    private void generateAABB(ComponentType type) throws IOException {
+        ST st = templateDir.getInstanceOf("AABB3");
+        st.add("componentType", type);
+        st.add("components", components3D);
+        st.add("year", year);
+
+        String fname = "AABB3" + type.getAbbrev() + ".java";
+        st.write(new File(outputDir, fname), ErrorManager.DEFAULT_ERROR_LISTENER);
+        System.out.println("Created file " + fname);
+    }
+
     private void generateTuple(List<Component> components, ComponentType type) throws IOException {
         generateTuple("BaseVector", components, type);
         generateTuple("ImmutableVector", components, type);
         generateTuple("Vector", components, type);
         generateTuple("VectorPool",components,type);
+        generateView("Vector", components.size(), components, type);
+        generateCodec("BaseVector" + components.size(), "Vector" + components.size(), components, type);
+        if (!type.isDiscrete()) {
+            generateOffHeapArray("Vector", components.size(), components, type);
+        }
+    }
+
+    /**
+     * Off-heap arrays are named after the element type, e.g. OffHeapVector3fArray or OffHeapMatrix4fArray
+     */
+    private void generateOffHeapArray(String prefix, int dims, List<?> components, ComponentType type) throws IOException {
+        ST st = templateDir.getInstanceOf("OffHeap" + prefix + "Array");
+        st.add("componentType", type);
+        st.add("dimensions", dims);
+        st.add("components", components);
+        st.add("year", year);
+
+        String fname = "OffHeap" + prefix + dims + type.getAbbrev() + "Array.java";
+        st.write(new File(outputDir, fname), ErrorManager.DEFAULT_ERROR_LISTENER);
+        System.out.println("Created file " + fname);
+    }
+
+    /**
+     * Codecs are named after the mutable type, e.g. Vector3fCodec or Matrix4fCodec
+     */
+    private void generateCodec(String baseType, String mutableType, List<?> components, ComponentType type) throws IOException {
+        ST st = templateDir.getInstanceOf("Codec");
+        st.add("componentType", type);
+        st.add("components", components);
+        st.add("baseType", baseType + type.getAbbrev());
+        st.add("mutableType", mutableType + type.getAbbrev());
+        st.add("year", year);
+
+        String fname = mutableType + type.getAbbrev() + "Codec.java";
+        st.write(new File(outputDir, fname), ErrorManager.DEFAULT_ERROR_LISTENER);
+        System.out.println("Created file " + fname);
+    }
+
+    /**
+     * Views are named after the type they represent, e.g. Vector3fView or Matrix4fView
+     */
+    private void generateView(String prefix, int dims, List<?> components, ComponentType type) throws IOException {
+        ST st = templateDir.getInstanceOf(prefix + "View");
+        st.add("componentType", type);
+        st.add("dimensions", dims);
+        st.add("components", components);
+        st.add("year", year);
+
+        String fname = prefix + dims + type.getAbbrev() + "View.java";
+        st.write(new File(outputDir, fname), ErrorManager.DEFAULT_ERROR_LISTENER);
+        System.out.println("Created file " + fname);
     }
 
     private void generateTuple(String template, List<Component> components, ComponentType type) throws IOException {
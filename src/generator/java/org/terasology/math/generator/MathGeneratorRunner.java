@@ -36,6 +36,8 @@ public static void main(String[] args) {
             mg.createQuat();
             mg.createMatrix(3);
             mg.createMatrix(4);
+            mg.createIntMatrix();
+            mg.createAABB();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math;
+
+import org.terasology.math.geom.BaseVector3i;
+
+import com.google.common.base.Preconditions;
+import com.google.common.math.IntMath;
+
+/**
+ * Maps 3D positions inside a box of a fixed size to indices of a flat array.
+ * All strides are computed once at construction time. Instances are immutable.
+ * <br><br>
+ * Bounds checking is optional. Without it, positions outside of the box produce undefined indices.
+ */
+public final class ArrayIndexer3 {
+
+    /**
+     * The directions of {@link #getNeighbourOffset(int)}
+     */
+    public static final int POS_X = 0;
+    public static final int NEG_X = 1;
+    public static final int POS_Y = 2;
+    public static final int NEG_Y = 3;
+    public static final int POS_Z = 4;
+    public static final int NEG_Z = 5;
+
+    /**
+     * The memory layout of the array
+     */
+    public enum Layout {
+
+        /**
+         * x varies fastest, then z, then y. This is the layout used by
+         * {@link TeraMath#calculate3DArrayIndex(int, int, int, org.terasology.math.geom.Vector3i)}.
+         */
+        X_FASTEST,
+
+        /**
+         * z varies fastest, then x, then y.
+         */
+        Z_FASTEST,
+
+        /**
+         * Z-order curve, where the bits of x, y and z (in that order, starting with the least significant bit)
+         * are interleaved. Positions that are close in space are also close in memory.
+         * Requires a cube with a size that is a power of two, not larger than 1024.
+         */
+        MORTON
+    }
+
+    private static final int MAX_MORTON_SIZE = 1 << 10;
+
+    private final Layout layout;
+    private final boolean checkBounds;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+
+    private final int strideX;
+    private final int strideY;
+    private final int strideZ;
+
+    // indexed by POS_X .. NEG_Z
+    private final int[] neighbourOffsets;
+
+    /**
+     * Creates an indexer with {@link Layout#X_FASTEST} layout and without bounds checking.
+     * @param size the size of the box
+     */
+    public ArrayIndexer3(BaseVector3i size) {
+        this(size, Layout.X_FASTEST, false);
+    }
+
+    /**
+     * @param size the size of the box
+     * @param layout the memory layout
+     * @param checkBounds true if positions should be checked against the size of the box
+     */
+    public ArrayIndexer3(BaseVector3i size, Layout layout, boolean checkBounds) {
+        Preconditions.checkArgument(size.getX() > 0 && size.getY() > 0 && size.getZ() > 0, "size must be positive");
+        Preconditions.checkNotNull(layout);
+
+        this.layout = layout;
+        this.checkBounds = checkBounds;
+        this.sizeX = size.getX();
+        this.sizeY = size.getY();
+        this.sizeZ = size.getZ();
+
+        switch (layout) {
+            case X_FASTEST:
+                strideX = 1;
+                strideZ = sizeX;
+                strideY = sizeX * sizeZ;
+                break;
+            case Z_FASTEST:
+                strideZ = 1;
+                strideX = sizeZ;
+                strideY = sizeX * sizeZ;
+                break;
+            default:
+                Preconditions.checkArgument(sizeX == sizeY && sizeY == sizeZ, "Morton layout requires a cube");
+                Preconditions.checkArgument(IntMath.isPowerOfTwo(sizeX) && sizeX <= MAX_MORTON_SIZE,
+                        "Morton layout requires a power of two not larger than %s", MAX_MORTON_SIZE);
+                // neighbour offsets are position dependent
+                strideX = 0;
+                strideY = 0;
+                strideZ = 0;
+                break;
+        }
+        neighbourOffsets = new int[] {strideX, -strideX, strideY, -strideY, strideZ, -strideZ};
+    }
+
+    /**
+     * @return the memory layout
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * @return the number of elements in the box
+     */
+    public int getVolume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * @return the index difference between neighbours in x direction, 0 for {@link Layout#MORTON}
+     */
+    public int getStrideX() {
+        return strideX;
+    }
+
+    /**
+     * @return the index difference between neighbours in y direction, 0 for {@link Layout#MORTON}
+     */
+    public int getStrideY() {
+        return strideY;
+    }
+
+    /**
+     * @return the index difference between neighbours in z direction, 0 for {@link Layout#MORTON}
+     */
+    public int getStrideZ() {
+        return strideZ;
+    }
+
+    /**
+     * The index difference of a direct neighbour. The offsets are computed once at construction time.
+     * Not available for {@link Layout#MORTON}, where the offsets depend on the position.
+     * @param direction one of {@link #POS_X}, {@link #NEG_X}, {@link #POS_Y}, {@link #NEG_Y}, {@link #POS_Z} and {@link #NEG_Z}
+     * @return the index difference to the neighbour in the given direction
+     */
+    public int getNeighbourOffset(int direction) {
+        Preconditions.checkState(layout != Layout.MORTON, "Neighbour offsets are not constant in Morton layout");
+        return neighbourOffsets[direction];
+    }
+
+    /**
+     * @param pos the position
+     * @return the array index of the position
+     */
+    public int index(BaseVector3i pos) {
+        return index(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the array index of the position
+     */
+    public int index(int x, int y, int z) {
+        if (checkBounds) {
+            Preconditions.checkElementIndex(x, sizeX, "x");
+            Preconditions.checkElementIndex(y, sizeY, "y");
+            Preconditions.checkElementIndex(z, sizeZ, "z");
+        }
+        if (layout == Layout.MORTON) {
+            return spreadBits(x) | (spreadBits(y) << 1) | (spreadBits(z) << 2);
+        }
+        return x * strideX + y * strideY + z * strideZ;
+    }
+
+    /**
+     * Writes the indices of a row of positions along the x axis.
+     * @param x the first x coordinate
+     * @param y the y coordinate of the row
+     * @param z the z coordinate of the row
+     * @param count the number of positions
+     * @param out the target array
+     * @param offset the first index in the target array
+     * @return out
+     */
+    public int[] rowIndices(int x, int y, int z, int count, int[] out, int offset) {
+        if (checkBounds && count > 0) {
+            index(x, y, z);
+            index(x + count - 1, y, z);
+        }
+        if (layout == Layout.MORTON) {
+            int yz = (spreadBits(y) << 1) | (spreadBits(z) << 2);
+            for (int i = 0; i < count; i++) {
+                out[offset + i] = spreadBits(x + i) | yz;
+            }
+        } else {
+            int start = x * strideX + y * strideY + z * strideZ;
+            for (int i = 0; i < count; i++) {
+                out[offset + i] = start + i * strideX;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Inserts two zero bits in front of each of the lower 10 bits
+     */
+    private static int spreadBits(int value) {
+        int v = value & 0x3ff;
+        v = (v | (v << 16)) & 0x030000ff;
+        v = (v | (v << 8)) & 0x0300f00f;
+        v = (v | (v << 4)) & 0x030c30c3;
+        v = (v | (v << 2)) & 0x09249249;
+        return v;
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Operations on 2D float arrays that are stored in a flat <code>float[]</code>.
+ * The element at (x, y) of an array with the given width is stored at index <code>x + width * y</code>,
+ * i.e. rows are contiguous. This corresponds to the first index of a jagged <code>float[x][y]</code> array
+ * as used by {@link TeraMath#rotateArray(float[][])} and {@link TeraMath#shiftArray(float[][], int, int)}.
+ * <br><br>
+ * Methods that take a source and a target array require them to be distinct.
+ * The <code>*InPlace</code> variants modify the given array directly.
+ * Transposition and rotation operate on tiles of {@value #BLOCK} x {@value #BLOCK} elements
+ * so that both source and target stay in cache for large arrays.
+ */
+public final class FlatArrays {
+
+    /**
+     * The tile size (in elements) of the cache-blocked loops
+     */
+    static final int BLOCK = 32;
+
+    private FlatArrays() {
+    }
+
+    /**
+     * Copies a jagged array into a flat array.
+     * @param array the jagged array, all rows of equal length
+     * @param out the target array
+     * @return out
+     */
+    public static float[] flatten(float[][] array, float[] out) {
+        int width = array.length;
+        int height = (width > 0) ? array[0].length : 0;
+        checkSize(out, width, height);
+        for (int x = 0; x < width; x++) {
+            float[] column = array[x];
+            for (int y = 0; y < height; y++) {
+                out[x + width * y] = column[y];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Copies a flat array into a jagged array.
+     * @param array the flat array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param out the target array of size [width][height]
+     * @return out
+     */
+    public static float[][] unflatten(float[] array, int width, int height, float[][] out) {
+        checkSize(array, width, height);
+        for (int x = 0; x < width; x++) {
+            float[] column = out[x];
+            for (int y = 0; y < height; y++) {
+                column[y] = array[x + width * y];
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Transposes an array, so that the element at (x, y) moves to (y, x).
+     * @param src the source array
+     * @param width the width of the source array
+     * @param height the height of the source array
+     * @param dst the target array, which will have a width of <code>height</code> and a height of <code>width</code>
+     * @return dst
+     */
+    public static float[] transpose(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        blockedCopy(src, width, height, dst, 0, height, 1);
+        return dst;
+    }
+
+    /**
+     * Transposes a square array in place.
+     * @param array the array
+     * @param size the width and height of the array
+     * @return array
+     */
+    public static float[] transposeInPlace(float[] array, int size) {
+        checkSize(array, size, size);
+        for (int by = 0; by < size; by += BLOCK) {
+            int yEnd = Math.min(by + BLOCK, size);
+            for (int bx = by; bx < size; bx += BLOCK) {
+                int xEnd = Math.min(bx + BLOCK, size);
+                for (int y = by; y < yEnd; y++) {
+                    int xStart = (bx == by) ? y + 1 : bx;
+                    for (int x = xStart; x < xEnd; x++) {
+                        int a = x + size * y;
+                        int b = y + size * x;
+                        float tmp = array[a];
+                        array[a] = array[b];
+                        array[b] = tmp;
+                    }
+                }
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Rotates an array by 90 degrees in the same direction as {@link TeraMath#rotateArray(float[][])}.
+     * @param src the source array
+     * @param width the width of the source array
+     * @param height the height of the source array
+     * @param dst the target array, which will have a width of <code>height</code> and a height of <code>width</code>
+     * @return dst
+     */
+    public static float[] rotate90(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        blockedCopy(src, width, height, dst, height - 1, height, -1);
+        return dst;
+    }
+
+    /**
+     * Rotates a square array by 90 degrees in place. See {@link #rotate90(float[], int, int, float[])}.
+     * @param array the array
+     * @param size the width and height of the array
+     * @return array
+     */
+    public static float[] rotate90InPlace(float[] array, int size) {
+        transposeInPlace(array, size);
+        return flipXInPlace(array, size, size);
+    }
+
+    /**
+     * Rotates an array by 180 degrees.
+     * @param src the source array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param dst the target array of the same size
+     * @return dst
+     */
+    public static float[] rotate180(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        int last = width * height - 1;
+        for (int i = 0; i <= last; i++) {
+            dst[i] = src[last - i];
+        }
+        return dst;
+    }
+
+    /**
+     * Rotates an array by 180 degrees in place.
+     * @param array the array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @return array
+     */
+    public static float[] rotate180InPlace(float[] array, int width, int height) {
+        checkSize(array, width, height);
+        reverse(array, 0, width * height);
+        return array;
+    }
+
+    /**
+     * Rotates an array by 270 degrees, i.e. the inverse of {@link #rotate90(float[], int, int, float[])}.
+     * @param src the source array
+     * @param width the width of the source array
+     * @param height the height of the source array
+     * @param dst the target array, which will have a width of <code>height</code> and a height of <code>width</code>
+     * @return dst
+     */
+    public static float[] rotate270(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        blockedCopy(src, width, height, dst, height * (width - 1), -height, 1);
+        return dst;
+    }
+
+    /**
+     * Rotates a square array by 270 degrees in place. See {@link #rotate270(float[], int, int, float[])}.
+     * @param array the array
+     * @param size the width and height of the array
+     * @return array
+     */
+    public static float[] rotate270InPlace(float[] array, int size) {
+        transposeInPlace(array, size);
+        return flipYInPlace(array, size, size);
+    }
+
+    /**
+     * Mirrors an array along the y axis, so that the element at (x, y) moves to (width - 1 - x, y).
+     * @param src the source array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param dst the target array of the same size
+     * @return dst
+     */
+    public static float[] flipX(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int last = row + width - 1;
+            for (int x = 0; x < width; x++) {
+                dst[row + x] = src[last - x];
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Mirrors an array along the y axis in place. See {@link #flipX(float[], int, int, float[])}.
+     * @param array the array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @return array
+     */
+    public static float[] flipXInPlace(float[] array, int width, int height) {
+        checkSize(array, width, height);
+        for (int y = 0; y < height; y++) {
+            reverse(array, y * width, width);
+        }
+        return array;
+    }
+
+    /**
+     * Mirrors an array along the x axis, so that the element at (x, y) moves to (x, height - 1 - y).
+     * @param src the source array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param dst the target array of the same size
+     * @return dst
+     */
+    public static float[] flipY(float[] src, int width, int height, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(src, y * width, dst, (height - 1 - y) * width, width);
+        }
+        return dst;
+    }
+
+    /**
+     * Mirrors an array along the x axis in place. See {@link #flipY(float[], int, int, float[])}.
+     * @param array the array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @return array
+     */
+    public static float[] flipYInPlace(float[] array, int width, int height) {
+        checkSize(array, width, height);
+        for (int y = 0; y < height / 2; y++) {
+            int a = y * width;
+            int b = (height - 1 - y) * width;
+            for (int x = 0; x < width; x++) {
+                float tmp = array[a + x];
+                array[a + x] = array[b + x];
+                array[b + x] = tmp;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Shifts all elements by the given offsets and wraps around at the borders, so that the
+     * element at (x, y) is taken from ((x + dx) mod width, (y + dy) mod height).
+     * This is the same as {@link TeraMath#shiftArray(float[][], int, int)}.
+     * @param src the source array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param dx the offset in x direction
+     * @param dy the offset in y direction
+     * @param dst the target array of the same size
+     * @return dst
+     */
+    public static float[] shift(float[] src, int width, int height, int dx, int dy, float[] dst) {
+        checkDistinct(src, dst, width, height);
+        if (width == 0 || height == 0) {
+            return dst;
+        }
+        int ox = Math.floorMod(dx, width);
+        int oy = Math.floorMod(dy, height);
+        for (int y = 0; y < height; y++) {
+            int srcRow = ((y + oy) % height) * width;
+            int dstRow = y * width;
+            System.arraycopy(src, srcRow + ox, dst, dstRow, width - ox);
+            System.arraycopy(src, srcRow, dst, dstRow + width - ox, ox);
+        }
+        return dst;
+    }
+
+    /**
+     * Shifts all elements in place. See {@link #shift(float[], int, int, int, int, float[])}.
+     * @param array the array
+     * @param width the width of the array
+     * @param height the height of the array
+     * @param dx the offset in x direction
+     * @param dy the offset in y direction
+     * @return array
+     */
+    public static float[] shiftInPlace(float[] array, int width, int height, int dx, int dy) {
+        checkSize(array, width, height);
+        if (width == 0 || height == 0) {
+            return array;
+        }
+        int ox = Math.floorMod(dx, width);
+        int oy = Math.floorMod(dy, height);
+        rotateLeft(array, 0, width * height, oy * width);
+        if (ox != 0) {
+            for (int y = 0; y < height; y++) {
+                rotateLeft(array, y * width, width, ox);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Copies the source array tile by tile. The element at (x, y) is written to
+     * <code>base + x * strideX + y * strideY</code>.
+     */
+    private static void blockedCopy(float[] src, int width, int height, float[] dst, int base, int strideX, int strideY) {
+        for (int by = 0; by < height; by += BLOCK) {
+            int yEnd = Math.min(by + BLOCK, height);
+            for (int bx = 0; bx < width; bx += BLOCK) {
+                int xEnd = Math.min(bx + BLOCK, width);
+                for (int y = by; y < yEnd; y++) {
+                    int row = y * width;
+                    int out = base + y * strideY;
+                    for (int x = bx; x < xEnd; x++) {
+                        dst[out + x * strideX] = src[row + x];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rotates a range to the left by the given distance, using three reversals.
+     */
+    private static void rotateLeft(float[] array, int offset, int length, int distance) {
+        if (distance == 0) {
+            return;
+        }
+        reverse(array, offset, distance);
+        reverse(array, offset + distance, length - distance);
+        reverse(array, offset, length);
+    }
+
+    private static void reverse(float[] array, int offset, int length) {
+        int i = offset;
+        int j = offset + length - 1;
+        while (i < j) {
+            float tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+            i++;
+            j--;
+        }
+    }
+
+    private static void checkDistinct(float[] src, float[] dst, int width, int height) {
+        Preconditions.checkArgument(src != dst, "source and target must be distinct - use the in-place variant instead");
+        checkSize(src, width, height);
+        checkSize(dst, width, height);
+    }
+
+    private static void checkSize(float[] array, int width, int height) {
+        Preconditions.checkArgument(width >= 0 && height >= 0, "size must not be negative");
+        Preconditions.checkArgument(array.length >= width * height, "array must hold at least %s elements", width * height);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Upsamples coarse 2D and 3D grids of float values into finer grids by an integer factor.
+ * This is the bulk equivalent of calling {@link TeraMath#biLerp(float, float, float, float, float, float)}
+ * or {@link TeraMath#triLerp(float, float, float, float, float, float, float, float, float, float, float)}
+ * for every fine grid cell.
+ * <br><br>
+ * Coarse sample <code>i</code> is located at fine coordinate <code>i * factor</code>. The interpolation weights
+ * are computed once at construction time, so instances are immutable and can be shared between threads.
+ * <br><br>
+ * 2D arrays are stored row by row (x varies fastest). 3D arrays use the same layout as
+ * {@link TeraMath#calculate3DArrayIndex(int, int, int, org.terasology.math.geom.Vector3i)}, i.e.
+ * x varies fastest, then z, then y.
+ */
+public final class GridInterpolator {
+
+    /**
+     * The blending function that is applied to the relative position inside a coarse cell
+     */
+    public enum Fade {
+
+        /**
+         * Plain linear interpolation
+         */
+        LINEAR {
+            @Override
+            public float apply(float t) {
+                return t;
+            }
+        },
+
+        /**
+         * See {@link TeraMath#fadeHermite(float)}
+         */
+        HERMITE {
+            @Override
+            public float apply(float t) {
+                return TeraMath.fadeHermite(t);
+            }
+        },
+
+        /**
+         * See {@link TeraMath#fadePerlin(float)}
+         */
+        PERLIN {
+            @Override
+            public float apply(float t) {
+                return TeraMath.fadePerlin(t);
+            }
+        };
+
+        /**
+         * @param t the relative position in [0..1]
+         * @return the blended weight in [0..1]
+         */
+        public abstract float apply(float t);
+    }
+
+    private final int factor;
+    private final Fade fade;
+
+    /**
+     * The weights for all offsets [0..factor] inside a cell
+     */
+    private final float[] weights;
+
+    /**
+     * @param factor the upsampling factor, must be positive
+     * @param fade the blending function
+     */
+    public GridInterpolator(int factor, Fade fade) {
+        Preconditions.checkArgument(factor > 0, "factor must be positive");
+        Preconditions.checkNotNull(fade);
+
+        this.factor = factor;
+        this.fade = fade;
+        this.weights = new float[factor + 1];
+        for (int k = 0; k <= factor; k++) {
+            weights[k] = fade.apply((float) k / factor);
+        }
+    }
+
+    /**
+     * @return the upsampling factor
+     */
+    public int getFactor() {
+        return factor;
+    }
+
+    /**
+     * @return the blending function
+     */
+    public Fade getFade() {
+        return fade;
+    }
+
+    /**
+     * @param srcSize the number of coarse samples along one axis
+     * @return the largest number of fine samples that can be interpolated along that axis
+     */
+    public int maxTargetSize(int srcSize) {
+        return (srcSize - 1) * factor + 1;
+    }
+
+    /**
+     * Upsamples a 2D grid.
+     * @param src the coarse samples
+     * @param srcSizeX the number of coarse samples in x direction (at least 2)
+     * @param srcSizeY the number of coarse samples in y direction (at least 2)
+     * @param dst the target array
+     * @param dstSizeX the number of fine samples in x direction, at most {@link #maxTargetSize(int) maxTargetSize(srcSizeX)}
+     * @param dstSizeY the number of fine samples in y direction, at most {@link #maxTargetSize(int) maxTargetSize(srcSizeY)}
+     */
+    public void upsample(float[] src, int srcSizeX, int srcSizeY, float[] dst, int dstSizeX, int dstSizeY) {
+        checkAxis(srcSizeX, dstSizeX);
+        checkAxis(srcSizeY, dstSizeY);
+        Preconditions.checkArgument(src.length >= srcSizeX * srcSizeY, "src array too small");
+        Preconditions.checkArgument(dst.length >= dstSizeX * dstSizeY, "dst array too small");
+
+        for (int y = 0; y < dstSizeY; y++) {
+            int cy = Math.min(y / factor, srcSizeY - 2);
+            float ty = weights[y - cy * factor];
+            int row0 = cy * srcSizeX;
+            int row1 = row0 + srcSizeX;
+            upsampleRow(src, row0, row1, ty, srcSizeX, dst, y * dstSizeX, dstSizeX);
+        }
+    }
+
+    /**
+     * Upsamples a 3D grid.
+     * @param src the coarse samples
+     * @param srcSizeX the number of coarse samples in x direction (at least 2)
+     * @param srcSizeY the number of coarse samples in y direction (at least 2)
+     * @param srcSizeZ the number of coarse samples in z direction (at least 2)
+     * @param dst the target array
+     * @param dstSizeX the number of fine samples in x direction, at most {@link #maxTargetSize(int) maxTargetSize(srcSizeX)}
+     * @param dstSizeY the number of fine samples in y direction, at most {@link #maxTargetSize(int) maxTargetSize(srcSizeY)}
+     * @param dstSizeZ the number of fine samples in z direction, at most {@link #maxTargetSize(int) maxTargetSize(srcSizeZ)}
+     */
+    public void upsample(float[] src, int srcSizeX, int srcSizeY, int srcSizeZ,
+                         float[] dst, int dstSizeX, int dstSizeY, int dstSizeZ) {
+        checkAxis(srcSizeX, dstSizeX);
+        checkAxis(srcSizeY, dstSizeY);
+        checkAxis(srcSizeZ, dstSizeZ);
+        Preconditions.checkArgument(src.length >= srcSizeX * srcSizeY * srcSizeZ, "src array too small");
+        Preconditions.checkArgument(dst.length >= dstSizeX * dstSizeY * dstSizeZ, "dst array too small");
+
+        int srcLayer = srcSizeX * srcSizeZ;
+        for (int y = 0; y < dstSizeY; y++) {
+            int cy = Math.min(y / factor, srcSizeY - 2);
+            float ty = weights[y - cy * factor];
+            for (int z = 0; z < dstSizeZ; z++) {
+                int cz = Math.min(z / factor, srcSizeZ - 2);
+                float tz = weights[z - cz * factor];
+                int row00 = cy * srcLayer + cz * srcSizeX;
+                int row01 = row00 + srcSizeX;
+                int row10 = row00 + srcLayer;
+                int row11 = row10 + srcSizeX;
+                int out = (y * dstSizeZ + z) * dstSizeX;
+                for (int cx = 0; cx < srcSizeX - 1; cx++) {
+                    int start = cx * factor;
+                    if (start >= dstSizeX) {
+                        break;
+                    }
+                    float a0 = TeraMath.lerp(src[row00 + cx], src[row01 + cx], tz);
+                    float a1 = TeraMath.lerp(src[row10 + cx], src[row11 + cx], tz);
+                    float b0 = TeraMath.lerp(src[row00 + cx + 1], src[row01 + cx + 1], tz);
+                    float b1 = TeraMath.lerp(src[row10 + cx + 1], src[row11 + cx + 1], tz);
+                    float a = TeraMath.lerp(a0, a1, ty);
+                    float b = TeraMath.lerp(b0, b1, ty);
+                    fillCell(a, b - a, dst, out + start, cellLength(cx, srcSizeX, start, dstSizeX));
+                }
+            }
+        }
+    }
+
+    private void upsampleRow(float[] src, int row0, int row1, float ty, int srcSizeX, float[] dst, int out, int dstSizeX) {
+        for (int cx = 0; cx < srcSizeX - 1; cx++) {
+            int start = cx * factor;
+            if (start >= dstSizeX) {
+                break;
+            }
+            float a = TeraMath.lerp(src[row0 + cx], src[row1 + cx], ty);
+            float b = TeraMath.lerp(src[row0 + cx + 1], src[row1 + cx + 1], ty);
+            fillCell(a, b - a, dst, out + start, cellLength(cx, srcSizeX, start, dstSizeX));
+        }
+    }
+
+    /**
+     * The last cell also covers the closing sample at offset <code>factor</code>
+     */
+    private int cellLength(int cx, int srcSizeX, int start, int dstSizeX) {
+        int length = (cx == srcSizeX - 2) ? factor + 1 : factor;
+        return Math.min(length, dstSizeX - start);
+    }
+
+    /**
+     * The innermost loop - contiguous in both weights and output so that it can be vectorized
+     */
+    private void fillCell(float a, float delta, float[] dst, int offset, int length) {
+        for (int k = 0; k < length; k++) {
+            dst[offset + k] = a + weights[k] * delta;
+        }
+    }
+
+    private void checkAxis(int srcSize, int dstSize) {
+        Preconditions.checkArgument(srcSize >= 2, "at least two coarse samples are required per axis");
+        Preconditions.checkArgument(dstSize >= 0 && dstSize <= maxTargetSize(srcSize),
+                "target size %s exceeds the maximum of %s", dstSize, maxTargetSize(srcSize));
+    }
+}
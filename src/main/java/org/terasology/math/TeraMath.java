@@ -16,6 +16,7 @@
 
 package org.terasology.math;
 
+import org.terasology.math.geom.BaseVector3i;
 import org.terasology.math.geom.Vector3i;
 
 /**
@@ -27,6 +28,26 @@ public final class TeraMath {
     public static final float RAD_TO_DEG = (float) (180.0f / Math.PI);
     public static final float DEG_TO_RAD = (float) (Math.PI / 180.0f);
 
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double HALF_PI = 0.5 * Math.PI;
+    private static final double INV_TWO_PI = 1.0 / TWO_PI;
+
+    // the sine lookup tables cover one full turn, with one extra entry to allow for interpolation
+    private static final int SIN_BITS = 12;
+    private static final int SIN_COUNT = 1 << SIN_BITS;
+    private static final int SIN_MASK = SIN_COUNT - 1;
+    private static final int SIN_QUARTER = SIN_COUNT / 4;
+    private static final double SIN_INDEX_SCALE = SIN_COUNT / TWO_PI;
+    private static final float[] SIN_TABLE_F = new float[SIN_COUNT + 1];
+    private static final double[] SIN_TABLE_D = new double[SIN_COUNT + 1];
+
+    static {
+        for (int i = 0; i <= SIN_COUNT; i++) {
+            SIN_TABLE_D[i] = Math.sin(i * TWO_PI / SIN_COUNT);
+            SIN_TABLE_F[i] = (float) SIN_TABLE_D[i];
+        }
+    }
+
     private TeraMath() {
     }
 
@@ -416,6 +437,111 @@ public static float remainder(float dividend, float divisor) {
         return dividend % divisor;
     }
 
+    /**
+     * Integer division that rounds towards negative infinity, computed without branches.
+     * The result is the same as {@link Math#floorDiv(int, int)}.
+     *
+     * @param dividend The value that is divided
+     * @param divisor  The value with which is divided, must not be zero
+     * @return the largest integer that is less than or equal to the algebraic quotient
+     */
+    public static int floorDiv(int dividend, int divisor) {
+        int quotient = dividend / divisor;
+        int rem = dividend % divisor;
+        // -1 if and only if the remainder is non-zero and has a different sign than the divisor
+        int correction = ((rem ^ divisor) >> 31) & ((rem | -rem) >> 31);
+        return quotient + correction;
+    }
+
+    /**
+     * Integer modulus where the result has the same sign as the divisor, computed without branches.
+     * The result is the same as {@link Math#floorMod(int, int)}.
+     *
+     * @param dividend The value that is divided
+     * @param divisor  The value with which is divided, must not be zero
+     * @return The remainder of (dividend / divisor) as a number in the range [0, divisor) for positive divisors
+     */
+    public static int floorMod(int dividend, int divisor) {
+        int rem = dividend % divisor;
+        int correction = ((rem ^ divisor) >> 31) & ((rem | -rem) >> 31);
+        return rem + (divisor & correction);
+    }
+
+    /**
+     * Integer division by 2<sup>power</sup> that rounds towards negative infinity.
+     * This is the same as <code>floorDiv(value, 1 &lt;&lt; power)</code>, but uses a single shift.
+     *
+     * @param value the value that is divided
+     * @param power the exponent of the divisor in the range [0..30], see {@link #sizeOfPower(int)}
+     * @return the floored quotient
+     */
+    public static int floorDivPow2(int value, int power) {
+        return value >> power;
+    }
+
+    /**
+     * Integer modulus by 2<sup>power</sup>, where the result is always positive.
+     * This is the same as <code>floorMod(value, 1 &lt;&lt; power)</code>, but uses a single mask.
+     *
+     * @param value the value that is divided
+     * @param power the exponent of the divisor in the range [0..30], see {@link #sizeOfPower(int)}
+     * @return the remainder in the range [0, 2<sup>power</sup>)
+     */
+    public static int floorModPow2(int value, int power) {
+        return value & ((1 << power) - 1);
+    }
+
+    /**
+     * Computes the position of the chunk that contains a given world position.
+     *
+     * @param worldPos   the world position
+     * @param chunkPower the size of a chunk as exponents of two, e.g. (5, 8, 5) for chunks of 32x256x32
+     * @param out        the vector that receives the result
+     * @return out
+     */
+    public static Vector3i calcChunkPos(BaseVector3i worldPos, BaseVector3i chunkPower, Vector3i out) {
+        out.x = worldPos.getX() >> chunkPower.getX();
+        out.y = worldPos.getY() >> chunkPower.getY();
+        out.z = worldPos.getZ() >> chunkPower.getZ();
+        return out;
+    }
+
+    /**
+     * Computes the position of a world position relative to the chunk that contains it.
+     *
+     * @param worldPos   the world position
+     * @param chunkPower the size of a chunk as exponents of two, e.g. (5, 8, 5) for chunks of 32x256x32
+     * @param out        the vector that receives the result
+     * @return out
+     */
+    public static Vector3i calcRelativePos(BaseVector3i worldPos, BaseVector3i chunkPower, Vector3i out) {
+        out.x = worldPos.getX() & ((1 << chunkPower.getX()) - 1);
+        out.y = worldPos.getY() & ((1 << chunkPower.getY()) - 1);
+        out.z = worldPos.getZ() & ((1 << chunkPower.getZ()) - 1);
+        return out;
+    }
+
+    /**
+     * Splits a world position into the chunk position and the position relative to that chunk.
+     * The world position can be recovered as <code>(chunkPos &lt;&lt; chunkPower) + relativePos</code>.
+     *
+     * @param worldPos    the world position
+     * @param chunkPower  the size of a chunk as exponents of two, e.g. (5, 8, 5) for chunks of 32x256x32
+     * @param chunkOut    the vector that receives the chunk position
+     * @param relativeOut the vector that receives the relative position
+     */
+    public static void splitChunkPos(BaseVector3i worldPos, BaseVector3i chunkPower, Vector3i chunkOut, Vector3i relativeOut) {
+        int x = worldPos.getX();
+        int y = worldPos.getY();
+        int z = worldPos.getZ();
+        chunkOut.x = x >> chunkPower.getX();
+        chunkOut.y = y >> chunkPower.getY();
+        chunkOut.z = z >> chunkPower.getZ();
+        relativeOut.x = x & ((1 << chunkPower.getX()) - 1);
+        relativeOut.y = y & ((1 << chunkPower.getY()) - 1);
+        relativeOut.z = z & ((1 << chunkPower.getZ()) - 1);
+    }
+
     /**
      * Bilinear interpolation.
      */
@@ -519,16 +645,10 @@ public static boolean isPowerOfTwo(int val) {
 
     /**
      * @param value
-     * @return The size of a power of two - that is, the exponent.
+     * @return The size of a power of two - that is, the exponent. For other values, the exponent is rounded down.
      */
     public static int sizeOfPower(int value) {
-        int power = 0;
-        int val = value;
-        while (val > 1) {
-            val = val >> 1;
-            power++;
-        }
-        return power;
+        return (value > 1) ? 31 - Integer.numberOfLeadingZeros(value) : 0;
     }
 
     /**
@@ -578,20 +698,274 @@ public static int ceilToInt(double val) {
         return (val >= 0 && val != i) ? i + 1 : i;
     }
 
+    /**
+     * Table-based sine function. The table is linearly interpolated.
+     * <br><br>
+     * The absolute error is less than 4e-7 for angles in the range [-1000..1000].
+     * Precision degrades for angles with a larger magnitude.
+     *
+     * @param angle the angle in radians
+     * @return the approximated sine of the angle
+     */
+    public static float fastSin(float angle) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        float frac = (float) (index - i);
+        i &= SIN_MASK;
+        return SIN_TABLE_F[i] + frac * (SIN_TABLE_F[i + 1] - SIN_TABLE_F[i]);
+    }
+
+    /**
+     * Table-based sine function (double variant). The table is linearly interpolated.
+     * <br><br>
+     * The absolute error is less than 3e-7 for angles in the range [-1000..1000].
+     * Use {@link #fastSinPoly(double)} if more precision is required.
+     *
+     * @param angle the angle in radians
+     * @return the approximated sine of the angle
+     */
+    public static double fastSin(double angle) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        double frac = index - i;
+        i &= SIN_MASK;
+        return SIN_TABLE_D[i] + frac * (SIN_TABLE_D[i + 1] - SIN_TABLE_D[i]);
+    }
+
+    /**
+     * Table-based cosine function. The table is linearly interpolated.
+     * <br><br>
+     * The absolute error is less than 4e-7 for angles in the range [-1000..1000].
+     *
+     * @param angle the angle in radians
+     * @return the approximated cosine of the angle
+     */
+    public static float fastCos(float angle) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        float frac = (float) (index - i);
+        i = (i + SIN_QUARTER) & SIN_MASK;
+        return SIN_TABLE_F[i] + frac * (SIN_TABLE_F[i + 1] - SIN_TABLE_F[i]);
+    }
+
+    /**
+     * Table-based cosine function (double variant). The table is linearly interpolated.
+     * <br><br>
+     * The absolute error is less than 3e-7 for angles in the range [-1000..1000].
+     * Use {@link #fastCosPoly(double)} if more precision is required.
+     *
+     * @param angle the angle in radians
+     * @return the approximated cosine of the angle
+     */
+    public static double fastCos(double angle) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        double frac = index - i;
+        i = (i + SIN_QUARTER) & SIN_MASK;
+        return SIN_TABLE_D[i] + frac * (SIN_TABLE_D[i + 1] - SIN_TABLE_D[i]);
+    }
+
+    /**
+     * Computes both sine and cosine of an angle with a single table lookup.
+     * The error bounds are the same as for {@link #fastSin(float)}.
+     *
+     * @param angle the angle in radians
+     * @param out an array of at least two elements that receives the sine (index 0) and cosine (index 1)
+     * @return out
+     */
+    public static float[] sinCos(float angle, float[] out) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        float frac = (float) (index - i);
+        int s = i & SIN_MASK;
+        int c = (i + SIN_QUARTER) & SIN_MASK;
+        out[0] = SIN_TABLE_F[s] + frac * (SIN_TABLE_F[s + 1] - SIN_TABLE_F[s]);
+        out[1] = SIN_TABLE_F[c] + frac * (SIN_TABLE_F[c + 1] - SIN_TABLE_F[c]);
+        return out;
+    }
+
+    /**
+     * Computes both sine and cosine of an angle with a single table lookup (double variant).
+     * The error bounds are the same as for {@link #fastSin(double)}.
+     *
+     * @param angle the angle in radians
+     * @param out an array of at least two elements that receives the sine (index 0) and cosine (index 1)
+     * @return out
+     */
+    public static double[] sinCos(double angle, double[] out) {
+        double index = angle * SIN_INDEX_SCALE;
+        int i = floorToInt(index);
+        double frac = index - i;
+        int s = i & SIN_MASK;
+        int c = (i + SIN_QUARTER) & SIN_MASK;
+        out[0] = SIN_TABLE_D[s] + frac * (SIN_TABLE_D[s + 1] - SIN_TABLE_D[s]);
+        out[1] = SIN_TABLE_D[c] + frac * (SIN_TABLE_D[c + 1] - SIN_TABLE_D[c]);
+        return out;
+    }
+
+    /**
+     * Polynomial sine function. The angle is reduced to [-PI/2..PI/2] and then
+     * approximated by a minimax polynomial of degree 9.
+     * <br><br>
+     * The absolute error is less than 2e-7 for angles in the range [-1000..1000].
+     *
+     * @param angle the angle in radians
+     * @return the approximated sine of the angle
+     */
+    public static float fastSinPoly(float angle) {
+        return sinPoly((float) reduceToHalfPi(angle));
+    }
+
+    /**
+     * Polynomial sine function (double variant). The angle is reduced to [-PI/2..PI/2] and then
+     * approximated by a minimax polynomial of degree 11.
+     * <br><br>
+     * The absolute error is less than 1e-10 for angles in the range [-1000..1000].
+     *
+     * @param angle the angle in radians
+     * @return the approximated sine of the angle
+     */
+    public static double fastSinPoly(double angle) {
+        double x = reduceToHalfPi(angle);
+        double x2 = x * x;
+        return x * (0.9999999999987953 + x2 * (-0.16666666654618542 + x2 * (0.008333332248593804
+                + x2 * (-0.000198410029125001 + x2 * (2.753152959182015e-06 + x2 * -2.3984738347409427e-08)))));
+    }
+
+    /**
+     * Polynomial cosine function. See {@link #fastSinPoly(float)} for error bounds.
+     *
+     * @param angle the angle in radians
+     * @return the approximated cosine of the angle
+     */
+    public static float fastCosPoly(float angle) {
+        return sinPoly((float) reduceToHalfPi(angle + HALF_PI));
+    }
+
+    /**
+     * Polynomial cosine function (double variant). See {@link #fastSinPoly(double)} for error bounds.
+     *
+     * @param angle the angle in radians
+     * @return the approximated cosine of the angle
+     */
+    public static double fastCosPoly(double angle) {
+        return fastSinPoly(angle + HALF_PI);
+    }
+
+    /**
+     * Polynomial approximation of {@link Math#atan2(double, double)}.
+     * <br><br>
+     * The absolute error is less than 2e-7 (float rounding dominates).
+     * Unlike {@link Math#atan2(double, double)}, the sign of zero is ignored: fastAtan2(0, 0) returns 0.
+     *
+     * @param y the ordinate coordinate
+     * @param x the abscissa coordinate
+     * @return the angle in radians in the range [-PI..PI]
+     */
+    public static float fastAtan2(float y, float x) {
+        return (float) fastAtan2((double) y, (double) x);
+    }
+
+    /**
+     * Polynomial approximation of {@link Math#atan2(double, double)} (double variant).
+     * <br><br>
+     * The absolute error is less than 3e-8.
+     * Unlike {@link Math#atan2(double, double)}, the sign of zero is ignored: fastAtan2(0, 0) returns 0.
+     *
+     * @param y the ordinate coordinate
+     * @param x the abscissa coordinate
+     * @return the angle in radians in the range [-PI..PI]
+     */
+    public static double fastAtan2(double y, double x) {
+        double ax = fastAbs(x);
+        double ay = fastAbs(y);
+        if (ax == 0 && ay == 0) {
+            return 0;
+        }
+        double result;
+        if (ax >= ay) {
+            result = atanUnit(ay / ax);
+        } else {
+            result = HALF_PI - atanUnit(ax / ay);
+        }
+        if (x < 0) {
+            result = Math.PI - result;
+        }
+        return (y < 0) ? -result : result;
+    }
+
+    /**
+     * Polynomial approximation of {@link Math#acos(double)}.
+     * <br><br>
+     * The absolute error is less than 3e-7 (float rounding dominates).
+     *
+     * @param value the value, in the range [-1..1]
+     * @return the arc cosine in radians in the range [0..PI]
+     */
+    public static float fastAcos(float value) {
+        return (float) fastAcos((double) value);
+    }
+
+    /**
+     * Polynomial approximation of {@link Math#acos(double)} (double variant).
+     * The minimax polynomial is taken from Abramowitz and Stegun, 4.4.46.
+     * <br><br>
+     * The absolute error is less than 3e-8.
+     *
+     * @param value the value, in the range [-1..1]
+     * @return the arc cosine in radians in the range [0..PI]
+     */
+    public static double fastAcos(double value) {
+        double x = fastAbs(value);
+        double poly = 1.5707963050 + x * (-0.2145988016 + x * (0.0889789874 + x * (-0.0501743046
+                + x * (0.0308918810 + x * (-0.0170881256 + x * (0.0066700901 + x * -0.0012624911))))));
+        double result = Math.sqrt(1.0 - x) * poly;
+        return (value < 0) ? Math.PI - result : result;
+    }
+
+    /**
+     * Minimax polynomial of degree 9 for sine in [-PI/2..PI/2].
+     */
+    private static float sinPoly(float x) {
+        float x2 = x * x;
+        return x * (0.99999999916f + x2 * (-0.16666662484f + x2 * (0.0083331307782f
+                + x2 * (-0.00019813423871f + x2 * 2.6125380354e-06f))));
+    }
+
+    /**
+     * Arc tangent for values in [0..1], taken from Abramowitz and Stegun, 4.4.49.
+     */
+    private static double atanUnit(double x) {
+        double x2 = x * x;
+        return x * (1.0 + x2 * (-0.3333314528 + x2 * (0.1999355085 + x2 * (-0.1420889944 + x2 * (0.1065626393
+                + x2 * (-0.0752896400 + x2 * (0.0429096138 + x2 * (-0.0161657367 + x2 * 0.0028662257))))))));
+    }
+
+    /**
+     * Reduces an angle to [-PI/2..PI/2] so that its sine remains unchanged.
+     */
+    private static double reduceToHalfPi(double angle) {
+        double x = angle - TWO_PI * fastFloor(angle * INV_TWO_PI + 0.5);
+        if (x > HALF_PI) {
+            return Math.PI - x;
+        }
+        if (x < -HALF_PI) {
+            return -Math.PI - x;
+        }
+        return x;
+    }
+
     /**
      * Rotates a given 2D array by 90 degrees
      * @param array an array with equal size in both dimensions
      * @return a new, rotated array
+     * @see FlatArrays#rotate90InPlace(float[], int)
      */
     public static float[][] rotateArray(float[][] array) {
         int size = array.length;
-        float[][] newArray = new float[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                newArray[i][j] = array[j][size - i - 1];
-            }
-        }
-        return newArray;
+        float[] flat = FlatArrays.flatten(array, new float[size * size]);
+        FlatArrays.rotate90InPlace(flat, size);
+        return FlatArrays.unflatten(flat, size, size, new float[size][size]);
     }
 
     /**
@@ -600,22 +974,25 @@ public static float[][] rotateArray(float[][] array) {
      * @param x the offset in x direction
      * @param y the offset in y direction
      * @return a new, shifted array
+     * @see FlatArrays#shiftInPlace(float[], int, int, int, int)
      */
     public static float[][] shiftArray(float[][] array, int x, int y) {
         int size = array.length;
-        float[][] newArray = new float[size][size];
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                newArray[i][j] = array[(i + x + size) % size][(j + y + size) % size];
-            }
-        }
-        return newArray;
+        float[] flat = FlatArrays.flatten(array, new float[size * size]);
+        FlatArrays.shiftInPlace(flat, size, size, x, y);
+        return FlatArrays.unflatten(flat, size, size, new float[size][size]);
     }
 
+    /**
+     * @see ArrayIndexer3 for repeated computations with the same size
+     */
     public static int calculate3DArrayIndex(Vector3i pos, Vector3i size) {
         return calculate3DArrayIndex(pos.x, pos.y, pos.z, size);
     }
 
+    /**
+     * @see ArrayIndexer3 for repeated computations with the same size
+     */
     public static int calculate3DArrayIndex(int x, int y, int z, Vector3i size) {
         return x + size.x * (z + size.z * (y));
     }
@@ -624,6 +1001,40 @@ public static float sqrt(float value) {
         return (float) Math.sqrt(value);
     }
 
+    /**
+     * Approximates 1 / sqrt(value) using the well-known bit-level initial guess,
+     * refined by two Newton-Raphson iterations.
+     * <br><br>
+     * The relative error is less than 5e-6 for all positive, normal values.
+     *
+     * @param value a positive value
+     * @return the approximated inverse square root
+     */
+    public static float invSqrt(float value) {
+        float half = 0.5f * value;
+        float y = Float.intBitsToFloat(0x5f375a86 - (Float.floatToRawIntBits(value) >> 1));
+        y = y * (1.5f - half * y * y);
+        y = y * (1.5f - half * y * y);
+        return y;
+    }
+
+    /**
+     * Approximates 1 / sqrt(value) using the well-known bit-level initial guess,
+     * refined by two Newton-Raphson iterations (double variant).
+     * <br><br>
+     * The relative error is less than 5e-6 for all positive, normal values.
+     *
+     * @param value a positive value
+     * @return the approximated inverse square root
+     */
+    public static double invSqrt(double value) {
+        double half = 0.5 * value;
+        double y = Double.longBitsToDouble(0x5fe6eb50c7b537a9L - (Double.doubleToRawLongBits(value) >> 1));
+        y = y * (1.5 - half * y * y);
+        y = y * (1.5 - half * y * y);
+        return y;
+    }
+
     public static float sqr(float f) {
         return f * f;
     }
@@ -17,6 +17,9 @@
 package org.terasology.math.geom;
 
 import java.util.Collection;
+import java.util.stream.Collector;
+
+import com.google.common.base.Preconditions;
 
 /**
  * Defines a axis-aligned bounding box based on a set of {@link BaseVector2f} instances.
@@ -62,6 +65,16 @@ public static Rect2f compute(Collection<? extends BaseVector2f> pts) {
         return bbox.toRect2f();
     }
 
+    /**
+     * A collector that computes the bounding box of a stream of points. Partial results
+     * of parallel streams are merged with {@link #combine(BoundingBox)}.
+     * @return a collector that returns the bounds or {@link Rect2f#EMPTY} for empty streams
+     */
+    public static Collector<BaseVector2f, BoundingBox, Rect2f> collector() {
+        return Collector.of(BoundingBox::new, BoundingBox::add, BoundingBox::combine, BoundingBox::toRect2f,
+                Collector.Characteristics.UNORDERED);
+    }
+
     /**
      * Resizes to include the given point
      * @param pt the Vector2i
@@ -80,6 +93,64 @@ public void addAll(Collection<? extends BaseVector2f> pts) {
         }
     }
 
+    /**
+     * Resizes to include all points of an array that stores interleaved (x, y) coordinates
+     * @param xy the coordinate array
+     * @param offset the array index of the x coordinate of the first point
+     * @param count the number of points
+     */
+    public void addAll(float[] xy, int offset, int count) {
+        Preconditions.checkArgument(offset >= 0 && count >= 0 && offset + 2 * count <= xy.length, "range exceeds the array size");
+        if (count == 0) {
+            return;
+        }
+
+        float minX = x1;
+        float minY = y1;
+        float maxX = x2;
+        float maxY = y2;
+        int end = offset + 2 * count;
+        for (int i = offset; i < end; i += 2) {
+            float x = xy[i];
+            float y = xy[i + 1];
+            // comparisons instead of Math.min/max, so that NaN coordinates are skipped like in add(float, float)
+            if (x < minX) {
+                minX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+        }
+        x1 = minX;
+        y1 = minY;
+        x2 = maxX;
+        y2 = maxY;
+
+        empty = false;
+    }
+
+    /**
+     * Resizes to include another bounding box, e.g. to merge the results of parallel computations
+     * @param other the other bounding box
+     * @return this
+     */
+    public BoundingBox combine(BoundingBox other) {
+        if (!other.empty) {
+            x1 = Math.min(x1, other.x1);
+            y1 = Math.min(y1, other.y1);
+            x2 = Math.max(x2, other.x2);
+            y2 = Math.max(y2, other.y2);
+            empty = false;
+        }
+        return this;
+    }
+
     /**
      * Resizes to include (x, y)
      * @param x the x coord.
@@ -25,7 +25,8 @@
  */
 public final class Circle implements Shape {
 
-    private final ImmutableVector2f center;
+    private final float centerX;
+    private final float centerY;
     private final float radius;
 
     /**
@@ -36,7 +37,8 @@ public final class Circle implements Shape {
     public Circle(float centerX, float centerY, float radius) {
         Preconditions.checkArgument(radius >= 0, "radius must be >= 0");
 
-        this.center = new ImmutableVector2f(centerX, centerY);
+        this.centerX = centerX;
+        this.centerY = centerY;
         this.radius = radius;
     }
 
@@ -51,14 +53,37 @@ public Circle(BaseVector2f center, float radius) {
 
     @Override
     public String toString() {
-        return "Circle [center: " + center + ", radius: " + radius + "]";
+        return "Circle [center: (" + centerX + ", " + centerY + "), radius: " + radius + "]";
     }
 
     /**
-     * @return the center of the cirle
+     * @return a new instance; prefer {@link #centerX()}/{@link #centerY()} or {@link #getCenter(Vector2f)} in hot code
      */
     public ImmutableVector2f getCenter() {
-        return center;
+        return new ImmutableVector2f(centerX, centerY);
+    }
+
+    /**
+     * @param out the vector that receives the center
+     * @return out
+     */
+    public Vector2f getCenter(Vector2f out) {
+        out.set(centerX, centerY);
+        return out;
+    }
+
+    /**
+     * @return the x coordinate of the center
+     */
+    public float centerX() {
+        return centerX;
+    }
+
+    /**
+     * @return the y coordinate of the center
+     */
+    public float centerY() {
+        return centerY;
     }
 
     /**
@@ -71,7 +96,7 @@ public float getRadius() {
     @Override
     public Rect2f getBounds() {
         float dia = radius * 2f;
-        return Rect2f.createFromMinAndSize(center.x() - radius, center.y() - radius, dia, dia);
+        return Rect2f.createFromMinAndSize(centerX - radius, centerY - radius, dia, dia);
     }
 
     /**
@@ -95,14 +120,14 @@ public boolean contains(BaseVector2i v) {
      */
     @Override
     public boolean contains(float x, float y) {
-        float dx = x - center.x();
-        float dy = y - center.y();
+        float dx = x - centerX;
+        float dy = y - centerY;
 
         return dx * dx + dy * dy <= radius * radius;
     }
 
     public boolean intersects(Rect2i rect) {
-        return intersects(center.getX(), center.getY(), radius, rect);
+        return intersects(centerX, centerY, radius, rect);
     }
 
     /**
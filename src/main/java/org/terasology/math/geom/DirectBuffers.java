@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Allocates and explicitly releases direct byte buffers. Direct memory is normally released only when
+ * the buffer object is garbage collected, which may happen much later (or never) for large buffers.
+ * The same applies to memory-mapped files, which stay mapped (and on some platforms locked) until then.
+ */
+public final class DirectBuffers {
+
+    /**
+     * Java 9+: sun.misc.Unsafe.invokeCleaner(ByteBuffer)
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    /**
+     * Java 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+     */
+    private static final Method CLEANER;
+    private static final Method CLEAN;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        Method cleaner = null;
+        Method clean = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+            try {
+                cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            } catch (ReflectiveOperationException | RuntimeException e2) {
+                cleaner = null;
+                clean = null;
+            }
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    private DirectBuffers() {
+        // no instances
+    }
+
+    /**
+     * @param bytes the size of the buffer in bytes
+     * @return a new direct buffer in native byte order
+     */
+    static ByteBuffer allocate(long bytes) {
+        Preconditions.checkArgument(bytes >= 0 && bytes <= Integer.MAX_VALUE, "invalid buffer size %s", bytes);
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Releases the memory of a direct buffer or unmaps a mapped buffer immediately.
+     * The buffer and all views on it must not be used afterwards.
+     * @param buffer the buffer to release - must not be a duplicate or a slice
+     * @return true if the memory was released, false if it is left to the garbage collector
+     */
+    public static boolean free(ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return false;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return true;
+            }
+            if (CLEANER != null) {
+                Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) {
+                    CLEAN.invoke(cleaner);
+                    return true;
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // fall through - the memory is released by the garbage collector
+        }
+        return false;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A view frustum that is defined by six planes. The planes are extracted from a view-projection matrix
+ * that transforms column vectors into OpenGL clip space, as created by {@link MatrixUtility}.
+ * {@link #set(BaseMatrix4f)} requires the default [-1..1] clip space depth range; reversed-Z projections
+ * with a [0..1] depth range must use {@link #setReversedZ(BaseMatrix4f)} instead.
+ * All plane normals point inwards and are normalized, so plane distances are Euclidean distances.
+ * <br><br>
+ * Batch methods operate on axis-aligned boxes in structure-of-arrays layout: a single array holds
+ * all min. x values, followed by all min. y, min. z, max. x, max. y and max. z values, i.e.
+ * component <code>c</code> of box <code>i</code> is stored at <code>c * count + i</code>.
+ * The results are written into a bitset where bit <code>i % 64</code> of <code>visible[i / 64]</code> is set for visible boxes.
+ */
+public final class Frustum {
+
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int BOTTOM = 2;
+    public static final int TOP = 3;
+    public static final int NEAR = 4;
+    public static final int FAR = 5;
+
+    /**
+     * The number of planes
+     */
+    public static final int PLANES = 6;
+
+    /**
+     * The plane mask that contains all planes
+     */
+    public static final int ALL_PLANES = (1 << PLANES) - 1;
+
+    /**
+     * Returned by {@link #testAABB(float, float, float, float, float, float, int)} for boxes outside of the frustum
+     */
+    public static final int OUTSIDE = -1;
+
+    private final float[] nx = new float[PLANES];
+    private final float[] ny = new float[PLANES];
+    private final float[] nz = new float[PLANES];
+    private final float[] d = new float[PLANES];
+
+    // absolute values of the normal components for the box extent test
+    private final float[] ax = new float[PLANES];
+    private final float[] ay = new float[PLANES];
+    private final float[] az = new float[PLANES];
+
+    /**
+     * Creates a frustum that contains everything, i.e. all planes are degenerated
+     */
+    public Frustum() {
+        for (int p = 0; p < PLANES; p++) {
+            d[p] = Float.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * @param viewProjection the combined view-projection matrix
+     */
+    public Frustum(BaseMatrix4f viewProjection) {
+        set(viewProjection);
+    }
+
+    /**
+     * Extracts the planes from a view-projection matrix (Gribb/Hartmann). The matrix must map the near plane
+     * to depth -1 and the far plane to depth 1, i.e. use the default OpenGL [-1..1] clip space depth range.
+     * @param m the combined view-projection matrix
+     * @return this
+     */
+    public Frustum set(BaseMatrix4f m) {
+        setSidePlanes(m);
+        setPlane(NEAR, m.getM30() + m.getM20(), m.getM31() + m.getM21(), m.getM32() + m.getM22(), m.getM33() + m.getM23());
+        setPlane(FAR, m.getM30() - m.getM20(), m.getM31() - m.getM21(), m.getM32() - m.getM22(), m.getM33() - m.getM23());
+        return this;
+    }
+
+    /**
+     * Extracts the planes from a reversed-Z view-projection matrix with a [0..1] clip space depth range
+     * that maps the near plane to depth 1 and the far plane to depth 0, as created by
+     * {@link MatrixUtility#setReversedZPerspectiveProjectionMatrix(float, float, float, float, Matrix4f)}.
+     * @param m the combined view-projection matrix
+     * @return this
+     */
+    public Frustum setReversedZ(BaseMatrix4f m) {
+        setSidePlanes(m);
+        setPlane(NEAR, m.getM30() - m.getM20(), m.getM31() - m.getM21(), m.getM32() - m.getM22(), m.getM33() - m.getM23());
+        setPlane(FAR, m.getM20(), m.getM21(), m.getM22(), m.getM23());
+        return this;
+    }
+
+    /**
+     * @param plane the plane index, e.g. {@link #LEFT}
+     * @param out the vector that receives the plane as (normal x, normal y, normal z, distance)
+     * @return out
+     */
+    public Vector4f getPlane(int plane, Vector4f out) {
+        Preconditions.checkElementIndex(plane, PLANES);
+        out.set(nx[plane], ny[plane], nz[plane], d[plane]);
+        return out;
+    }
+
+    /**
+     * @param plane the plane index, e.g. {@link #LEFT}
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the signed distance of the point to the plane, positive on the inner side
+     */
+    public float distance(int plane, float x, float y, float z) {
+        return nx[plane] * x + ny[plane] * y + nz[plane] * z + d[plane];
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if the point is inside the frustum or on its boundary
+     */
+    public boolean contains(float x, float y, float z) {
+        for (int p = 0; p < PLANES; p++) {
+            if (distance(p, x, y, z) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param point the point
+     * @return true if the point is inside the frustum or on its boundary
+     */
+    public boolean contains(BaseVector3f point) {
+        return contains(point.getX(), point.getY(), point.getZ());
+    }
+
+    /**
+     * Conservative sphere test - spheres close to the frustum edges may be reported as intersecting.
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     * @param z the z coordinate of the center
+     * @param radius the radius
+     * @return true if the sphere intersects or is inside the frustum
+     */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        for (int p = 0; p < PLANES; p++) {
+            if (distance(p, x, y, z) < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Conservative box test - boxes close to the frustum edges may be reported as intersecting.
+     * @param minX the min. x coordinate
+     * @param minY the min. y coordinate
+     * @param minZ the min. z coordinate
+     * @param maxX the max. x coordinate
+     * @param maxY the max. y coordinate
+     * @param maxZ the max. z coordinate
+     * @return true if the box intersects or is inside the frustum
+     */
+    public boolean intersectsAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        return testAABB(minX, minY, minZ, maxX, maxY, maxZ, ALL_PLANES) != OUTSIDE;
+    }
+
+    /**
+     * Tests a box against a subset of the planes. The result can be passed on to test boxes that are contained
+     * in this box: planes that the parent box is completely inside of do not need to be tested again.
+     * @param minX the min. x coordinate
+     * @param minY the min. y coordinate
+     * @param minZ the min. z coordinate
+     * @param maxX the max. x coordinate
+     * @param maxY the max. y coordinate
+     * @param maxZ the max. z coordinate
+     * @param planeMask the planes to test, one bit per plane index
+     * @return {@link #OUTSIDE} if the box is outside of one of the planes, otherwise the mask of the tested planes
+     *          that intersect the box. Zero means that the box is inside all tested planes.
+     */
+    public int testAABB(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int planeMask) {
+        float cx = (minX + maxX) * 0.5f;
+        float cy = (minY + maxY) * 0.5f;
+        float cz = (minZ + maxZ) * 0.5f;
+        float ex = (maxX - minX) * 0.5f;
+        float ey = (maxY - minY) * 0.5f;
+        float ez = (maxZ - minZ) * 0.5f;
+
+        int result = 0;
+        for (int p = 0; p < PLANES; p++) {
+            int bit = 1 << p;
+            if ((planeMask & bit) != 0) {
+                float dist = nx[p] * cx + ny[p] * cy + nz[p] * cz + d[p];
+                float radius = ax[p] * ex + ay[p] * ey + az[p] * ez;
+                if (dist < -radius) {
+                    return OUTSIDE;
+                }
+                if (dist < radius) {
+                    result |= bit;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Tests many boxes against the frustum.
+     * @param boxes the boxes in structure-of-arrays layout (see class description)
+     * @param count the number of boxes
+     * @param visible the bitset that receives the result, at least <code>(count + 63) / 64</code> entries
+     * @return the number of visible boxes
+     */
+    public int cull(float[] boxes, int count, long[] visible) {
+        return cull(boxes, count, visible, null);
+    }
+
+    /**
+     * Tests many boxes against the frustum and exploits temporal coherency: the plane that rejected a box
+     * in the previous frame is tested first, since it is most likely to reject it again.
+     * @param boxes the boxes in structure-of-arrays layout (see class description)
+     * @param count the number of boxes
+     * @param visible the bitset that receives the result, at least <code>(count + 63) / 64</code> entries
+     * @param lastPlane the index of the plane that rejected each box the last time, updated by this method.
+     *                  Initialize with zeros. May be null.
+     * @return the number of visible boxes
+     */
+    public int cull(float[] boxes, int count, long[] visible, byte[] lastPlane) {
+        Preconditions.checkArgument(boxes.length >= count * 6, "boxes array is too small");
+        Preconditions.checkArgument(visible.length >= (count + 63) / 64, "bitset is too small");
+
+        int visibleCount = 0;
+        for (int w = 0; w < (count + 63) / 64; w++) {
+            long bits = 0;
+            int end = Math.min(count, (w + 1) * 64);
+            for (int i = w * 64; i < end; i++) {
+                if (isBoxVisible(boxes, count, i, ALL_PLANES, lastPlane)) {
+                    bits |= 1L << i;
+                    visibleCount++;
+                }
+            }
+            visible[w] = bits;
+        }
+        return visibleCount;
+    }
+
+    /**
+     * Tests many boxes that are organized in groups of <code>groupSize</code> consecutive boxes.
+     * Each group has a bounding box that contains all boxes of the group, e.g. a chunk column that contains chunks.
+     * Groups that are completely outside or inside the frustum are resolved without testing their boxes,
+     * the boxes of the remaining groups are tested only against the planes that intersect the group bounds.
+     * @param boxes the boxes in structure-of-arrays layout (see class description)
+     * @param count the number of boxes
+     * @param groupBounds the group bounding boxes in structure-of-arrays layout, <code>ceil(count / groupSize)</code> entries
+     * @param groupSize the number of boxes per group
+     * @param visible the bitset that receives the result, at least <code>(count + 63) / 64</code> entries
+     * @param lastPlane the index of the plane that rejected each box the last time, updated by this method. May be null.
+     * @return the number of visible boxes
+     */
+    public int cull(float[] boxes, int count, float[] groupBounds, int groupSize, long[] visible, byte[] lastPlane) {
+        Preconditions.checkArgument(groupSize > 0, "groupSize must be positive");
+        int groupCount = (count + groupSize - 1) / groupSize;
+        Preconditions.checkArgument(boxes.length >= count * 6, "boxes array is too small");
+        Preconditions.checkArgument(groupBounds.length >= groupCount * 6, "groupBounds array is too small");
+        Preconditions.checkArgument(visible.length >= (count + 63) / 64, "bitset is too small");
+
+        for (int w = 0; w < (count + 63) / 64; w++) {
+            visible[w] = 0;
+        }
+
+        int visibleCount = 0;
+        for (int g = 0; g < groupCount; g++) {
+            int mask = testAABB(
+                    groupBounds[g], groupBounds[groupCount + g], groupBounds[2 * groupCount + g],
+                    groupBounds[3 * groupCount + g], groupBounds[4 * groupCount + g], groupBounds[5 * groupCount + g],
+                    ALL_PLANES);
+            if (mask == OUTSIDE) {
+                continue;
+            }
+            int start = g * groupSize;
+            int end = Math.min(count, start + groupSize);
+            for (int i = start; i < end; i++) {
+                if (mask == 0 || isBoxVisible(boxes, count, i, mask, lastPlane)) {
+                    visible[i >>> 6] |= 1L << i;
+                    visibleCount++;
+                }
+            }
+        }
+        return visibleCount;
+    }
+
+    /**
+     * @param visible the bitset
+     * @param index the box index
+     * @return true if the bit of the box is set
+     */
+    public static boolean isVisible(long[] visible, int index) {
+        return (visible[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private boolean isBoxVisible(float[] boxes, int count, int i, int planeMask, byte[] lastPlane) {
+        float minX = boxes[i];
+        float minY = boxes[count + i];
+        float minZ = boxes[2 * count + i];
+        float maxX = boxes[3 * count + i];
+        float maxY = boxes[4 * count + i];
+        float maxZ = boxes[5 * count + i];
+
+        float cx = (minX + maxX) * 0.5f;
+        float cy = (minY + maxY) * 0.5f;
+        float cz = (minZ + maxZ) * 0.5f;
+        float ex = (maxX - minX) * 0.5f;
+        float ey = (maxY - minY) * 0.5f;
+        float ez = (maxZ - minZ) * 0.5f;
+
+        int first = (lastPlane != null) ? lastPlane[i] : 0;
+        for (int k = 0; k < PLANES; k++) {
+            int p = (first + k) % PLANES;
+            if ((planeMask & (1 << p)) != 0) {
+                float dist = nx[p] * cx + ny[p] * cy + nz[p] * cz + d[p];
+                float radius = ax[p] * ex + ay[p] * ey + az[p] * ez;
+                if (dist < -radius) {
+                    if (lastPlane != null) {
+                        lastPlane[i] = (byte) p;
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void setSidePlanes(BaseMatrix4f m) {
+        setPlane(LEFT, m.getM30() + m.getM00(), m.getM31() + m.getM01(), m.getM32() + m.getM02(), m.getM33() + m.getM03());
+        setPlane(RIGHT, m.getM30() - m.getM00(), m.getM31() - m.getM01(), m.getM32() - m.getM02(), m.getM33() - m.getM03());
+        setPlane(BOTTOM, m.getM30() + m.getM10(), m.getM31() + m.getM11(), m.getM32() + m.getM12(), m.getM33() + m.getM13());
+        setPlane(TOP, m.getM30() - m.getM10(), m.getM31() - m.getM11(), m.getM32() - m.getM12(), m.getM33() - m.getM13());
+    }
+
+    private void setPlane(int plane, float a, float b, float c, float dist) {
+        float len = (float) Math.sqrt(a * a + b * b + c * c);
+        float inv = (len > 0) ? 1f / len : 0f;
+        nx[plane] = a * inv;
+        ny[plane] = b * inv;
+        nz[plane] = c * inv;
+        d[plane] = dist * inv;
+        ax[plane] = Math.abs(nx[plane]);
+        ay[plane] = Math.abs(ny[plane]);
+        az[plane] = Math.abs(nz[plane]);
+    }
+}
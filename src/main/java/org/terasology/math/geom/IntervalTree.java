@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A static index over closed integer intervals [min..max] that finds all intervals overlapping a query range
+ * in O(log n + k) time. The intervals are sorted by their lower bound and stored in flat arrays that form an
+ * implicit balanced search tree, where every node also knows the largest upper bound in its subtree.
+ * <br><br>
+ * The tree refers to intervals by their index in the input. Empty intervals (max &lt; min) are never reported.
+ */
+public final class IntervalTree {
+
+    private final int[] ids;
+    private final int[] mins;
+    private final int[] maxs;
+    private final int[] subtreeMax;
+
+    /**
+     * @param mins the lower bounds (inclusive)
+     * @param maxs the upper bounds (inclusive)
+     * @param count the number of intervals
+     */
+    public IntervalTree(int[] mins, int[] maxs, int count) {
+        Preconditions.checkArgument(count >= 0 && count <= mins.length && count <= maxs.length, "count exceeds the array size");
+
+        long[] order = new long[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (maxs[i] >= mins[i]) {
+                order[n++] = pack(mins[i], i);
+            }
+        }
+        Arrays.sort(order, 0, n);
+
+        this.ids = new int[n];
+        this.mins = new int[n];
+        this.maxs = new int[n];
+        this.subtreeMax = new int[n];
+        for (int k = 0; k < n; k++) {
+            int id = (int) order[k];
+            this.ids[k] = id;
+            this.mins[k] = mins[id];
+            this.maxs[k] = maxs[id];
+        }
+        buildSubtreeMax(0, n);
+    }
+
+    /**
+     * Indexes the rows of a set of rectangles, i.e. the intervals [minY..maxY].
+     * @param rects the rectangles
+     * @return a new tree that reports indices into the list
+     */
+    public static IntervalTree ofRows(List<Rect2i> rects) {
+        int count = rects.size();
+        int[] mins = new int[count];
+        int[] maxs = new int[count];
+        for (int i = 0; i < count; i++) {
+            Rect2i rc = rects.get(i);
+            mins[i] = rc.minY();
+            maxs[i] = rc.isEmpty() ? rc.minY() - 1 : rc.maxY();
+        }
+        return new IntervalTree(mins, maxs, count);
+    }
+
+    /**
+     * Indexes the columns of a set of rectangles, i.e. the intervals [minX..maxX].
+     * @param rects the rectangles
+     * @return a new tree that reports indices into the list
+     */
+    public static IntervalTree ofColumns(List<Rect2i> rects) {
+        int count = rects.size();
+        int[] mins = new int[count];
+        int[] maxs = new int[count];
+        for (int i = 0; i < count; i++) {
+            Rect2i rc = rects.get(i);
+            mins[i] = rc.minX();
+            maxs[i] = rc.isEmpty() ? rc.minX() - 1 : rc.maxX();
+        }
+        return new IntervalTree(mins, maxs, count);
+    }
+
+    /**
+     * @return the number of non-empty intervals in the tree
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Reports all intervals that contain the given value
+     * @param value the value
+     * @param action receives the interval indices in ascending order of their lower bounds
+     */
+    public void forEachOverlap(int value, IntConsumer action) {
+        forEachOverlap(value, value, action);
+    }
+
+    /**
+     * Reports all intervals that overlap the closed range [min..max]
+     * @param min the lower bound of the range (inclusive)
+     * @param max the upper bound of the range (inclusive)
+     * @param action receives the interval indices in ascending order of their lower bounds
+     */
+    public void forEachOverlap(int min, int max, IntConsumer action) {
+        visit(0, ids.length, min, max, action);
+    }
+
+    /**
+     * Collects the indices of all intervals that overlap the closed range [min..max]
+     * @param min the lower bound of the range (inclusive)
+     * @param max the upper bound of the range (inclusive)
+     * @param result receives the interval indices; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    public int getOverlaps(int min, int max, int[] result) {
+        return collect(0, ids.length, min, max, result, 0);
+    }
+
+    private int buildSubtreeMax(int lo, int hi) {
+        if (lo >= hi) {
+            return Integer.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        int max = Math.max(maxs[mid], Math.max(buildSubtreeMax(lo, mid), buildSubtreeMax(mid + 1, hi)));
+        subtreeMax[mid] = max;
+        return max;
+    }
+
+    private void visit(int lo, int hi, int min, int max, IntConsumer action) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (subtreeMax[mid] < min) {
+                return;
+            }
+            visit(lo, mid, min, max, action);
+            if (mins[mid] > max) {
+                return;
+            }
+            if (maxs[mid] >= min) {
+                action.accept(ids[mid]);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private int collect(int lo, int hi, int min, int max, int[] result, int count) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (subtreeMax[mid] < min) {
+                return count;
+            }
+            count = collect(lo, mid, min, max, result, count);
+            if (mins[mid] > max) {
+                return count;
+            }
+            if (maxs[mid] >= min) {
+                if (count < result.length) {
+                    result[count] = ids[mid];
+                }
+                count++;
+            }
+            lo = mid + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Packs a sort key and an index into a long that sorts by key first, then by index
+     */
+    static long pack(int key, int index) {
+        return ((long) key << 32) | index;
+    }
+}
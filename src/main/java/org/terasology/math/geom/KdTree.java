@@ -0,0 +1,374 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * The common implementation of {@link KdTree2f} and {@link KdTree3f}. The tree is implicit: the points are
+ * reordered so that the median of every range [lo..hi) along the splitting axis is at (lo + hi) / 2, with smaller
+ * or equal values before and larger or equal values after it. The splitting axis cycles with the depth.
+ * The coordinates are kept in one array per axis, no node objects are created.
+ * <br><br>
+ * The tree cannot be modified after it has been built. Queries do not allocate memory and are thread-safe.
+ */
+abstract class KdTree {
+
+    /**
+     * Ranges that are smaller than this are not split into parallel tasks
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] zs;
+    private final int[] ids;
+    private final int dimensions;
+
+    /**
+     * @param xs the x coordinates (values are copied)
+     * @param ys the y coordinates (values are copied)
+     * @param zs the z coordinates (values are copied) or null for two dimensions
+     * @param count the number of points
+     * @param parallel true to split the work into tasks of the common fork-join pool
+     */
+    KdTree(float[] xs, float[] ys, float[] zs, int count, boolean parallel) {
+        Preconditions.checkArgument(count >= 0 && count <= xs.length && count <= ys.length
+                && (zs == null || count <= zs.length), "count exceeds the array size");
+
+        this.dimensions = (zs == null) ? 2 : 3;
+        this.xs = new float[count];
+        this.ys = new float[count];
+        this.zs = (zs == null) ? null : new float[count];
+        this.ids = new int[count];
+        System.arraycopy(xs, 0, this.xs, 0, count);
+        System.arraycopy(ys, 0, this.ys, 0, count);
+        if (zs != null) {
+            System.arraycopy(zs, 0, this.zs, 0, count);
+        }
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+        }
+
+        if (parallel && count >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new BuildTask(0, count, 0));
+        } else {
+            build(0, count, 0);
+        }
+    }
+
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    int nearest(float x, float y, float z) {
+        int best = nearest(0, ids.length, 0, x, y, z, -1);
+        return (best < 0) ? -1 : ids[best];
+    }
+
+    int nearest(float x, float y, float z, int[] indices, float[] distancesSquared) {
+        Preconditions.checkArgument(distancesSquared.length >= indices.length, "distance buffer is smaller than the index buffer");
+        int size = nearest(0, ids.length, 0, x, y, z, indices, distancesSquared, indices.length, 0);
+
+        // the buffers form a max-heap - sort it in ascending order
+        for (int n = size - 1; n > 0; n--) {
+            swap(indices, distancesSquared, 0, n);
+            siftDown(indices, distancesSquared, n);
+        }
+        for (int i = 0; i < size; i++) {
+            indices[i] = ids[indices[i]];
+        }
+        return size;
+    }
+
+    int withinRadius(float x, float y, float z, float radius, int[] result) {
+        return withinRadius(0, ids.length, 0, x, y, z, radius, result, 0);
+    }
+
+    int withinBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] result) {
+        return withinBox(0, ids.length, 0, minX, minY, minZ, maxX, maxY, maxZ, result, 0);
+    }
+
+    private void build(int lo, int hi, int depth) {
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi, mid, coords(depth));
+            build(lo, mid, depth + 1);
+            lo = mid + 1;
+            depth++;
+        }
+    }
+
+    /**
+     * Partially sorts [lo..hi) so that the element at k is in its sorted position
+     */
+    private void select(int lo, int hi, int k, float[] c) {
+        int left = lo;
+        int right = hi - 1;
+        while (right > left) {
+            float a = c[left];
+            float b = c[(left + right) >>> 1];
+            float d = c[right];
+            float pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), d));
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (c[i] < pivot) {
+                    i++;
+                }
+                while (c[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        float tx = xs[i];
+        xs[i] = xs[j];
+        xs[j] = tx;
+        float ty = ys[i];
+        ys[i] = ys[j];
+        ys[j] = ty;
+        if (zs != null) {
+            float tz = zs[i];
+            zs[i] = zs[j];
+            zs[j] = tz;
+        }
+        int id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+    }
+
+    private int nearest(int lo, int hi, int depth, float x, float y, float z, int best) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (best < 0 || distanceSquared(mid, x, y, z) < distanceSquared(best, x, y, z)) {
+                best = mid;
+            }
+            float diff = value(depth, x, y, z) - coords(depth)[mid];
+            if (diff < 0) {
+                best = nearest(lo, mid, depth + 1, x, y, z, best);
+                lo = mid + 1;
+            } else {
+                best = nearest(mid + 1, hi, depth + 1, x, y, z, best);
+                hi = mid;
+            }
+            if (diff * diff >= distanceSquared(best, x, y, z)) {
+                return best;
+            }
+            depth++;
+        }
+        return best;
+    }
+
+    private int nearest(int lo, int hi, int depth, float x, float y, float z, int[] heap, float[] dist, int k, int size) {
+        while (lo < hi && k > 0) {
+            int mid = (lo + hi) >>> 1;
+            float distSq = distanceSquared(mid, x, y, z);
+            if (size < k) {
+                heap[size] = mid;
+                dist[size] = distSq;
+                siftUp(heap, dist, size++);
+            } else if (distSq < dist[0]) {
+                heap[0] = mid;
+                dist[0] = distSq;
+                siftDown(heap, dist, size);
+            }
+            float diff = value(depth, x, y, z) - coords(depth)[mid];
+            if (diff < 0) {
+                size = nearest(lo, mid, depth + 1, x, y, z, heap, dist, k, size);
+                lo = mid + 1;
+            } else {
+                size = nearest(mid + 1, hi, depth + 1, x, y, z, heap, dist, k, size);
+                hi = mid;
+            }
+            if (size == k && diff * diff >= dist[0]) {
+                return size;
+            }
+            depth++;
+        }
+        return size;
+    }
+
+    private int withinRadius(int lo, int hi, int depth, float x, float y, float z, float radius, int[] result, int count) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (distanceSquared(mid, x, y, z) <= radius * radius) {
+                if (count < result.length) {
+                    result[count] = ids[mid];
+                }
+                count++;
+            }
+            float v = coords(depth)[mid];
+            float q = value(depth, x, y, z);
+            if (v >= q - radius) {
+                count = withinRadius(lo, mid, depth + 1, x, y, z, radius, result, count);
+            }
+            if (v > q + radius) {
+                return count;
+            }
+            lo = mid + 1;
+            depth++;
+        }
+        return count;
+    }
+
+    private int withinBox(int lo, int hi, int depth, float minX, float minY, float minZ,
+                          float maxX, float maxY, float maxZ, int[] result, int count) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            float x = xs[mid];
+            float y = ys[mid];
+            float z = (zs == null) ? 0 : zs[mid];
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && (zs == null || (z >= minZ && z <= maxZ))) {
+                if (count < result.length) {
+                    result[count] = ids[mid];
+                }
+                count++;
+            }
+            float v = coords(depth)[mid];
+            if (v >= value(depth, minX, minY, minZ)) {
+                count = withinBox(lo, mid, depth + 1, minX, minY, minZ, maxX, maxY, maxZ, result, count);
+            }
+            if (v > value(depth, maxX, maxY, maxZ)) {
+                return count;
+            }
+            lo = mid + 1;
+            depth++;
+        }
+        return count;
+    }
+
+    private float distanceSquared(int index, float x, float y, float z) {
+        float dx = xs[index] - x;
+        float dy = ys[index] - y;
+        if (zs == null) {
+            return dx * dx + dy * dy;
+        }
+        float dz = zs[index] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private float[] coords(int depth) {
+        switch (depth % dimensions) {
+            case 0:
+                return xs;
+            case 1:
+                return ys;
+            default:
+                return zs;
+        }
+    }
+
+    private float value(int depth, float x, float y, float z) {
+        switch (depth % dimensions) {
+            case 0:
+                return x;
+            case 1:
+                return y;
+            default:
+                return z;
+        }
+    }
+
+    private static void siftUp(int[] heap, float[] dist, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (dist[parent] >= dist[i]) {
+                return;
+            }
+            swap(heap, dist, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] dist, int size) {
+        int i = 0;
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && dist[left] > dist[largest]) {
+                largest = left;
+            }
+            if (right < size && dist[right] > dist[largest]) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            swap(heap, dist, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(int[] heap, float[] dist, int i, int j) {
+        int h = heap[i];
+        heap[i] = heap[j];
+        heap[j] = h;
+        float d = dist[i];
+        dist[i] = dist[j];
+        dist[j] = d;
+    }
+
+    /**
+     * Builds the subtrees of large ranges in parallel. The ranges of sibling tasks do not overlap.
+     */
+    private final class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int depth;
+
+        BuildTask(int lo, int hi, int depth) {
+            this.lo = lo;
+            this.hi = hi;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                build(lo, hi, depth);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi, mid, coords(depth));
+            invokeAll(new BuildTask(lo, mid, depth + 1), new BuildTask(mid + 1, hi, depth + 1));
+        }
+    }
+}
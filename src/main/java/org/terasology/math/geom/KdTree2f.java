@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+/**
+ * A static k-d tree over a set of 2D points for nearest neighbour, radius and box queries
+ * in O(log n) expected time instead of a linear scan over all points.
+ * <br><br>
+ * The points are given as separate coordinate arrays and are referred to by their index in these arrays.
+ * Query results are written into caller-supplied buffers, so queries do not allocate memory.
+ * The tree is immutable and can be queried from multiple threads.
+ */
+public final class KdTree2f extends KdTree {
+
+    private KdTree2f(float[] xs, float[] ys, int count, boolean parallel) {
+        super(xs, ys, null, count, parallel);
+    }
+
+    /**
+     * @param xs the x coordinates (values are copied)
+     * @param ys the y coordinates (values are copied)
+     * @param count the number of points
+     * @return a new tree
+     */
+    public static KdTree2f create(float[] xs, float[] ys, int count) {
+        return new KdTree2f(xs, ys, count, false);
+    }
+
+    /**
+     * Builds the tree using the common fork-join pool. Small point sets are built sequentially.
+     * @param xs the x coordinates (values are copied)
+     * @param ys the y coordinates (values are copied)
+     * @param count the number of points
+     * @return a new tree
+     */
+    public static KdTree2f createParallel(float[] xs, float[] ys, int count) {
+        return new KdTree2f(xs, ys, count, true);
+    }
+
+    /**
+     * @param x the x coordinate of the query point
+     * @param y the y coordinate of the query point
+     * @return the index of the closest point or -1 if the tree is empty
+     */
+    public int nearest(float x, float y) {
+        return nearest(x, y, 0);
+    }
+
+    /**
+     * @param p the query point
+     * @return the index of the closest point or -1 if the tree is empty
+     */
+    public int nearest(BaseVector2f p) {
+        return nearest(p.getX(), p.getY(), 0);
+    }
+
+    /**
+     * Finds the k closest points, where k is the length of the index buffer
+     * @param x the x coordinate of the query point
+     * @param y the y coordinate of the query point
+     * @param indices receives the point indices, closest first
+     * @param distancesSquared receives the squared distances, must be at least as long as the index buffer
+     * @return the number of points found, i.e. the smaller of k and {@link #size()}
+     */
+    public int nearest(float x, float y, int[] indices, float[] distancesSquared) {
+        return nearest(x, y, 0, indices, distancesSquared);
+    }
+
+    /**
+     * Finds all points within a circle (inclusive)
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     * @param radius the radius
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    public int withinRadius(float x, float y, float radius, int[] result) {
+        return withinRadius(x, y, 0, radius, result);
+    }
+
+    /**
+     * Finds all points within an axis-aligned box (inclusive)
+     * @param minX the minimum x coordinate
+     * @param minY the minimum y coordinate
+     * @param maxX the maximum x coordinate
+     * @param maxY the maximum y coordinate
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    public int withinBox(float minX, float minY, float maxX, float maxY, int[] result) {
+        return withinBox(minX, minY, 0, maxX, maxY, 0, result);
+    }
+
+    /**
+     * Finds all points within a rectangle, including its border
+     * @param rect the rectangle
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    public int withinBox(Rect2f rect, int[] result) {
+        if (rect.isEmpty()) {
+            return 0;
+        }
+        return withinBox(rect.minX(), rect.minY(), 0, rect.maxX(), rect.maxY(), 0, result);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+/**
+ * A static k-d tree over a set of 3D points for nearest neighbour, radius and box queries
+ * in O(log n) expected time instead of a linear scan over all points.
+ * <br><br>
+ * The points are given as separate coordinate arrays and are referred to by their index in these arrays.
+ * Query results are written into caller-supplied buffers, so queries do not allocate memory.
+ * The tree is immutable and can be queried from multiple threads.
+ */
+public final class KdTree3f extends KdTree {
+
+    private KdTree3f(float[] xs, float[] ys, float[] zs, int count, boolean parallel) {
+        super(xs, ys, zs, count, parallel);
+    }
+
+    /**
+     * @param xs the x coordinates (values are copied)
+     * @param ys the y coordinates (values are copied)
+     * @param zs the z coordinates (values are copied)
+     * @param count the number of points
+     * @return a new tree
+     */
+    public static KdTree3f create(float[] xs, float[] ys, float[] zs, int count) {
+        return new KdTree3f(xs, ys, zs, count, false);
+    }
+
+    /**
+     * Builds the tree using the common fork-join pool. Small point sets are built sequentially.
+     * @param xs the x coordinates (values are copied)
+     * @param ys the y coordinates (values are copied)
+     * @param zs the z coordinates (values are copied)
+     * @param count the number of points
+     * @return a new tree
+     */
+    public static KdTree3f createParallel(float[] xs, float[] ys, float[] zs, int count) {
+        return new KdTree3f(xs, ys, zs, count, true);
+    }
+
+    /**
+     * @param x the x coordinate of the query point
+     * @param y the y coordinate of the query point
+     * @param z the z coordinate of the query point
+     * @return the index of the closest point or -1 if the tree is empty
+     */
+    @Override
+    public int nearest(float x, float y, float z) {
+        return super.nearest(x, y, z);
+    }
+
+    /**
+     * @param p the query point
+     * @return the index of the closest point or -1 if the tree is empty
+     */
+    public int nearest(BaseVector3f p) {
+        return super.nearest(p.getX(), p.getY(), p.getZ());
+    }
+
+    /**
+     * Finds the k closest points, where k is the length of the index buffer
+     * @param x the x coordinate of the query point
+     * @param y the y coordinate of the query point
+     * @param z the z coordinate of the query point
+     * @param indices receives the point indices, closest first
+     * @param distancesSquared receives the squared distances, must be at least as long as the index buffer
+     * @return the number of points found, i.e. the smaller of k and {@link #size()}
+     */
+    @Override
+    public int nearest(float x, float y, float z, int[] indices, float[] distancesSquared) {
+        return super.nearest(x, y, z, indices, distancesSquared);
+    }
+
+    /**
+     * Finds all points within a sphere (inclusive)
+     * @param x the x coordinate of the center
+     * @param y the y coordinate of the center
+     * @param z the z coordinate of the center
+     * @param radius the radius
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    @Override
+    public int withinRadius(float x, float y, float z, float radius, int[] result) {
+        return super.withinRadius(x, y, z, radius, result);
+    }
+
+    /**
+     * Finds all points within an axis-aligned box (inclusive)
+     * @param minX the minimum x coordinate
+     * @param minY the minimum y coordinate
+     * @param minZ the minimum z coordinate
+     * @param maxX the maximum x coordinate
+     * @param maxY the maximum y coordinate
+     * @param maxZ the maximum z coordinate
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    @Override
+    public int withinBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int[] result) {
+        return super.withinBox(minX, minY, minZ, maxX, maxY, maxZ, result);
+    }
+
+    /**
+     * Finds all points within an axis-aligned box, including its border
+     * @param box the box
+     * @param result receives the point indices in no particular order; matches that do not fit are counted, but not written
+     * @return the total number of matches, which can be larger than the length of the result array
+     */
+    public int withinBox(AABB3f box, int[] result) {
+        return super.withinBox(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, result);
+    }
+}
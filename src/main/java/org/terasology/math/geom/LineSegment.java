@@ -18,13 +18,17 @@
 
 import org.terasology.math.TeraMath;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Defines a line segment
  */
 public final class LineSegment {
 
-    private final ImmutableVector2f start;
-    private final ImmutableVector2f end;
+    private final float startX;
+    private final float startY;
+    private final float endX;
+    private final float endY;
 
     /**
      * @param p0x the first point's x coordinate
@@ -33,8 +37,10 @@ public final class LineSegment {
      * @param p1y the second point's y coordinate
      */
     public LineSegment(float p0x, float p0y, float p1x, float p1y) {
-        this.start = new ImmutableVector2f(p0x, p0y);
-        this.end = new ImmutableVector2f(p1x, p1y);
+        this.startX = p0x;
+        this.startY = p0y;
+        this.endX = p1x;
+        this.endY = p1y;
     }
 
     /**
@@ -42,29 +48,83 @@ public LineSegment(float p0x, float p0y, float p1x, float p1y) {
      * @param p1 the second point
      */
     public LineSegment(BaseVector2f p0, BaseVector2f p1) {
-        this.start = ImmutableVector2f.createOrUse(p0);
-        this.end = ImmutableVector2f.createOrUse(p1);
+        this(p0.getX(), p0.getY(), p1.getX(), p1.getY());
     }
 
     /**
-     * @return the starting point
+     * @return a new instance; prefer {@link #startX()}/{@link #startY()} or {@link #getStart(Vector2f)} in hot code
      */
     public ImmutableVector2f getStart() {
-        return start;
+        return new ImmutableVector2f(startX, startY);
     }
 
     /**
-     * @return the end point
+     * @return a new instance; prefer {@link #endX()}/{@link #endY()} or {@link #getEnd(Vector2f)} in hot code
      */
     public ImmutableVector2f getEnd() {
-        return end;
+        return new ImmutableVector2f(endX, endY);
     }
 
     /**
-     * @return the direction (not normalized)
+     * @return the direction (not normalized) as a new instance
      */
     public ImmutableVector2f getDir() {
-        return end.sub(start);
+        return new ImmutableVector2f(endX - startX, endY - startY);
+    }
+
+    /**
+     * @param out the vector that receives the starting point
+     * @return out
+     */
+    public Vector2f getStart(Vector2f out) {
+        out.set(startX, startY);
+        return out;
+    }
+
+    /**
+     * @param out the vector that receives the end point
+     * @return out
+     */
+    public Vector2f getEnd(Vector2f out) {
+        out.set(endX, endY);
+        return out;
+    }
+
+    /**
+     * @param out the vector that receives the direction (not normalized)
+     * @return out
+     */
+    public Vector2f getDir(Vector2f out) {
+        out.set(endX - startX, endY - startY);
+        return out;
+    }
+
+    /**
+     * @return the x coordinate of the starting point
+     */
+    public float startX() {
+        return startX;
+    }
+
+    /**
+     * @return the y coordinate of the starting point
+     */
+    public float startY() {
+        return startY;
+    }
+
+    /**
+     * @return the x coordinate of the end point
+     */
+    public float endX() {
+        return endX;
+    }
+
+    /**
+     * @return the y coordinate of the end point
+     */
+    public float endY() {
+        return endY;
     }
 
     /**
@@ -73,7 +133,19 @@ public ImmutableVector2f getDir() {
      * @return the interpolated point
      */
     public Vector2f lerp(float val) {
-        return BaseVector2f.lerp(start, end, val);
+        return lerp(val, new Vector2f());
+    }
+
+    /**
+     * Perform a linear interpolation between the segment endpoints.
+     * @param val the interpolation factor. A value of zero return start, a value of one return end.
+     * @param out the vector that receives the interpolated point
+     * @return out
+     */
+    public Vector2f lerp(float val, Vector2f out) {
+        Preconditions.checkArgument(val >= 0 && val <= 1, "val must be in range [0..1]");
+        out.set(startX * (1 - val) + endX * val, startY * (1 - val) + endY * val);
+        return out;
     }
 
     /**
@@ -82,7 +154,7 @@ public Vector2f lerp(float val) {
      * @return the smallest distance
      */
     public float distanceToPoint(BaseVector2f pointP) {
-        return distanceToPoint(getStart(), getEnd(), pointP);
+        return distanceToPoint(startX, startY, endX, endY, pointP.getX(), pointP.getY());
     }
 
     /**
@@ -142,10 +214,10 @@ public static float distanceToPoint(float pointAx, float pointAy, float pointBx,
      * @return true if it intersects, false otherwise
      */
     public boolean intersects(Rect2i rc) {
-        float x1 = start.getX();
-        float y1 = start.getY();
-        float x2 = end.getX();
-        float y2 = end.getY();
+        float x1 = startX;
+        float y1 = startY;
+        float x2 = endX;
+        float y2 = endY;
 
         int out1;
         int out2 = rc.outcode(x2, y2);
@@ -184,10 +256,10 @@ public boolean intersects(Rect2i rc) {
      */
     public boolean getClipped(Rect2i rect, Vector2f p0, Vector2f p1) {
         // this method was contributed by David Gilbert, Object Refineries Ltd.
-        float x1 = start.getX();
-        float y1 = start.getY();
-        float x2 = end.getX();
-        float y2 = end.getY();
+        float x1 = startX;
+        float y1 = startY;
+        float x2 = endX;
+        float y2 = endY;
 
         float minX = rect.minX();
         float maxX = TeraMath.nextDown(rect.minX() + rect.width());
@@ -266,8 +338,10 @@ public LineSegment getClipped(Rect2i rect) {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + start.hashCode();
-        result = prime * result + end.hashCode();
+        result = prime * result + Float.floatToIntBits(startX);
+        result = prime * result + Float.floatToIntBits(startY);
+        result = prime * result + Float.floatToIntBits(endX);
+        result = prime * result + Float.floatToIntBits(endY);
         return result;
     }
 
@@ -279,14 +353,17 @@ public boolean equals(Object obj) {
 
         if (obj instanceof LineSegment) {
             LineSegment other = (LineSegment) obj;
-            return start.equals(other.start) && end.equals(other.end);
+            return Float.floatToIntBits(startX) == Float.floatToIntBits(other.startX)
+                && Float.floatToIntBits(startY) == Float.floatToIntBits(other.startY)
+                && Float.floatToIntBits(endX) == Float.floatToIntBits(other.endX)
+                && Float.floatToIntBits(endY) == Float.floatToIntBits(other.endY);
         }
         return false;
     }
 
     @Override
     public String toString() {
-        return "LineSegment [" + start + ", " + end + "]";
+        return "LineSegment [(" + startX + ", " + startY + "), (" + endX + ", " + endY + ")]";
     }
 
     private static float distance(float x0, float y0, float x1, float y1) {
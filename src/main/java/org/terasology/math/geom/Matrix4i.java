@@ -20,6 +20,7 @@
 
 /**
  * A 4x4 matrix implementation based on integer values.
+ * {@link FieldMatrix4i} is a variant that stores the values in fields instead of an array.
  */
 public class Matrix4i {
 
@@ -138,7 +139,8 @@ public void set(Vector3i xAxis, Vector3i yAxis, Vector3i zAxis, Vector3i pos) {
     }
 
     /**
-     * Sets the value of this matrix to a counter clockwise rotation about the x axis.
+     * Sets the value of this matrix to a rotation about the x axis. The sine and cosine are truncated to integers.
+     * Contrary to the other <code>rot*</code> methods, the signs of the sine terms describe a clockwise rotation.
      *
      * @param angle
      * @return this matrix for chaining
@@ -16,137 +16,557 @@
 
 package org.terasology.math.geom;
 
-import java.nio.FloatBuffer;
-
 /**
  * Collection of matrix utilities.
- *
+ * <br><br>
+ * All matrices transform column vectors, i.e. <code>clip = projection * view * point</code>, and projections map
+ * to OpenGL clip space unless stated otherwise. The <code>set*</code> methods write into the given matrix
+ * and do not allocate any objects.
  */
 public final class MatrixUtility {
 
     private MatrixUtility() {
     }
 
+    /**
+     * Creates a view matrix whose translation column is the negated eye position, which is not rotated into view space.
+     * This is only a proper look-at matrix if the eye is at the origin. The result is kept for compatibility,
+     * {@link #setViewMatrix(float, float, float, float, float, float, float, float, float, Matrix4f)}
+     * computes the correct translation.
+     */
     public static Matrix4f createViewMatrix(float eyeX, float eyeY, float eyeZ, float centerX, float centerY, float centerZ, float upX, float upY, float upZ) {
-        return createViewMatrix(new Vector3f(eyeX, eyeY, eyeZ), new Vector3f(centerX, centerY, centerZ), new Vector3f(upX, upY, upZ));
+        Matrix4f m = setViewMatrix(eyeX, eyeY, eyeZ, centerX, centerY, centerZ, upX, upY, upZ, new Matrix4f());
+        m.m03 = -eyeX;
+        m.m13 = -eyeY;
+        m.m23 = -eyeZ;
+        return m;
     }
 
+    /**
+     * Creates a view matrix whose translation column is the negated eye position, which is not rotated into view space.
+     * This is only a proper look-at matrix if the eye is at the origin. The result is kept for compatibility,
+     * {@link #setViewMatrix(BaseVector3f, BaseVector3f, BaseVector3f, Matrix4f)} computes the correct translation.
+     */
     public static Matrix4f createViewMatrix(Vector3f eye, Vector3f center, Vector3f up) {
-        Matrix4f m = new Matrix4f();
-
-        Vector3f f = new Vector3f();
-        f.sub(center, eye);
-
-        f.normalize();
-        up.normalize();
-
-        Vector3f s = new Vector3f();
-        s.cross(f, up);
-        s.normalize();
-
-        Vector3f u = new Vector3f();
-        u.cross(s, f);
-        u.normalize();
-
-        m.m00 = s.x;
-        m.m10 = s.y;
-        m.m20 = s.z;
-        m.m30 = 0;
-        m.m01 = u.x;
-        m.m11 = u.y;
-        m.m21 = u.z;
-        m.m31 = 0;
-        m.m02 = -f.x;
-        m.m12 = -f.y;
-        m.m22 = -f.z;
-        m.m32 = 0;
-        m.m03 = 0;
-        m.m13 = 0;
-        m.m23 = 0;
-        m.m33 = 1;
-
-        m.m30 = -eye.x;
-        m.m31 = -eye.y;
-        m.m32 = -eye.z;
-
-        m.transpose();
-
-        return m;
+        return createViewMatrix(eye.x, eye.y, eye.z, center.x, center.y, center.z, up.x, up.y, up.z);
     }
 
     public static Matrix4f createOrthogonalProjectionMatrix(float left, float right, float top, float bottom, float near, float far) {
-        Matrix4f m = new Matrix4f();
-
-        float lateral = right - left;
-        float vertical = top - bottom;
-        float forward = far - near;
-        float tx = -(right + left) / (right - left);
-        float ty = -(top + bottom) / (top - bottom);
-        float tz = -(far + near) / (far - near);
-
-        m.m00 = 2.0f / lateral;
-        m.m10 = 0.0f;
-        m.m20 = 0.0f;
-        m.m30 = tx;
-        m.m01 = 0.0f;
-        m.m11 = 2.0f / vertical;
-        m.m21 = 0.0f;
-        m.m31 = ty;
-        m.m02 = 0.0f;
-        m.m12 = 0.0f;
-        m.m22 = -2.0f / forward;
-        m.m32 = tz;
-        m.m03 = 0.0f;
-        m.m13 = 0.0f;
-        m.m23 = 0.0f;
-        m.m33 = 1.0f;
-
-        m.transpose();
-
-        return m;
+        return setOrthogonalProjectionMatrix(left, right, top, bottom, near, far, new Matrix4f());
     }
 
     public static Matrix4f createPerspectiveProjectionMatrix(float fovY, float aspectRatio, float zNear, float zFar) {
-        Matrix4f m = new Matrix4f();
+        return setPerspectiveProjectionMatrix(fovY, aspectRatio, zNear, zFar, new Matrix4f());
+    }
+
+    public static Matrix3f calcNormalMatrix(Matrix4f mv) {
+        return setNormalMatrix(mv, new Matrix3f());
+    }
+
+    /**
+     * Sets a look-at view matrix that maps the eye to the origin and the view direction to the negative z axis.
+     * @param eye the camera position
+     * @param center the point the camera looks at
+     * @param up the up direction (does not need to be normalized)
+     * @param out the matrix that receives the view matrix
+     * @return out
+     */
+    public static Matrix4f setViewMatrix(BaseVector3f eye, BaseVector3f center, BaseVector3f up, Matrix4f out) {
+        return setViewMatrix(eye.getX(), eye.getY(), eye.getZ(), center.getX(), center.getY(), center.getZ(),
+                up.getX(), up.getY(), up.getZ(), out);
+    }
+
+    /**
+     * @param eyeX the x coordinate of the camera position
+     * @param eyeY the y coordinate of the camera position
+     * @param eyeZ the z coordinate of the camera position
+     * @param centerX the x coordinate of the point the camera looks at
+     * @param centerY the y coordinate of the point the camera looks at
+     * @param centerZ the z coordinate of the point the camera looks at
+     * @param upX the x component of the up direction
+     * @param upY the y component of the up direction
+     * @param upZ the z component of the up direction
+     * @param out the matrix that receives the view matrix
+     * @return out
+     */
+    public static Matrix4f setViewMatrix(float eyeX, float eyeY, float eyeZ, float centerX, float centerY, float centerZ,
+                                         float upX, float upY, float upZ, Matrix4f out) {
+        // forward
+        float fx = centerX - eyeX;
+        float fy = centerY - eyeY;
+        float fz = centerZ - eyeZ;
+        float invLen = 1f / (float) Math.sqrt(fx * fx + fy * fy + fz * fz);
+        fx *= invLen;
+        fy *= invLen;
+        fz *= invLen;
+
+        // side = forward x up
+        float sx = fy * upZ - fz * upY;
+        float sy = fz * upX - fx * upZ;
+        float sz = fx * upY - fy * upX;
+        invLen = 1f / (float) Math.sqrt(sx * sx + sy * sy + sz * sz);
+        sx *= invLen;
+        sy *= invLen;
+        sz *= invLen;
+
+        // up = side x forward
+        float ux = sy * fz - sz * fy;
+        float uy = sz * fx - sx * fz;
+        float uz = sx * fy - sy * fx;
 
+        out.m00 = sx;
+        out.m01 = sy;
+        out.m02 = sz;
+        out.m03 = -(sx * eyeX + sy * eyeY + sz * eyeZ);
+        out.m10 = ux;
+        out.m11 = uy;
+        out.m12 = uz;
+        out.m13 = -(ux * eyeX + uy * eyeY + uz * eyeZ);
+        out.m20 = -fx;
+        out.m21 = -fy;
+        out.m22 = -fz;
+        out.m23 = fx * eyeX + fy * eyeY + fz * eyeZ;
+        out.m30 = 0;
+        out.m31 = 0;
+        out.m32 = 0;
+        out.m33 = 1;
+        return out;
+    }
+
+    /**
+     * @param left the left clipping plane
+     * @param right the right clipping plane
+     * @param top the top clipping plane
+     * @param bottom the bottom clipping plane
+     * @param near the distance to the near clipping plane
+     * @param far the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4f setOrthogonalProjectionMatrix(float left, float right, float top, float bottom, float near, float far,
+                                                         Matrix4f out) {
+        out.setZero();
+        out.m00 = 2.0f / (right - left);
+        out.m03 = -(right + left) / (right - left);
+        out.m11 = 2.0f / (top - bottom);
+        out.m13 = -(top + bottom) / (top - bottom);
+        out.m22 = -2.0f / (far - near);
+        out.m23 = -(far + near) / (far - near);
+        out.m33 = 1.0f;
+        return out;
+    }
+
+    /**
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4f setPerspectiveProjectionMatrix(float fovY, float aspectRatio, float zNear, float zFar, Matrix4f out) {
         float f = 1.0f / (float) Math.tan(fovY * 0.5f);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = (zFar + zNear) / (zNear - zFar);
+        out.m23 = (2 * zFar * zNear) / (zNear - zFar);
+        out.m32 = -1;
+        return out;
+    }
 
-        m.m00 = f / aspectRatio;
-        m.m10 = 0;
-        m.m20 = 0;
-        m.m30 = 0;
-        m.m01 = 0;
-        m.m11 = f;
-        m.m21 = 0;
-        m.m31 = 0;
-        m.m02 = 0;
-        m.m12 = 0;
-        m.m22 = (zFar + zNear) / (zNear - zFar);
-        m.m32 = (2 * zFar * zNear) / (zNear - zFar);
-        m.m03 = 0;
-        m.m13 = 0;
-        m.m23 = -1;
-        m.m33 = 0;
-
-        m.transpose();
+    /**
+     * A perspective projection without far clipping plane.
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4f setInfinitePerspectiveProjectionMatrix(float fovY, float aspectRatio, float zNear, Matrix4f out) {
+        float f = 1.0f / (float) Math.tan(fovY * 0.5f);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = -1;
+        out.m23 = -2 * zNear;
+        out.m32 = -1;
+        return out;
+    }
 
-        return m;
+    /**
+     * A perspective projection that maps the near plane to depth 1 and the far plane to depth 0, which distributes
+     * floating point depth precision much better. Requires a [0..1] clip space depth range (e.g. glClipControl).
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4f setReversedZPerspectiveProjectionMatrix(float fovY, float aspectRatio, float zNear, float zFar, Matrix4f out) {
+        float f = 1.0f / (float) Math.tan(fovY * 0.5f);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = zNear / (zFar - zNear);
+        out.m23 = zFar * zNear / (zFar - zNear);
+        out.m32 = -1;
+        return out;
     }
 
-    public static Matrix3f calcNormalMatrix(Matrix4f mv) {
-        Matrix3f result = new Matrix3f();
-        result.m00 = mv.m00;
-        result.m10 = mv.m10;
-        result.m20 = mv.m20;
-        result.m01 = mv.m01;
-        result.m11 = mv.m11;
-        result.m21 = mv.m21;
-        result.m02 = mv.m02;
-        result.m12 = mv.m12;
-        result.m22 = mv.m22;
-
-        result.invert();
-        result.transpose();
-        return result;
+    /**
+     * A reversed-Z perspective projection without far clipping plane. Points at infinity are mapped to depth 0.
+     * Requires a [0..1] clip space depth range (e.g. glClipControl).
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4f setReversedZInfinitePerspectiveProjectionMatrix(float fovY, float aspectRatio, float zNear, Matrix4f out) {
+        float f = 1.0f / (float) Math.tan(fovY * 0.5f);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m23 = zNear;
+        out.m32 = -1;
+        return out;
+    }
+
+    /**
+     * Computes the product of {@link #setPerspectiveProjectionMatrix(float, float, float, float, Matrix4f)} and
+     * {@link #setViewMatrix(BaseVector3f, BaseVector3f, BaseVector3f, Matrix4f)} directly,
+     * exploiting the sparsity of the projection matrix.
+     * @param eye the camera position
+     * @param center the point the camera looks at
+     * @param up the up direction (does not need to be normalized)
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the view-projection matrix
+     * @return out
+     */
+    public static Matrix4f setViewProjectionMatrix(BaseVector3f eye, BaseVector3f center, BaseVector3f up,
+                                                   float fovY, float aspectRatio, float zNear, float zFar, Matrix4f out) {
+        setViewMatrix(eye, center, up, out);
+
+        float f = 1.0f / (float) Math.tan(fovY * 0.5f);
+        float p00 = f / aspectRatio;
+        float p22 = (zFar + zNear) / (zNear - zFar);
+        float p23 = (2 * zFar * zNear) / (zNear - zFar);
+
+        // the last row of the view matrix is (0, 0, 0, 1)
+        out.m30 = -out.m20;
+        out.m31 = -out.m21;
+        out.m32 = -out.m22;
+        out.m33 = -out.m23;
+        out.m00 *= p00;
+        out.m01 *= p00;
+        out.m02 *= p00;
+        out.m03 *= p00;
+        out.m10 *= f;
+        out.m11 *= f;
+        out.m12 *= f;
+        out.m13 *= f;
+        out.m20 *= p22;
+        out.m21 *= p22;
+        out.m22 *= p22;
+        out.m23 = out.m23 * p22 + p23;
+        return out;
+    }
+
+    /**
+     * Computes the inverse transpose of the upper 3x3 part of a model-view matrix.
+     * @param mv the model-view matrix
+     * @param out the matrix that receives the normal matrix
+     * @return out
+     * @throws IllegalStateException if the matrix is not invertible
+     */
+    public static Matrix3f setNormalMatrix(BaseMatrix4f mv, Matrix3f out) {
+        float a00 = mv.getM00();
+        float a01 = mv.getM01();
+        float a02 = mv.getM02();
+        float a10 = mv.getM10();
+        float a11 = mv.getM11();
+        float a12 = mv.getM12();
+        float a20 = mv.getM20();
+        float a21 = mv.getM21();
+        float a22 = mv.getM22();
+
+        // the inverse transpose is the cofactor matrix divided by the determinant
+        float c00 = a11 * a22 - a12 * a21;
+        float c01 = a12 * a20 - a10 * a22;
+        float c02 = a10 * a21 - a11 * a20;
+        float det = a00 * c00 + a01 * c01 + a02 * c02;
+        if (det == 0) {
+            throw new IllegalStateException("matrix is not invertible");
+        }
+        float invDet = 1f / det;
+
+        out.m00 = c00 * invDet;
+        out.m01 = c01 * invDet;
+        out.m02 = c02 * invDet;
+        out.m10 = (a02 * a21 - a01 * a22) * invDet;
+        out.m11 = (a00 * a22 - a02 * a20) * invDet;
+        out.m12 = (a01 * a20 - a00 * a21) * invDet;
+        out.m20 = (a01 * a12 - a02 * a11) * invDet;
+        out.m21 = (a02 * a10 - a00 * a12) * invDet;
+        out.m22 = (a00 * a11 - a01 * a10) * invDet;
+        return out;
+    }
+
+    /**
+     * @param eye the camera position
+     * @param center the point the camera looks at
+     * @param up the up direction (does not need to be normalized)
+     * @param out the matrix that receives the view matrix
+     * @return out
+     */
+    public static Matrix4d setViewMatrix(BaseVector3d eye, BaseVector3d center, BaseVector3d up, Matrix4d out) {
+        return setViewMatrix(eye.getX(), eye.getY(), eye.getZ(), center.getX(), center.getY(), center.getZ(),
+                up.getX(), up.getY(), up.getZ(), out);
+    }
+
+    /**
+     * @param eyeX the x coordinate of the camera position
+     * @param eyeY the y coordinate of the camera position
+     * @param eyeZ the z coordinate of the camera position
+     * @param centerX the x coordinate of the point the camera looks at
+     * @param centerY the y coordinate of the point the camera looks at
+     * @param centerZ the z coordinate of the point the camera looks at
+     * @param upX the x component of the up direction
+     * @param upY the y component of the up direction
+     * @param upZ the z component of the up direction
+     * @param out the matrix that receives the view matrix
+     * @return out
+     */
+    public static Matrix4d setViewMatrix(double eyeX, double eyeY, double eyeZ, double centerX, double centerY, double centerZ,
+                                         double upX, double upY, double upZ, Matrix4d out) {
+        // forward
+        double fx = centerX - eyeX;
+        double fy = centerY - eyeY;
+        double fz = centerZ - eyeZ;
+        double invLen = 1 / Math.sqrt(fx * fx + fy * fy + fz * fz);
+        fx *= invLen;
+        fy *= invLen;
+        fz *= invLen;
+
+        // side = forward x up
+        double sx = fy * upZ - fz * upY;
+        double sy = fz * upX - fx * upZ;
+        double sz = fx * upY - fy * upX;
+        invLen = 1 / Math.sqrt(sx * sx + sy * sy + sz * sz);
+        sx *= invLen;
+        sy *= invLen;
+        sz *= invLen;
+
+        // up = side x forward
+        double ux = sy * fz - sz * fy;
+        double uy = sz * fx - sx * fz;
+        double uz = sx * fy - sy * fx;
+
+        out.m00 = sx;
+        out.m01 = sy;
+        out.m02 = sz;
+        out.m03 = -(sx * eyeX + sy * eyeY + sz * eyeZ);
+        out.m10 = ux;
+        out.m11 = uy;
+        out.m12 = uz;
+        out.m13 = -(ux * eyeX + uy * eyeY + uz * eyeZ);
+        out.m20 = -fx;
+        out.m21 = -fy;
+        out.m22 = -fz;
+        out.m23 = fx * eyeX + fy * eyeY + fz * eyeZ;
+        out.m30 = 0;
+        out.m31 = 0;
+        out.m32 = 0;
+        out.m33 = 1;
+        return out;
+    }
+
+    /**
+     * @param left the left clipping plane
+     * @param right the right clipping plane
+     * @param top the top clipping plane
+     * @param bottom the bottom clipping plane
+     * @param near the distance to the near clipping plane
+     * @param far the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4d setOrthogonalProjectionMatrix(double left, double right, double top, double bottom, double near, double far,
+                                                         Matrix4d out) {
+        out.setZero();
+        out.m00 = 2.0 / (right - left);
+        out.m03 = -(right + left) / (right - left);
+        out.m11 = 2.0 / (top - bottom);
+        out.m13 = -(top + bottom) / (top - bottom);
+        out.m22 = -2.0 / (far - near);
+        out.m23 = -(far + near) / (far - near);
+        out.m33 = 1.0;
+        return out;
+    }
+
+    /**
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4d setPerspectiveProjectionMatrix(double fovY, double aspectRatio, double zNear, double zFar, Matrix4d out) {
+        double f = 1.0 / Math.tan(fovY * 0.5);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = (zFar + zNear) / (zNear - zFar);
+        out.m23 = (2 * zFar * zNear) / (zNear - zFar);
+        out.m32 = -1;
+        return out;
+    }
+
+    /**
+     * A perspective projection without far clipping plane.
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4d setInfinitePerspectiveProjectionMatrix(double fovY, double aspectRatio, double zNear, Matrix4d out) {
+        double f = 1.0 / Math.tan(fovY * 0.5);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = -1;
+        out.m23 = -2 * zNear;
+        out.m32 = -1;
+        return out;
+    }
+
+    /**
+     * A perspective projection that maps the near plane to depth 1 and the far plane to depth 0, which distributes
+     * floating point depth precision much better. Requires a [0..1] clip space depth range (e.g. glClipControl).
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4d setReversedZPerspectiveProjectionMatrix(double fovY, double aspectRatio, double zNear, double zFar, Matrix4d out) {
+        double f = 1.0 / Math.tan(fovY * 0.5);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m22 = zNear / (zFar - zNear);
+        out.m23 = zFar * zNear / (zFar - zNear);
+        out.m32 = -1;
+        return out;
+    }
+
+    /**
+     * A reversed-Z perspective projection without far clipping plane. Points at infinity are mapped to depth 0.
+     * Requires a [0..1] clip space depth range (e.g. glClipControl).
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param out the matrix that receives the projection matrix
+     * @return out
+     */
+    public static Matrix4d setReversedZInfinitePerspectiveProjectionMatrix(double fovY, double aspectRatio, double zNear, Matrix4d out) {
+        double f = 1.0 / Math.tan(fovY * 0.5);
+        out.setZero();
+        out.m00 = f / aspectRatio;
+        out.m11 = f;
+        out.m23 = zNear;
+        out.m32 = -1;
+        return out;
+    }
+
+    /**
+     * Computes the product of {@link #setPerspectiveProjectionMatrix(double, double, double, double, Matrix4d)} and
+     * {@link #setViewMatrix(BaseVector3d, BaseVector3d, BaseVector3d, Matrix4d)} directly,
+     * exploiting the sparsity of the projection matrix.
+     * @param eye the camera position
+     * @param center the point the camera looks at
+     * @param up the up direction (does not need to be normalized)
+     * @param fovY the vertical field of view in radians
+     * @param aspectRatio the ratio of width to height
+     * @param zNear the distance to the near clipping plane
+     * @param zFar the distance to the far clipping plane
+     * @param out the matrix that receives the view-projection matrix
+     * @return out
+     */
+    public static Matrix4d setViewProjectionMatrix(BaseVector3d eye, BaseVector3d center, BaseVector3d up,
+                                                   double fovY, double aspectRatio, double zNear, double zFar, Matrix4d out) {
+        setViewMatrix(eye, center, up, out);
+
+        double f = 1.0 / Math.tan(fovY * 0.5);
+        double p00 = f / aspectRatio;
+        double p22 = (zFar + zNear) / (zNear - zFar);
+        double p23 = (2 * zFar * zNear) / (zNear - zFar);
+
+        // the last row of the view matrix is (0, 0, 0, 1)
+        out.m30 = -out.m20;
+        out.m31 = -out.m21;
+        out.m32 = -out.m22;
+        out.m33 = -out.m23;
+        out.m00 *= p00;
+        out.m01 *= p00;
+        out.m02 *= p00;
+        out.m03 *= p00;
+        out.m10 *= f;
+        out.m11 *= f;
+        out.m12 *= f;
+        out.m13 *= f;
+        out.m20 *= p22;
+        out.m21 *= p22;
+        out.m22 *= p22;
+        out.m23 = out.m23 * p22 + p23;
+        return out;
+    }
+
+    /**
+     * Computes the inverse transpose of the upper 3x3 part of a model-view matrix.
+     * @param mv the model-view matrix
+     * @param out the matrix that receives the normal matrix
+     * @return out
+     * @throws IllegalStateException if the matrix is not invertible
+     */
+    public static Matrix3d setNormalMatrix(BaseMatrix4d mv, Matrix3d out) {
+        double a00 = mv.getM00();
+        double a01 = mv.getM01();
+        double a02 = mv.getM02();
+        double a10 = mv.getM10();
+        double a11 = mv.getM11();
+        double a12 = mv.getM12();
+        double a20 = mv.getM20();
+        double a21 = mv.getM21();
+        double a22 = mv.getM22();
+
+        // the inverse transpose is the cofactor matrix divided by the determinant
+        double c00 = a11 * a22 - a12 * a21;
+        double c01 = a12 * a20 - a10 * a22;
+        double c02 = a10 * a21 - a11 * a20;
+        double det = a00 * c00 + a01 * c01 + a02 * c02;
+        if (det == 0) {
+            throw new IllegalStateException("matrix is not invertible");
+        }
+        double invDet = 1 / det;
+
+        out.m00 = c00 * invDet;
+        out.m01 = c01 * invDet;
+        out.m02 = c02 * invDet;
+        out.m10 = (a02 * a21 - a01 * a22) * invDet;
+        out.m11 = (a00 * a22 - a02 * a20) * invDet;
+        out.m12 = (a01 * a20 - a00 * a21) * invDet;
+        out.m20 = (a01 * a12 - a02 * a11) * invDet;
+        out.m21 = (a02 * a10 - a00 * a12) * invDet;
+        out.m22 = (a00 * a11 - a01 * a10) * invDet;
+        return out;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses unit vectors with the octahedral mapping: the vector is projected onto the octahedron
+ * |x| + |y| + |z| = 1, the lower hemisphere is folded over the upper one and the resulting (u, v) coordinates
+ * are stored as two signed 16 bit values in an <code>int</code>. The max. angular error is ~7e-5 radians.
+ * <br><br>
+ * Bulk methods operate on flat arrays that store vectors as consecutive (x, y, z) values.
+ */
+public final class NormalCodec {
+
+    /**
+     * The number of bytes per vector
+     */
+    public static final int BYTES = 4;
+
+    private static final float SCALE = Short.MAX_VALUE;
+
+    private NormalCodec() {
+        // no instances
+    }
+
+    /**
+     * @param n the vector, must be normalized
+     * @return the 32 bit representation
+     */
+    public static int encode(BaseVector3f n) {
+        return encode(n.getX(), n.getY(), n.getZ());
+    }
+
+    /**
+     * @param x the x component of a unit vector
+     * @param y the y component of a unit vector
+     * @param z the z component of a unit vector
+     * @return the 32 bit representation
+     */
+    public static int encode(float x, float y, float z) {
+        float inv = 1f / (Math.abs(x) + Math.abs(y) + Math.abs(z));
+        float u = x * inv;
+        float v = y * inv;
+        if (z < 0) {
+            float fu = (1f - Math.abs(v)) * signNotZero(u);
+            float fv = (1f - Math.abs(u)) * signNotZero(v);
+            u = fu;
+            v = fv;
+        }
+        return (quantize(u) << 16) | (quantize(v) & 0xFFFF);
+    }
+
+    /**
+     * @param bits the 32 bit representation
+     * @param out the vector that receives the normalized result
+     * @return out
+     */
+    public static Vector3f decode(int bits, Vector3f out) {
+        float u = (short) (bits >> 16) / SCALE;
+        float v = (short) bits / SCALE;
+        float z = 1f - Math.abs(u) - Math.abs(v);
+        if (z < 0) {
+            float fu = (1f - Math.abs(v)) * signNotZero(u);
+            float fv = (1f - Math.abs(u)) * signNotZero(v);
+            u = fu;
+            v = fv;
+        }
+        float inv = (float) (1.0 / Math.sqrt(u * u + v * v + z * z));
+        out.set(u * inv, v * inv, z * inv);
+        return out;
+    }
+
+    /**
+     * Writes {@link #BYTES} bytes at the current position of the buffer
+     * @param n the vector, must be normalized
+     * @param dst the target buffer
+     */
+    public static void put(BaseVector3f n, ByteBuffer dst) {
+        dst.putInt(encode(n));
+    }
+
+    /**
+     * Reads {@link #BYTES} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @param out the vector that receives the result
+     * @return out
+     */
+    public static Vector3f get(ByteBuffer src, Vector3f out) {
+        return decode(src.getInt(), out);
+    }
+
+    /**
+     * Writes <code>count</code> unit vectors
+     * @param xyz the normalized vectors as (x, y, z) values
+     * @param offset the index of the first value in the array
+     * @param count the number of vectors
+     * @param dst the target buffer
+     */
+    public static void putAll(float[] xyz, int offset, int count, ByteBuffer dst) {
+        for (int i = offset; i < offset + count * 3; i += 3) {
+            dst.putInt(encode(xyz[i], xyz[i + 1], xyz[i + 2]));
+        }
+    }
+
+    /**
+     * Reads <code>count</code> unit vectors
+     * @param src the source buffer
+     * @param xyz the target array that receives (x, y, z) values
+     * @param offset the index of the first value in the array
+     * @param count the number of vectors
+     */
+    public static void getAll(ByteBuffer src, float[] xyz, int offset, int count) {
+        Vector3f tmp = new Vector3f();
+        for (int i = offset; i < offset + count * 3; i += 3) {
+            decode(src.getInt(), tmp);
+            xyz[i] = tmp.x;
+            xyz[i + 1] = tmp.y;
+            xyz[i + 2] = tmp.z;
+        }
+    }
+
+    private static float signNotZero(float value) {
+        return (value >= 0) ? 1f : -1f;
+    }
+
+    private static int quantize(float value) {
+        return Math.round(Math.max(-1f, Math.min(1f, value)) * SCALE);
+    }
+}
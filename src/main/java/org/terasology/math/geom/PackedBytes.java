@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes the lower bytes of a <code>long</code>, most significant byte first.
+ * This is independent of the byte order of the buffer.
+ */
+final class PackedBytes {
+
+    private PackedBytes() {
+        // no instances
+    }
+
+    /**
+     * @param dst the target buffer
+     * @param value the value to write
+     * @param byteCount the number of lower bytes to write (1..8)
+     */
+    static void put(ByteBuffer dst, long value, int byteCount) {
+        for (int shift = (byteCount - 1) * 8; shift >= 0; shift -= 8) {
+            dst.put((byte) (value >>> shift));
+        }
+    }
+
+    /**
+     * @param src the source buffer
+     * @param byteCount the number of bytes to read (1..8)
+     * @return the value, zero-extended
+     */
+    static long get(ByteBuffer src, int byteCount) {
+        long value = 0;
+        for (int i = 0; i < byteCount; i++) {
+            value = (value << 8) | (src.get() & 0xFF);
+        }
+        return value;
+    }
+}
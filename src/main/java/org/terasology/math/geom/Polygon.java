@@ -27,32 +27,110 @@
  */
 public final class Polygon implements Shape {
 
-    private final ImmutableList<ImmutableVector2f> vertices;
+    /**
+     * The vertices as interleaved (x, y) coordinates
+     */
+    private final float[] xy;
+    private List<ImmutableVector2f> vertices;
     private Rect2f bbox;
 
-    private Polygon(ImmutableList<ImmutableVector2f> vertices) {
-        Preconditions.checkArgument(!vertices.isEmpty(), "vertices must not be empty");
+    private Polygon(float[] xy) {
+        Preconditions.checkArgument(xy.length > 0, "vertices must not be empty");
 
-        this.vertices = vertices;
+        this.xy = xy;
     }
 
     /**
      * @param vertices a list of vertices (vertices are copied)
      */
     public static Polygon createCopy(List<Vector2f> vertices) {
-        Builder<ImmutableVector2f> bldr = ImmutableList.builder();
+        return new Polygon(toArray(vertices));
+    }
+
+    /**
+     * @param vertices a list of vertices
+     */
+    public static Polygon create(List<ImmutableVector2f> vertices) {
+        return new Polygon(toArray(vertices));
+    }
+
+    /**
+     * @param xy the vertices as interleaved (x, y) coordinates (values are copied)
+     * @param offset the array index of the x coordinate of the first vertex
+     * @param count the number of vertices
+     */
+    public static Polygon create(float[] xy, int offset, int count) {
+        Preconditions.checkArgument(offset >= 0 && count >= 0 && offset + 2 * count <= xy.length, "range exceeds the array size");
+        float[] copy = new float[2 * count];
+        System.arraycopy(xy, offset, copy, 0, 2 * count);
+        return new Polygon(copy);
+    }
+
+    private static float[] toArray(List<? extends BaseVector2f> vertices) {
+        float[] xy = new float[2 * vertices.size()];
+        int i = 0;
         for (BaseVector2f v : vertices) {
-            bldr.add(new ImmutableVector2f(v));
+            xy[i++] = v.getX();
+            xy[i++] = v.getY();
+        }
+        return xy;
+    }
+
+    /**
+     * @return an unmodifiable list of all vertices. It is created on first access,
+     * prefer {@link #vertexX(int)} and {@link #vertexY(int)} in performance-critical code.
+     */
+    public List<ImmutableVector2f> getVertices() {
+        if (vertices == null) {
+            Builder<ImmutableVector2f> bldr = ImmutableList.builder();
+            for (int i = 0; i < xy.length; i += 2) {
+                bldr.add(new ImmutableVector2f(xy[i], xy[i + 1]));
+            }
+            vertices = bldr.build();
         }
+        return vertices;
+    }
 
-        return new Polygon(bldr.build());
+    /**
+     * @return the number of vertices
+     */
+    public int vertexCount() {
+        return xy.length / 2;
     }
 
     /**
-     * @param vertices a list of vertices (vertices are directly used)
+     * @param index the vertex index
+     * @return the x coordinate of the vertex
      */
-    public static Polygon create(List<ImmutableVector2f> vertices) {
-        return new Polygon(ImmutableList.copyOf(vertices));
+    public float vertexX(int index) {
+        return xy[2 * index];
+    }
+
+    /**
+     * @param index the vertex index
+     * @return the y coordinate of the vertex
+     */
+    public float vertexY(int index) {
+        return xy[2 * index + 1];
+    }
+
+    /**
+     * @param index the vertex index
+     * @param out the vector that receives the vertex
+     * @return out
+     */
+    public Vector2f getVertex(int index, Vector2f out) {
+        out.set(xy[2 * index], xy[2 * index + 1]);
+        return out;
+    }
+
+    /**
+     * Copies the vertices as interleaved (x, y) coordinates into an array
+     * @param dst the target array
+     * @param offset the array index for the x coordinate of the first vertex
+     */
+    public void getVertices(float[] dst, int offset) {
+        System.arraycopy(xy, 0, dst, offset, xy.length);
     }
 
     /**
@@ -65,7 +143,9 @@ public float area() {
     @Override
     public Rect2f getBounds() {
         if (bbox == null) {
-            bbox = BoundingBox.compute(vertices);
+            BoundingBox bb = new BoundingBox();
+            bb.addAll(xy, 0, vertexCount());
+            bbox = bb.toRect2f();
         }
         return bbox;
     }
@@ -82,17 +162,11 @@ public Winding winding() {
     }
 
     private double signedArea() {
-        int index;
-        int nextIndex;
-        int n = vertices.size();
-        ImmutableVector2f point;
-        ImmutableVector2f next;
+        int n = xy.length;
         double signedDoubleArea = 0;
-        for (index = 0; index < n; ++index) {
-            nextIndex = (index + 1) % n;
-            point = vertices.get(index);
-            next = vertices.get(nextIndex);
-            signedDoubleArea += point.getX() * next.getY() - next.getX() * point.getY();
+        for (int index = 0; index < n; index += 2) {
+            int nextIndex = (index + 2) % n;
+            signedDoubleArea += xy[index] * xy[nextIndex + 1] - xy[nextIndex] * xy[index + 1];
         }
         return signedDoubleArea * 0.5;
     }
@@ -169,25 +243,22 @@ public boolean contains(BaseVector2i v) {
      */
     @Override
     public boolean contains(float x, float y) {
-        int npoints = vertices.size();
+        int npoints = vertexCount();
 
         if (npoints <= 2) { // || !getBoundingBox().contains(x, y)) {
             return false;
         }
         int hits = 0;
 
-        ImmutableVector2f last = vertices.get(npoints - 1);
-
-        double lastx = last.x();
-        double lasty = last.y();
+        double lastx = xy[2 * npoints - 2];
+        double lasty = xy[2 * npoints - 1];
         double curx;
         double cury;
 
         // Walk the edges of the polygon
         for (int i = 0; i < npoints; lastx = curx, lasty = cury, i++) {
-            ImmutableVector2f cur = vertices.get(i);
-            curx = cur.x();
-            cury = cur.y();
+            curx = xy[2 * i];
+            cury = xy[2 * i + 1];
 
             if (cury == lasty) {
                 continue;
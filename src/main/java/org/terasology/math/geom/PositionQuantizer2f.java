@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Quantizes 2D positions inside a {@link Rect2f} to fixed-point values with a configurable number of bits per axis.
+ * Positions outside the bounds are clamped. For positions inside the bounds the error per axis is at most
+ * half of {@link #getStepX()} and {@link #getStepY()}.
+ * <br><br>
+ * Both axes are packed into a single <code>long</code> (x in the upper bits) which occupies {@link #getBytes()} bytes
+ * in a buffer. Bulk methods operate on flat arrays that store positions as consecutive (x, y) values.
+ */
+public final class PositionQuantizer2f {
+
+    /**
+     * The maximum number of bits per axis - more would exceed the precision of a float
+     */
+    public static final int MAX_BITS = 24;
+
+    private final float minX;
+    private final float minY;
+    private final float stepX;
+    private final float stepY;
+    private final int bits;
+    private final int maxValue;
+    private final int bytes;
+
+    /**
+     * @param bounds the bounds of all positions, must not be empty
+     * @param bits the number of bits per axis in [1..{@link #MAX_BITS}]
+     */
+    public PositionQuantizer2f(Rect2f bounds, int bits) {
+        Preconditions.checkArgument(!bounds.isEmpty(), "bounds must not be empty");
+        Preconditions.checkArgument(bits > 0 && bits <= MAX_BITS, "bits must be in [1..%s]", MAX_BITS);
+
+        this.bits = bits;
+        this.maxValue = (1 << bits) - 1;
+        this.bytes = (2 * bits + 7) / 8;
+        this.minX = bounds.minX();
+        this.minY = bounds.minY();
+        this.stepX = bounds.width() / maxValue;
+        this.stepY = bounds.height() / maxValue;
+    }
+
+    /**
+     * @return the number of bits per axis
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * @return the number of bytes per position in a buffer
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the distance between two quantized values along the x axis
+     */
+    public float getStepX() {
+        return stepX;
+    }
+
+    /**
+     * @return the distance between two quantized values along the y axis
+     */
+    public float getStepY() {
+        return stepY;
+    }
+
+    /**
+     * @param pos the position
+     * @return the packed representation
+     */
+    public long encode(BaseVector2f pos) {
+        return encode(pos.getX(), pos.getY());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the packed representation
+     */
+    public long encode(float x, float y) {
+        return ((long) quantize(x, minX, stepX) << bits) | quantize(y, minY, stepY);
+    }
+
+    /**
+     * @param packed the packed representation
+     * @param out the vector that receives the result
+     * @return out
+     */
+    public Vector2f decode(long packed, Vector2f out) {
+        out.set(decodeX(packed), decodeY(packed));
+        return out;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @return the x coordinate
+     */
+    public float decodeX(long packed) {
+        return minX + (int) ((packed >>> bits) & maxValue) * stepX;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @return the y coordinate
+     */
+    public float decodeY(long packed) {
+        return minY + (int) (packed & maxValue) * stepY;
+    }
+
+    /**
+     * Writes {@link #getBytes()} bytes at the current position of the buffer
+     * @param pos the position
+     * @param dst the target buffer
+     */
+    public void put(BaseVector2f pos, ByteBuffer dst) {
+        PackedBytes.put(dst, encode(pos), bytes);
+    }
+
+    /**
+     * Reads {@link #getBytes()} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @param out the vector that receives the result
+     * @return out
+     */
+    public Vector2f get(ByteBuffer src, Vector2f out) {
+        return decode(PackedBytes.get(src, bytes), out);
+    }
+
+    /**
+     * Writes <code>count</code> positions
+     * @param xy the positions as (x, y) values
+     * @param offset the index of the first value in the array
+     * @param count the number of positions
+     * @param dst the target buffer
+     */
+    public void putAll(float[] xy, int offset, int count, ByteBuffer dst) {
+        for (int i = offset; i < offset + count * 2; i += 2) {
+            PackedBytes.put(dst, encode(xy[i], xy[i + 1]), bytes);
+        }
+    }
+
+    /**
+     * Reads <code>count</code> positions
+     * @param src the source buffer
+     * @param xy the target array that receives (x, y) values
+     * @param offset the index of the first value in the array
+     * @param count the number of positions
+     */
+    public void getAll(ByteBuffer src, float[] xy, int offset, int count) {
+        for (int i = offset; i < offset + count * 2; i += 2) {
+            long packed = PackedBytes.get(src, bytes);
+            xy[i] = decodeX(packed);
+            xy[i + 1] = decodeY(packed);
+        }
+    }
+
+    private int quantize(float value, float min, float step) {
+        int q = Math.round((value - min) / step);
+        return Math.max(0, Math.min(maxValue, q));
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Quantizes 3D positions inside an axis-aligned box to fixed-point values with a configurable number of bits per axis.
+ * Positions outside the bounds are clamped. For positions inside the bounds the error per axis is at most
+ * half of the respective step size.
+ * <br><br>
+ * All axes are packed into a single <code>long</code> (x in the upper bits, z in the lower bits) which occupies
+ * {@link #getBytes()} bytes in a buffer. Bulk methods operate on flat arrays that store positions as
+ * consecutive (x, y, z) values.
+ */
+public final class PositionQuantizer3f {
+
+    /**
+     * The maximum number of bits per axis so that all axes fit into a <code>long</code>
+     */
+    public static final int MAX_BITS = 21;
+
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float stepX;
+    private final float stepY;
+    private final float stepZ;
+    private final int bits;
+    private final int maxValue;
+    private final int bytes;
+
+    /**
+     * @param min the minimum corner of the bounds
+     * @param max the maximum corner of the bounds, must be larger than min on all axes
+     * @param bits the number of bits per axis in [1..{@link #MAX_BITS}]
+     */
+    public PositionQuantizer3f(BaseVector3f min, BaseVector3f max, int bits) {
+        Preconditions.checkArgument(max.getX() > min.getX() && max.getY() > min.getY() && max.getZ() > min.getZ(),
+                "max must be larger than min on all axes");
+        Preconditions.checkArgument(bits > 0 && bits <= MAX_BITS, "bits must be in [1..%s]", MAX_BITS);
+
+        this.bits = bits;
+        this.maxValue = (1 << bits) - 1;
+        this.bytes = (3 * bits + 7) / 8;
+        this.minX = min.getX();
+        this.minY = min.getY();
+        this.minZ = min.getZ();
+        this.stepX = (max.getX() - minX) / maxValue;
+        this.stepY = (max.getY() - minY) / maxValue;
+        this.stepZ = (max.getZ() - minZ) / maxValue;
+    }
+
+    /**
+     * @return the number of bits per axis
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * @return the number of bytes per position in a buffer
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the distance between two quantized values along the x axis
+     */
+    public float getStepX() {
+        return stepX;
+    }
+
+    /**
+     * @return the distance between two quantized values along the y axis
+     */
+    public float getStepY() {
+        return stepY;
+    }
+
+    /**
+     * @return the distance between two quantized values along the z axis
+     */
+    public float getStepZ() {
+        return stepZ;
+    }
+
+    /**
+     * @param pos the position
+     * @return the packed representation
+     */
+    public long encode(BaseVector3f pos) {
+        return encode(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the packed representation
+     */
+    public long encode(float x, float y, float z) {
+        long packed = quantize(x, minX, stepX);
+        packed = (packed << bits) | quantize(y, minY, stepY);
+        packed = (packed << bits) | quantize(z, minZ, stepZ);
+        return packed;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @param out the vector that receives the result
+     * @return out
+     */
+    public Vector3f decode(long packed, Vector3f out) {
+        out.set(decodeX(packed), decodeY(packed), decodeZ(packed));
+        return out;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @return the x coordinate
+     */
+    public float decodeX(long packed) {
+        return minX + (int) ((packed >>> (2 * bits)) & maxValue) * stepX;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @return the y coordinate
+     */
+    public float decodeY(long packed) {
+        return minY + (int) ((packed >>> bits) & maxValue) * stepY;
+    }
+
+    /**
+     * @param packed the packed representation
+     * @return the z coordinate
+     */
+    public float decodeZ(long packed) {
+        return minZ + (int) (packed & maxValue) * stepZ;
+    }
+
+    /**
+     * Writes {@link #getBytes()} bytes at the current position of the buffer
+     * @param pos the position
+     * @param dst the target buffer
+     */
+    public void put(BaseVector3f pos, ByteBuffer dst) {
+        PackedBytes.put(dst, encode(pos), bytes);
+    }
+
+    /**
+     * Reads {@link #getBytes()} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @param out the vector that receives the result
+     * @return out
+     */
+    public Vector3f get(ByteBuffer src, Vector3f out) {
+        return decode(PackedBytes.get(src, bytes), out);
+    }
+
+    /**
+     * Writes <code>count</code> positions
+     * @param xyz the positions as (x, y, z) values
+     * @param offset the index of the first value in the array
+     * @param count the number of positions
+     * @param dst the target buffer
+     */
+    public void putAll(float[] xyz, int offset, int count, ByteBuffer dst) {
+        for (int i = offset; i < offset + count * 3; i += 3) {
+            PackedBytes.put(dst, encode(xyz[i], xyz[i + 1], xyz[i + 2]), bytes);
+        }
+    }
+
+    /**
+     * Reads <code>count</code> positions
+     * @param src the source buffer
+     * @param xyz the target array that receives (x, y, z) values
+     * @param offset the index of the first value in the array
+     * @param count the number of positions
+     */
+    public void getAll(ByteBuffer src, float[] xyz, int offset, int count) {
+        for (int i = offset; i < offset + count * 3; i += 3) {
+            long packed = PackedBytes.get(src, bytes);
+            xyz[i] = decodeX(packed);
+            xyz[i + 1] = decodeY(packed);
+            xyz[i + 2] = decodeZ(packed);
+        }
+    }
+
+    private int quantize(float value, float min, float step) {
+        int q = Math.round((value - min) / step);
+        return Math.max(0, Math.min(maxValue, q));
+    }
+}
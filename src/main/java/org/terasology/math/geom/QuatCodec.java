@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses unit quaternions with the "smallest three" method: the component with the largest
+ * absolute value is dropped and reconstructed from the unit length constraint. Its index is stored in two bits,
+ * the remaining three components are quantized to the range [-1/sqrt(2)..1/sqrt(2)].
+ * <br><br>
+ * The 32 bit format uses 10 bits per component (max. component error ~2e-3),
+ * the 48 bit format uses 15 bits per component (max. component error ~6e-5).
+ * Since q and -q represent the same rotation, the decoded quaternion may have the opposite sign.
+ * <br><br>
+ * Bulk methods operate on flat arrays that store quaternions as consecutive (x, y, z, w) values.
+ */
+public final class QuatCodec {
+
+    /**
+     * The number of bytes that are used by the 32 bit format
+     */
+    public static final int BYTES_32 = 4;
+
+    /**
+     * The number of bytes that are used by the 48 bit format
+     */
+    public static final int BYTES_48 = 6;
+
+    private static final float RANGE = (float) (1.0 / Math.sqrt(2.0));
+
+    private static final int BITS_32 = 10;
+    private static final int BITS_48 = 15;
+
+    private QuatCodec() {
+        // no instances
+    }
+
+    /**
+     * @param q the quaternion, must be normalized
+     * @return the 32 bit representation
+     */
+    public static int encode32(BaseQuat4f q) {
+        return (int) encode(q.getX(), q.getY(), q.getZ(), q.getW(), BITS_32);
+    }
+
+    /**
+     * @param bits the 32 bit representation
+     * @param out the quaternion that receives the result
+     * @return out
+     */
+    public static Quat4f decode32(int bits, Quat4f out) {
+        return decode(bits & 0xFFFFFFFFL, BITS_32, out);
+    }
+
+    /**
+     * @param q the quaternion, must be normalized
+     * @return the 48 bit representation in the lower bits
+     */
+    public static long encode48(BaseQuat4f q) {
+        return encode(q.getX(), q.getY(), q.getZ(), q.getW(), BITS_48);
+    }
+
+    /**
+     * @param bits the 48 bit representation in the lower bits
+     * @param out the quaternion that receives the result
+     * @return out
+     */
+    public static Quat4f decode48(long bits, Quat4f out) {
+        return decode(bits, BITS_48, out);
+    }
+
+    /**
+     * Writes {@link #BYTES_32} bytes at the current position of the buffer
+     * @param q the quaternion, must be normalized
+     * @param dst the target buffer
+     */
+    public static void put32(BaseQuat4f q, ByteBuffer dst) {
+        dst.putInt(encode32(q));
+    }
+
+    /**
+     * Reads {@link #BYTES_32} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @param out the quaternion that receives the result
+     * @return out
+     */
+    public static Quat4f get32(ByteBuffer src, Quat4f out) {
+        return decode32(src.getInt(), out);
+    }
+
+    /**
+     * Writes {@link #BYTES_48} bytes at the current position of the buffer
+     * @param q the quaternion, must be normalized
+     * @param dst the target buffer
+     */
+    public static void put48(BaseQuat4f q, ByteBuffer dst) {
+        PackedBytes.put(dst, encode48(q), BYTES_48);
+    }
+
+    /**
+     * Reads {@link #BYTES_48} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @param out the quaternion that receives the result
+     * @return out
+     */
+    public static Quat4f get48(ByteBuffer src, Quat4f out) {
+        return decode48(PackedBytes.get(src, BYTES_48), out);
+    }
+
+    /**
+     * Writes <code>count</code> quaternions in the 32 bit format
+     * @param xyzw the normalized quaternions as (x, y, z, w) values
+     * @param offset the index of the first value in the array
+     * @param count the number of quaternions
+     * @param dst the target buffer
+     */
+    public static void putAll32(float[] xyzw, int offset, int count, ByteBuffer dst) {
+        for (int i = offset; i < offset + count * 4; i += 4) {
+            dst.putInt((int) encode(xyzw[i], xyzw[i + 1], xyzw[i + 2], xyzw[i + 3], BITS_32));
+        }
+    }
+
+    /**
+     * Reads <code>count</code> quaternions in the 32 bit format
+     * @param src the source buffer
+     * @param xyzw the target array that receives (x, y, z, w) values
+     * @param offset the index of the first value in the array
+     * @param count the number of quaternions
+     */
+    public static void getAll32(ByteBuffer src, float[] xyzw, int offset, int count) {
+        for (int i = offset; i < offset + count * 4; i += 4) {
+            decode(src.getInt() & 0xFFFFFFFFL, BITS_32, xyzw, i);
+        }
+    }
+
+    /**
+     * Writes <code>count</code> quaternions in the 48 bit format
+     * @param xyzw the normalized quaternions as (x, y, z, w) values
+     * @param offset the index of the first value in the array
+     * @param count the number of quaternions
+     * @param dst the target buffer
+     */
+    public static void putAll48(float[] xyzw, int offset, int count, ByteBuffer dst) {
+        for (int i = offset; i < offset + count * 4; i += 4) {
+            PackedBytes.put(dst, encode(xyzw[i], xyzw[i + 1], xyzw[i + 2], xyzw[i + 3], BITS_48), BYTES_48);
+        }
+    }
+
+    /**
+     * Reads <code>count</code> quaternions in the 48 bit format
+     * @param src the source buffer
+     * @param xyzw the target array that receives (x, y, z, w) values
+     * @param offset the index of the first value in the array
+     * @param count the number of quaternions
+     */
+    public static void getAll48(ByteBuffer src, float[] xyzw, int offset, int count) {
+        for (int i = offset; i < offset + count * 4; i += 4) {
+            decode(PackedBytes.get(src, BYTES_48), BITS_48, xyzw, i);
+        }
+    }
+
+    private static long encode(float x, float y, float z, float w, int bits) {
+        float ax = Math.abs(x);
+        float ay = Math.abs(y);
+        float az = Math.abs(z);
+        float aw = Math.abs(w);
+
+        int largest = 0;
+        float max = ax;
+        if (ay > max) {
+            largest = 1;
+            max = ay;
+        }
+        if (az > max) {
+            largest = 2;
+            max = az;
+        }
+        if (aw > max) {
+            largest = 3;
+        }
+
+        float a;
+        float b;
+        float c;
+        float sign;
+        switch (largest) {
+            case 0:
+                a = y;
+                b = z;
+                c = w;
+                sign = x;
+                break;
+            case 1:
+                a = x;
+                b = z;
+                c = w;
+                sign = y;
+                break;
+            case 2:
+                a = x;
+                b = y;
+                c = w;
+                sign = z;
+                break;
+            default:
+                a = x;
+                b = y;
+                c = z;
+                sign = w;
+                break;
+        }
+
+        // the largest component is always reconstructed as positive
+        if (sign < 0) {
+            a = -a;
+            b = -b;
+            c = -c;
+        }
+
+        long result = largest;
+        result = (result << bits) | quantize(a, bits);
+        result = (result << bits) | quantize(b, bits);
+        result = (result << bits) | quantize(c, bits);
+        return result;
+    }
+
+    private static Quat4f decode(long packed, int bits, Quat4f out) {
+        int mask = (1 << bits) - 1;
+        float c = dequantize((int) (packed & mask), bits);
+        float b = dequantize((int) ((packed >>> bits) & mask), bits);
+        float a = dequantize((int) ((packed >>> (2 * bits)) & mask), bits);
+        int largest = (int) ((packed >>> (3 * bits)) & 3);
+        float d = (float) Math.sqrt(Math.max(0f, 1f - a * a - b * b - c * c));
+
+        switch (largest) {
+            case 0:
+                out.set(d, a, b, c);
+                break;
+            case 1:
+                out.set(a, d, b, c);
+                break;
+            case 2:
+                out.set(a, b, d, c);
+                break;
+            default:
+                out.set(a, b, c, d);
+                break;
+        }
+        return out;
+    }
+
+    private static void decode(long packed, int bits, float[] dst, int offset) {
+        int mask = (1 << bits) - 1;
+        float c = dequantize((int) (packed & mask), bits);
+        float b = dequantize((int) ((packed >>> bits) & mask), bits);
+        float a = dequantize((int) ((packed >>> (2 * bits)) & mask), bits);
+        int largest = (int) ((packed >>> (3 * bits)) & 3);
+        float d = (float) Math.sqrt(Math.max(0f, 1f - a * a - b * b - c * c));
+
+        switch (largest) {
+            case 0:
+                set(dst, offset, d, a, b, c);
+                break;
+            case 1:
+                set(dst, offset, a, d, b, c);
+                break;
+            case 2:
+                set(dst, offset, a, b, d, c);
+                break;
+            default:
+                set(dst, offset, a, b, c, d);
+                break;
+        }
+    }
+
+    private static void set(float[] dst, int offset, float x, float y, float z, float w) {
+        dst[offset] = x;
+        dst[offset + 1] = y;
+        dst[offset + 2] = z;
+        dst[offset + 3] = w;
+    }
+
+    private static long quantize(float value, int bits) {
+        int max = (1 << bits) - 1;
+        float normalized = (value / RANGE + 1f) * 0.5f;
+        long q = Math.round(normalized * max);
+        return Math.max(0, Math.min(max, q));
+    }
+
+    private static float dequantize(int value, int bits) {
+        int max = (1 << bits) - 1;
+        return ((float) value / max * 2f - 1f) * RANGE;
+    }
+}
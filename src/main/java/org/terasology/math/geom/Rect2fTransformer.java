@@ -16,18 +16,37 @@
 
 package org.terasology.math.geom;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Transforms coordinates from the source rectangle into relative coordinates
  * in the target rectangle.
+ * <br><br>
+ * The transformation is evaluated as <code>target.min + (x - source.min) * scale</code> with a precomputed scale,
+ * which is exact at <code>source.min</code> and keeps the precision for large coordinates.
  */
 public class Rect2fTransformer {
 
     private Rect2f source;
     private Rect2f target;
 
+    private final float scaleX;
+    private final float scaleY;
+    private final float sourceMinX;
+    private final float sourceMinY;
+    private final float targetMinX;
+    private final float targetMinY;
+
     public Rect2fTransformer(Rect2f source, Rect2f target) {
         this.source = source;
         this.target = target;
+
+        scaleX = target.width() / source.width();
+        scaleY = target.height() / source.height();
+        sourceMinX = source.minX();
+        sourceMinY = source.minY();
+        targetMinX = target.minX();
+        targetMinY = target.minY();
     }
 
     public Vector2f apply(float wx, float wy) {
@@ -38,12 +57,72 @@ public Vector2f apply(BaseVector2i v) {
         return new Vector2f(applyX(v.getX()), applyY(v.getY()));
     }
 
+    /**
+     * @param wx the x coordinate
+     * @param wy the y coordinate
+     * @param out the vector that receives the transformed coordinates
+     * @return out
+     */
+    public Vector2f apply(float wx, float wy, Vector2f out) {
+        out.set(applyX(wx), applyY(wy));
+        return out;
+    }
+
+    /**
+     * Transforms many points at once. The input and output arrays can be the same.
+     * @param xs the x coordinates
+     * @param ys the y coordinates
+     * @param count the number of points
+     * @param outXs the array that receives the transformed x coordinates
+     * @param outYs the array that receives the transformed y coordinates
+     */
+    public void applyAll(float[] xs, float[] ys, int count, float[] outXs, float[] outYs) {
+        Preconditions.checkArgument(xs.length >= count && ys.length >= count, "input arrays are too small");
+        Preconditions.checkArgument(outXs.length >= count && outYs.length >= count, "output arrays are too small");
+
+        for (int i = 0; i < count; i++) {
+            outXs[i] = targetMinX + (xs[i] - sourceMinX) * scaleX;
+        }
+        for (int i = 0; i < count; i++) {
+            outYs[i] = targetMinY + (ys[i] - sourceMinY) * scaleY;
+        }
+    }
+
+    /**
+     * Transforms many points that are stored as interleaved (x, y) coordinates in place
+     * @param xy the coordinate array
+     * @param offset the array index of the x coordinate of the first point
+     * @param count the number of points
+     */
+    public void applyAll(float[] xy, int offset, int count) {
+        Preconditions.checkArgument(offset >= 0 && count >= 0 && offset + 2 * count <= xy.length, "range exceeds the array size");
+
+        int end = offset + 2 * count;
+        for (int i = offset; i < end; i += 2) {
+            xy[i] = targetMinX + (xy[i] - sourceMinX) * scaleX;
+            xy[i + 1] = targetMinY + (xy[i + 1] - sourceMinY) * scaleY;
+        }
+    }
+
     public float applyX(float wx) {
-        return target.minX() + (wx - source.minX()) * target.width() / source.width();
+        return targetMinX + (wx - sourceMinX) * scaleX;
     }
 
     public float applyY(float wy) {
-        return target.minY() + (wy - source.minY()) * target.height() / source.height();
+        return targetMinY + (wy - sourceMinY) * scaleY;
+    }
+
+    /**
+     * Creates a single transformer that is equivalent to applying this transformer first and then <code>next</code>.
+     * It maps the source of this transformer onto the area that <code>next</code> maps the target of this transformer to.
+     * @param next the transformer that is applied second
+     * @return the composed transformer
+     */
+    public Rect2fTransformer andThen(Rect2fTransformer next) {
+        Rect2f composed = Rect2f.createFromMinAndMax(
+                next.applyX(target.minX()), next.applyY(target.minY()),
+                next.applyX(target.maxX()), next.applyY(target.maxY()));
+        return new Rect2fTransformer(source, composed);
     }
 
     public Rect2f getSource() {
@@ -58,13 +137,13 @@ public Rect2f getTarget() {
      * @return the x scale factor
      */
     public float getScaleX() {
-        return target.width() / source.width();
+        return scaleX;
     }
 
     /**
      * @return the y scale factor
      */
     public float getScaleY() {
-        return target.height() / source.height();
+        return scaleY;
     }
 }
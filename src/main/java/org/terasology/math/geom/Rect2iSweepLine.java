@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A horizontal sweep line that moves row by row through a static set of rectangles and
+ * maintains the set of rectangles that overlap the current row. Moving the line costs time proportional
+ * to the number of rectangles that start or end, so visiting all rows in ascending order is much cheaper
+ * than querying every row separately.
+ * <br><br>
+ * The sweep line refers to rectangles by their index in the input list. Empty rectangles are never active.
+ * This class is not thread-safe.
+ */
+public final class Rect2iSweepLine {
+
+    private final int[] minX;
+    private final int[] maxX;
+    private final int[] byStart;
+    private final int[] byEnd;
+    private final int[] startRows;
+    private final int[] endRows;
+
+    private final int[] active;
+    private final int[] slots;
+    private int activeCount;
+
+    private int nextStart;
+    private int nextEnd;
+    private int row;
+
+    /**
+     * Creates a new sweep line that is placed above all rectangles, i.e. at {@link Integer#MIN_VALUE}.
+     * @param rects the rectangles
+     */
+    public Rect2iSweepLine(List<Rect2i> rects) {
+        int count = rects.size();
+        minX = new int[count];
+        maxX = new int[count];
+        slots = new int[count];
+        active = new int[count];
+
+        long[] starts = new long[count];
+        long[] ends = new long[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            Rect2i rc = rects.get(i);
+            minX[i] = rc.minX();
+            maxX[i] = rc.maxX();
+            if (!rc.isEmpty()) {
+                starts[n] = IntervalTree.pack(rc.minY(), i);
+                ends[n] = IntervalTree.pack(rc.maxY(), i);
+                n++;
+            }
+        }
+        Arrays.sort(starts, 0, n);
+        Arrays.sort(ends, 0, n);
+
+        byStart = new int[n];
+        byEnd = new int[n];
+        startRows = new int[n];
+        endRows = new int[n];
+        for (int k = 0; k < n; k++) {
+            byStart[k] = (int) starts[k];
+            startRows[k] = (int) (starts[k] >> 32);
+            byEnd[k] = (int) ends[k];
+            endRows[k] = (int) (ends[k] >> 32);
+        }
+        reset();
+    }
+
+    /**
+     * Moves the sweep line back to {@link Integer#MIN_VALUE}, where no rectangle is active.
+     */
+    public void reset() {
+        activeCount = 0;
+        nextStart = 0;
+        nextEnd = 0;
+        row = Integer.MIN_VALUE;
+    }
+
+    /**
+     * @return the current row
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Moves the sweep line forward. Rectangles that start and end between the old and the new row are skipped.
+     * @param y the new row, must not be smaller than the current row
+     */
+    public void advanceTo(int y) {
+        Preconditions.checkArgument(y >= row, "cannot move backwards from row %s to %s", row, y);
+
+        while (nextStart < byStart.length && startRows[nextStart] <= y) {
+            int id = byStart[nextStart++];
+            slots[id] = activeCount;
+            active[activeCount++] = id;
+        }
+
+        // every rectangle that ends before y has started before y, so it is active at this point
+        while (nextEnd < byEnd.length && endRows[nextEnd] < y) {
+            int id = byEnd[nextEnd++];
+            int slot = slots[id];
+            int last = active[--activeCount];
+            active[slot] = last;
+            slots[last] = slot;
+        }
+        row = y;
+    }
+
+    /**
+     * @return the number of rectangles that overlap the current row
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * @param index an index in [0..{@link #getActiveCount()})
+     * @return the index of the rectangle in the input list. The order changes when the line moves.
+     */
+    public int getActive(int index) {
+        Preconditions.checkElementIndex(index, activeCount);
+        return active[index];
+    }
+
+    /**
+     * Reports all rectangles that overlap the current row
+     * @param action receives the rectangle indices in no particular order
+     */
+    public void forEachActive(IntConsumer action) {
+        for (int k = 0; k < activeCount; k++) {
+            action.accept(active[k]);
+        }
+    }
+
+    /**
+     * Reports all rectangles that overlap the current row within the column range [min..max]
+     * @param min the first column (inclusive)
+     * @param max the last column (inclusive)
+     * @param action receives the rectangle indices in no particular order
+     */
+    public void forEachActive(int min, int max, IntConsumer action) {
+        for (int k = 0; k < activeCount; k++) {
+            int id = active[k];
+            if (minX[id] <= max && maxX[id] >= min) {
+                action.accept(id);
+            }
+        }
+    }
+}
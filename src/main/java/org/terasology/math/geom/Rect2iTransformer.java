@@ -13,21 +13,62 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.terasology.math.geom;
 
+import com.google.common.base.Preconditions;
+
 /**
  * Transforms coordinates from the source rectangle into relative coordinates
  * in the target rectangle.
+ * <br><br>
+ * If the target size is a multiple of the source size, the transformation is evaluated
+ * in the fused form <code>x * scale + offset</code> without any division.
  */
 public class Rect2iTransformer {
 
     private Rect2i source;
     private Rect2i target;
 
+    private final boolean integralX;
+    private final boolean integralY;
+    private final int factorX;
+    private final int factorY;
+    private final int offsetX;
+    private final int offsetY;
+
+    /**
+     * The transformers that are applied in sequence on axes that cannot be fused - null if not composed
+     */
+    private final Rect2iTransformer first;
+    private final Rect2iTransformer second;
+
     public Rect2iTransformer(Rect2i source, Rect2i target) {
         this.source = source;
         this.target = target;
+        this.first = null;
+        this.second = null;
+
+        integralX = source.width() != 0 && target.width() % source.width() == 0;
+        integralY = source.height() != 0 && target.height() % source.height() == 0;
+        factorX = integralX ? target.width() / source.width() : 0;
+        factorY = integralY ? target.height() / source.height() : 0;
+        offsetX = target.minX() - source.minX() * factorX;
+        offsetY = target.minY() - source.minY() * factorY;
+    }
+
+    private Rect2iTransformer(Rect2iTransformer first, Rect2iTransformer second, Rect2i target) {
+        this.source = first.source;
+        this.target = target;
+        this.first = first;
+        this.second = second;
+
+        // x * f1 + o1 followed by x * f2 + o2 is x * (f1 * f2) + (o1 * f2 + o2)
+        integralX = first.integralX && second.integralX;
+        integralY = first.integralY && second.integralY;
+        factorX = first.factorX * second.factorX;
+        factorY = first.factorY * second.factorY;
+        offsetX = first.offsetX * second.factorX + second.offsetX;
+        offsetY = first.offsetY * second.factorY + second.offsetY;
     }
 
     public Vector2i apply(int wx, int wy) {
@@ -38,14 +79,86 @@ public Vector2i apply(BaseVector2i v) {
         return new Vector2i(applyX(v.getX()), applyY(v.getY()));
     }
 
+    /**
+     * @param wx the x coordinate
+     * @param wy the y coordinate
+     * @param out the vector that receives the transformed coordinates
+     * @return out
+     */
+    public Vector2i apply(int wx, int wy, Vector2i out) {
+        out.set(applyX(wx), applyY(wy));
+        return out;
+    }
+
+    /**
+     * Transforms many points at once. The input and output arrays can be the same.
+     * @param xs the x coordinates
+     * @param ys the y coordinates
+     * @param count the number of points
+     * @param outXs the array that receives the transformed x coordinates
+     * @param outYs the array that receives the transformed y coordinates
+     */
+    public void applyAll(int[] xs, int[] ys, int count, int[] outXs, int[] outYs) {
+        Preconditions.checkArgument(xs.length >= count && ys.length >= count, "input arrays are too small");
+        Preconditions.checkArgument(outXs.length >= count && outYs.length >= count, "output arrays are too small");
+
+        if (integralX) {
+            for (int i = 0; i < count; i++) {
+                outXs[i] = xs[i] * factorX + offsetX;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                outXs[i] = applyX(xs[i]);
+            }
+        }
+
+        if (integralY) {
+            for (int i = 0; i < count; i++) {
+                outYs[i] = ys[i] * factorY + offsetY;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                outYs[i] = applyY(ys[i]);
+            }
+        }
+    }
+
     public int applyX(int wx) {
+        if (integralX) {
+            return wx * factorX + offsetX;
+        }
+        if (first != null) {
+            return second.applyX(first.applyX(wx));
+        }
         return target.minX() + (wx - source.minX()) * target.width() / source.width();
     }
 
     public int applyY(int wy) {
+        if (integralY) {
+            return wy * factorY + offsetY;
+        }
+        if (first != null) {
+            return second.applyY(first.applyY(wy));
+        }
         return target.minY() + (wy - source.minY()) * target.height() / source.height();
     }
 
+    /**
+     * Creates a single transformer that is equivalent to applying this transformer first and then <code>next</code>.
+     * Its source is the source of this transformer, its target is the area that <code>next</code> maps
+     * the target of this transformer to. The results always match applying both transformers in sequence:
+     * axes on which both transformers scale by integral factors are fused into a single multiply-add,
+     * the other axes apply both transformers one after the other.
+     * @param next the transformer that is applied second
+     * @return the composed transformer
+     */
+    public Rect2iTransformer andThen(Rect2iTransformer next) {
+        Rect2i composed = Rect2i.createFromMinAndMax(
+                next.applyX(target.minX()), next.applyY(target.minY()),
+                next.applyX(target.maxX() + 1) - 1, next.applyY(target.maxY() + 1) - 1);
+        return new Rect2iTransformer(this, next, composed);
+    }
+
     public Rect2i getSource() {
         return source;
     }
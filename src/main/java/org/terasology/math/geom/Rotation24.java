@@ -0,0 +1,284 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * One of the 24 rotations that map a cube onto itself, i.e. all rotations by multiples of 90 degrees
+ * about the coordinate axes. Instances are shared and can be compared by identity.
+ * <br><br>
+ * Composition and inversion are table lookups. Transforming a vector only permutes and negates its components.
+ * The indices match {@link FieldMatrix4i#setRotation(int)}.
+ */
+public final class Rotation24 {
+
+    /**
+     * The number of rotations
+     */
+    public static final int COUNT = FieldMatrix4i.ROTATION_COUNT;
+
+    private static final Rotation24[] VALUES = new Rotation24[COUNT];
+    private static final byte[] COMPOSITION = new byte[COUNT * COUNT];
+    private static final byte[] INVERSE = new byte[COUNT];
+
+    private static final Rotation24[] X_TURNS = new Rotation24[4];
+    private static final Rotation24[] Y_TURNS = new Rotation24[4];
+    private static final Rotation24[] Z_TURNS = new Rotation24[4];
+
+    static {
+        FieldMatrix4i m = new FieldMatrix4i();
+        for (int i = 0; i < COUNT; i++) {
+            VALUES[i] = new Rotation24(i, m.setRotation(i));
+        }
+
+        FieldMatrix4i a = new FieldMatrix4i();
+        FieldMatrix4i b = new FieldMatrix4i();
+        for (int i = 0; i < COUNT; i++) {
+            for (int j = 0; j < COUNT; j++) {
+                m.mul(a.setRotation(i), b.setRotation(j));
+                COMPOSITION[i * COUNT + j] = (byte) m.getRotationIndex();
+            }
+            INVERSE[i] = (byte) m.setRotation(i).transpose().getRotationIndex();
+        }
+
+        float quarter = (float) Math.PI / 2;
+        for (int q = 0; q < 4; q++) {
+            X_TURNS[q] = VALUES[m.rotX(q * quarter).getRotationIndex()];
+            Y_TURNS[q] = VALUES[m.rotY(q * quarter).getRotationIndex()];
+            Z_TURNS[q] = VALUES[m.rotZ(q * quarter).getRotationIndex()];
+        }
+    }
+
+    private final int index;
+
+    /**
+     * The input component (0 = x, 1 = y, 2 = z) that ends up in the respective output component
+     */
+    private final int srcX;
+    private final int srcY;
+    private final int srcZ;
+
+    private final int signX;
+    private final int signY;
+    private final int signZ;
+
+    private final float qx;
+    private final float qy;
+    private final float qz;
+    private final float qw;
+
+    private Rotation24(int index, FieldMatrix4i m) {
+        this.index = index;
+        this.srcX = m.m00 != 0 ? 0 : m.m01 != 0 ? 1 : 2;
+        this.srcY = m.m10 != 0 ? 0 : m.m11 != 0 ? 1 : 2;
+        this.srcZ = m.m20 != 0 ? 0 : m.m21 != 0 ? 1 : 2;
+        this.signX = m.m00 + m.m01 + m.m02;
+        this.signY = m.m10 + m.m11 + m.m12;
+        this.signZ = m.m20 + m.m21 + m.m22;
+
+        Quat4f q = new Quat4f();
+        q.set(new Matrix3f(
+                m.m00, m.m01, m.m02,
+                m.m10, m.m11, m.m12,
+                m.m20, m.m21, m.m22));
+        this.qx = q.x;
+        this.qy = q.y;
+        this.qz = q.z;
+        this.qw = q.w;
+    }
+
+    /**
+     * @return the identity rotation
+     */
+    public static Rotation24 identity() {
+        return VALUES[0];
+    }
+
+    /**
+     * @param index the index in [0..{@link #COUNT})
+     * @return the rotation with the given index
+     */
+    public static Rotation24 get(int index) {
+        Preconditions.checkElementIndex(index, COUNT, "rotation index");
+        return VALUES[index];
+    }
+
+    /**
+     * @return a new array that contains all rotations, ordered by index
+     */
+    public static Rotation24[] values() {
+        return VALUES.clone();
+    }
+
+    /**
+     * @param quarterTurns the number of counter clockwise quarter turns, can be negative
+     * @return the rotation about the x axis
+     */
+    public static Rotation24 aboutX(int quarterTurns) {
+        return X_TURNS[quarterTurns & 3];
+    }
+
+    /**
+     * @param quarterTurns the number of counter clockwise quarter turns, can be negative
+     * @return the rotation about the y axis
+     */
+    public static Rotation24 aboutY(int quarterTurns) {
+        return Y_TURNS[quarterTurns & 3];
+    }
+
+    /**
+     * @param quarterTurns the number of counter clockwise quarter turns, can be negative
+     * @return the rotation about the z axis
+     */
+    public static Rotation24 aboutZ(int quarterTurns) {
+        return Z_TURNS[quarterTurns & 3];
+    }
+
+    /**
+     * @param m a matrix whose upper 3x3 part is an axis-aligned rotation
+     * @return the rotation
+     * @throws IllegalArgumentException if the matrix does not contain an axis-aligned rotation
+     */
+    public static Rotation24 of(FieldMatrix4i m) {
+        int index = m.getRotationIndex();
+        Preconditions.checkArgument(index >= 0, "matrix is not an axis-aligned rotation");
+        return VALUES[index];
+    }
+
+    /**
+     * @return the index of this rotation in [0..{@link #COUNT})
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @param other the rotation that is applied first
+     * @return the rotation that applies <code>other</code> first and then this rotation
+     */
+    public Rotation24 compose(Rotation24 other) {
+        return VALUES[COMPOSITION[index * COUNT + other.index]];
+    }
+
+    /**
+     * @return the rotation that reverts this rotation
+     */
+    public Rotation24 inverse() {
+        return VALUES[INVERSE[index]];
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param out the vector that receives the rotated coordinates
+     * @return out
+     */
+    public Vector3i transform(int x, int y, int z, Vector3i out) {
+        out.set(signX * pick(srcX, x, y, z), signY * pick(srcY, x, y, z), signZ * pick(srcZ, x, y, z));
+        return out;
+    }
+
+    /**
+     * @param v the vector to rotate
+     * @param out the vector that receives the result, can be v
+     * @return out
+     */
+    public Vector3i transform(BaseVector3i v, Vector3i out) {
+        return transform(v.getX(), v.getY(), v.getZ(), out);
+    }
+
+    /**
+     * Rotates many integer boxes about the origin. Both min. and max. are inclusive.
+     * The boxes are stored in structure-of-arrays layout: a single array holds all min. x values,
+     * followed by all min. y, min. z, max. x, max. y and max. z values, i.e.
+     * component <code>c</code> of box <code>i</code> is stored at <code>c * count + i</code>.
+     * @param boxes the boxes, rotated in place
+     * @param count the number of boxes
+     */
+    public void transformBoxes(int[] boxes, int count) {
+        Preconditions.checkArgument(boxes.length >= count * 6, "boxes array is too small");
+
+        for (int i = 0; i < count; i++) {
+            int minX = boxes[i];
+            int minY = boxes[count + i];
+            int minZ = boxes[2 * count + i];
+            int maxX = boxes[3 * count + i];
+            int maxY = boxes[4 * count + i];
+            int maxZ = boxes[5 * count + i];
+
+            // negated axes swap min. and max.
+            int ax = signX * pick(srcX, minX, minY, minZ);
+            int bx = signX * pick(srcX, maxX, maxY, maxZ);
+            int ay = signY * pick(srcY, minX, minY, minZ);
+            int by = signY * pick(srcY, maxX, maxY, maxZ);
+            int az = signZ * pick(srcZ, minX, minY, minZ);
+            int bz = signZ * pick(srcZ, maxX, maxY, maxZ);
+            boxes[i] = Math.min(ax, bx);
+            boxes[count + i] = Math.min(ay, by);
+            boxes[2 * count + i] = Math.min(az, bz);
+            boxes[3 * count + i] = Math.max(ax, bx);
+            boxes[4 * count + i] = Math.max(ay, by);
+            boxes[5 * count + i] = Math.max(az, bz);
+        }
+    }
+
+    /**
+     * @param out the quaternion that receives the rotation
+     * @return out
+     */
+    public Quat4f getQuat(Quat4f out) {
+        out.set(qx, qy, qz, qw);
+        return out;
+    }
+
+    /**
+     * @param out the matrix that receives the rotation
+     * @return out
+     */
+    public Matrix3f getMatrix(Matrix3f out) {
+        out.setZero();
+        out.set(0, srcX, signX);
+        out.set(1, srcY, signY);
+        out.set(2, srcZ, signZ);
+        return out;
+    }
+
+    /**
+     * @param out the matrix that receives the rotation, without translation
+     * @return out
+     */
+    public FieldMatrix4i getMatrix(FieldMatrix4i out) {
+        return out.setRotation(index);
+    }
+
+    @Override
+    public String toString() {
+        return "Rotation24[" + index + "]";
+    }
+
+    private static int pick(int component, int x, int y, int z) {
+        switch (component) {
+            case 0:
+                return x;
+            case 1:
+                return y;
+            default:
+                return z;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Encodes and decodes {@link Rect2i}, {@link Rect2f} and {@link Polygon} in little-endian byte order,
+ * independent of the byte order of the buffer. This is the counterpart of the generated codecs
+ * such as {@link Vector2fCodec} for the (immutable) shape types.
+ * <br><br>
+ * Rectangles are written as min. x, min. y, width and height. Empty rectangles have a width and height of 0.
+ * Polygons are written as the number of vertices followed by the x and y coordinate of every vertex.
+ */
+public final class ShapeCodec {
+
+    /**
+     * The number of bytes per {@link Rect2i}
+     */
+    public static final int RECT2I_BYTES = 4 * Integer.BYTES;
+
+    /**
+     * The number of bytes per {@link Rect2f}
+     */
+    public static final int RECT2F_BYTES = 4 * Float.BYTES;
+
+    private ShapeCodec() {
+        // no instances
+    }
+
+    /**
+     * Writes {@link #RECT2I_BYTES} bytes at the current position of the buffer
+     * @param rc the rectangle
+     * @param dst the target buffer
+     */
+    public static void write(Rect2i rc, ByteBuffer dst) {
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            encode(rc, dst);
+        } finally {
+            dst.order(order);
+        }
+    }
+
+    /**
+     * Reads {@link #RECT2I_BYTES} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @return the rectangle
+     */
+    public static Rect2i readRect2i(ByteBuffer src) {
+        ByteOrder order = src.order();
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return decodeRect2i(src);
+        } finally {
+            src.order(order);
+        }
+    }
+
+    /**
+     * Writes {@link #RECT2F_BYTES} bytes at the current position of the buffer
+     * @param rc the rectangle
+     * @param dst the target buffer
+     */
+    public static void write(Rect2f rc, ByteBuffer dst) {
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            encode(rc, dst);
+        } finally {
+            dst.order(order);
+        }
+    }
+
+    /**
+     * Reads {@link #RECT2F_BYTES} bytes at the current position of the buffer
+     * @param src the source buffer
+     * @return the rectangle
+     */
+    public static Rect2f readRect2f(ByteBuffer src) {
+        ByteOrder order = src.order();
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            return decodeRect2f(src);
+        } finally {
+            src.order(order);
+        }
+    }
+
+    /**
+     * @param poly the polygon
+     * @return the number of bytes that are required to encode the polygon
+     */
+    public static int getBytes(Polygon poly) {
+        return Integer.BYTES + poly.vertexCount() * 2 * Float.BYTES;
+    }
+
+    /**
+     * Writes {@link #getBytes(Polygon)} bytes at the current position of the buffer
+     * @param poly the polygon
+     * @param dst the target buffer
+     */
+    public static void write(Polygon poly, ByteBuffer dst) {
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int count = poly.vertexCount();
+            dst.putInt(count);
+            for (int i = 0; i < count; i++) {
+                dst.putFloat(poly.vertexX(i));
+                dst.putFloat(poly.vertexY(i));
+            }
+        } finally {
+            dst.order(order);
+        }
+    }
+
+    /**
+     * Reads a polygon at the current position of the buffer
+     * @param src the source buffer
+     * @return the polygon
+     */
+    public static Polygon readPolygon(ByteBuffer src) {
+        ByteOrder order = src.order();
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int count = src.getInt();
+            Preconditions.checkArgument(count > 0 && count <= src.remaining() / (2 * Float.BYTES), "invalid vertex count %s", count);
+            float[] xy = new float[2 * count];
+            src.asFloatBuffer().get(xy);
+            src.position(src.position() + xy.length * Float.BYTES);
+            return Polygon.create(xy, 0, count);
+        } finally {
+            src.order(order);
+        }
+    }
+
+    /**
+     * Writes <code>count</code> rectangles at the current position of the buffer
+     * @param rects the rectangles
+     * @param offset the index of the first rectangle in the array
+     * @param count the number of rectangles
+     * @param dst the target buffer
+     */
+    public static void writeAll(Rect2i[] rects, int offset, int count, ByteBuffer dst) {
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int i = offset; i < offset + count; i++) {
+                encode(rects[i], dst);
+            }
+        } finally {
+            dst.order(order);
+        }
+    }
+
+    /**
+     * Reads <code>count</code> rectangles at the current position of the buffer
+     * @param src the source buffer
+     * @param rects the array that receives the rectangles
+     * @param offset the index of the first rectangle in the array
+     * @param count the number of rectangles
+     */
+    public static void readAll(ByteBuffer src, Rect2i[] rects, int offset, int count) {
+        ByteOrder order = src.order();
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int i = offset; i < offset + count; i++) {
+                rects[i] = decodeRect2i(src);
+            }
+        } finally {
+            src.order(order);
+        }
+    }
+
+    /**
+     * Writes <code>count</code> rectangles at the current position of the buffer
+     * @param rects the rectangles
+     * @param offset the index of the first rectangle in the array
+     * @param count the number of rectangles
+     * @param dst the target buffer
+     */
+    public static void writeAll(Rect2f[] rects, int offset, int count, ByteBuffer dst) {
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int i = offset; i < offset + count; i++) {
+                encode(rects[i], dst);
+            }
+        } finally {
+            dst.order(order);
+        }
+    }
+
+    /**
+     * Reads <code>count</code> rectangles at the current position of the buffer
+     * @param src the source buffer
+     * @param rects the array that receives the rectangles
+     * @param offset the index of the first rectangle in the array
+     * @param count the number of rectangles
+     */
+    public static void readAll(ByteBuffer src, Rect2f[] rects, int offset, int count) {
+        ByteOrder order = src.order();
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            for (int i = offset; i < offset + count; i++) {
+                rects[i] = decodeRect2f(src);
+            }
+        } finally {
+            src.order(order);
+        }
+    }
+
+    private static void encode(Rect2i rc, ByteBuffer dst) {
+        dst.putInt(rc.minX());
+        dst.putInt(rc.minY());
+        dst.putInt(rc.width());
+        dst.putInt(rc.height());
+    }
+
+    private static Rect2i decodeRect2i(ByteBuffer src) {
+        int x = src.getInt();
+        int y = src.getInt();
+        int w = src.getInt();
+        int h = src.getInt();
+        return Rect2i.createFromMinAndSize(x, y, w, h);
+    }
+
+    private static void encode(Rect2f rc, ByteBuffer dst) {
+        dst.putFloat(rc.minX());
+        dst.putFloat(rc.minY());
+        dst.putFloat(rc.width());
+        dst.putFloat(rc.height());
+    }
+
+    private static Rect2f decodeRect2f(ByteBuffer src) {
+        float x = src.getFloat();
+        float y = src.getFloat();
+        float w = src.getFloat();
+        float h = src.getFloat();
+        return Rect2f.createFromMinAndSize(x, y, w, h);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Finds all pairs of overlapping rectangles in a set with a single sweep along the x axis
+ * (sweep and prune). The rectangles are sorted by their left edge and only the rectangles that
+ * are still open at the current position are tested, so the cost is O(n log n) plus the number
+ * of pairs that overlap on the x axis, instead of O(n^2) for testing all pairs.
+ * <br><br>
+ * Two rectangles overlap if and only if {@link Rect2f#intersects(Rect2f)} returns true.
+ */
+public final class SweepAndPrune {
+
+    /**
+     * Receives pairs of overlapping rectangles
+     */
+    public interface PairVisitor {
+
+        /**
+         * @param first the smaller index of the two rectangles
+         * @param second the larger index of the two rectangles
+         */
+        void visit(int first, int second);
+    }
+
+    private SweepAndPrune() {
+        // no instances
+    }
+
+    /**
+     * @param rects the rectangles
+     * @param visitor receives the indices of all overlapping pairs
+     */
+    public static void forEachOverlap(List<Rect2f> rects, PairVisitor visitor) {
+        int count = rects.size();
+        float[] minX = new float[count];
+        float[] minY = new float[count];
+        float[] maxX = new float[count];
+        float[] maxY = new float[count];
+        for (int i = 0; i < count; i++) {
+            Rect2f rc = rects.get(i);
+            if (!rc.isEmpty()) {
+                minX[i] = rc.minX();
+                minY[i] = rc.minY();
+                maxX[i] = rc.maxX();
+                maxY[i] = rc.maxY();
+            }
+        }
+        forEachOverlap(minX, minY, maxX, maxY, count, visitor);
+    }
+
+    /**
+     * Collects all pairs of overlapping rectangles
+     * @param rects the rectangles
+     * @param pairs receives the index pairs interleaved (first, second); pairs that do not fit are counted, but not written
+     * @return the total number of pairs, which can be larger than half the length of the array
+     */
+    public static int getOverlaps(List<Rect2f> rects, int[] pairs) {
+        int[] count = new int[1];
+        forEachOverlap(rects, (first, second) -> {
+            int k = 2 * count[0]++;
+            if (k + 1 < pairs.length) {
+                pairs[k] = first;
+                pairs[k + 1] = second;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Works on rectangles that are stored as separate coordinate arrays. Rectangles with a non-positive
+     * size are ignored, like {@link Rect2f#EMPTY}.
+     * @param minX the left edges
+     * @param minY the top edges
+     * @param maxX the right edges
+     * @param maxY the bottom edges
+     * @param count the number of rectangles
+     * @param visitor receives the indices of all overlapping pairs
+     */
+    public static void forEachOverlap(float[] minX, float[] minY, float[] maxX, float[] maxY, int count, PairVisitor visitor) {
+        Preconditions.checkArgument(count >= 0 && count <= minX.length && count <= minY.length
+                && count <= maxX.length && count <= maxY.length, "count exceeds the array size");
+
+        long[] order = new long[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (maxX[i] > minX[i] && maxY[i] > minY[i]) {
+                order[n++] = IntervalTree.pack(sortableBits(minX[i]), i);
+            }
+        }
+        Arrays.sort(order, 0, n);
+
+        int[] open = new int[n];
+        int openCount = 0;
+        for (int k = 0; k < n; k++) {
+            int i = (int) order[k];
+            int kept = 0;
+            for (int a = 0; a < openCount; a++) {
+                int j = open[a];
+                // all remaining rectangles start at or after minX[i], so j cannot overlap any of them
+                if (maxX[j] <= minX[i]) {
+                    continue;
+                }
+                open[kept++] = j;
+                if (minX[j] < maxX[i] && minY[j] < maxY[i] && maxY[j] > minY[i]) {
+                    visitor.visit(Math.min(i, j), Math.max(i, j));
+                }
+            }
+            openCount = kept;
+            open[openCount++] = i;
+        }
+    }
+
+    /**
+     * Maps a float to an int with the same sort order
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Fractional Brownian motion (fBm) that sums up several octaves of another noise function.
+ * Every octave doubles (by default) the frequency and halves the amplitude of the previous one.
+ * The sum is normalized so that the result remains roughly in the range [-1..1].
+ */
+public final class BrownianNoise implements Noise {
+
+    private static final float DEFAULT_LACUNARITY = 2.0f;
+    private static final float DEFAULT_PERSISTENCE = 0.5f;
+
+    private final Noise other;
+    private final int octaves;
+    private final float lacunarity;
+    private final float persistence;
+    private final float normalization;
+
+    /**
+     * Uses a lacunarity of 2 and a persistence of 0.5
+     * @param other the underlying noise function
+     * @param octaves the number of octaves, must be positive
+     */
+    public BrownianNoise(Noise other, int octaves) {
+        this(other, octaves, DEFAULT_LACUNARITY, DEFAULT_PERSISTENCE);
+    }
+
+    /**
+     * @param other the underlying noise function
+     * @param octaves the number of octaves, must be positive
+     * @param lacunarity the frequency multiplier between octaves
+     * @param persistence the amplitude multiplier between octaves
+     */
+    public BrownianNoise(Noise other, int octaves, float lacunarity, float persistence) {
+        Preconditions.checkArgument(octaves > 0, "octaves must be positive");
+        Preconditions.checkArgument(persistence > 0, "persistence must be positive");
+
+        this.other = Preconditions.checkNotNull(other);
+        this.octaves = octaves;
+        this.lacunarity = lacunarity;
+        this.persistence = persistence;
+
+        float amplitudeSum = 0;
+        float amplitude = 1;
+        for (int i = 0; i < octaves; i++) {
+            amplitudeSum += amplitude;
+            amplitude *= persistence;
+        }
+        this.normalization = 1.0f / amplitudeSum;
+    }
+
+    /**
+     * @return the number of octaves
+     */
+    public int getOctaves() {
+        return octaves;
+    }
+
+    /**
+     * @return the frequency multiplier between octaves
+     */
+    public float getLacunarity() {
+        return lacunarity;
+    }
+
+    /**
+     * @return the amplitude multiplier between octaves
+     */
+    public float getPersistence() {
+        return persistence;
+    }
+
+    @Override
+    public float noise(float x, float y) {
+        float result = 0;
+        float amplitude = 1;
+        float frequency = 1;
+        for (int i = 0; i < octaves; i++) {
+            result += other.noise(x * frequency, y * frequency) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
+        }
+        return result * normalization;
+    }
+
+    @Override
+    public float noise(float x, float y, float z) {
+        float result = 0;
+        float amplitude = 1;
+        float frequency = 1;
+        for (int i = 0; i < octaves; i++) {
+            result += other.noise(x * frequency, y * frequency, z * frequency) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
+        }
+        return result * normalization;
+    }
+
+    @Override
+    public float noise(float x, float y, float z, float w) {
+        float result = 0;
+        float amplitude = 1;
+        float frequency = 1;
+        for (int i = 0; i < octaves; i++) {
+            result += other.noise(x * frequency, y * frequency, z * frequency, w * frequency) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
+        }
+        return result * normalization;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.Rect2i;
+
+/**
+ * A coherent noise function in two, three and four dimensions.
+ * <br><br>
+ * Implementations are immutable after construction. Sampling does not allocate
+ * and is safe to use from multiple threads concurrently.
+ */
+public interface Noise {
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the noise value, roughly in the range [-1..1]
+     */
+    float noise(float x, float y);
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the noise value, roughly in the range [-1..1]
+     */
+    float noise(float x, float y, float z);
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param w the w coordinate
+     * @return the noise value, roughly in the range [-1..1]
+     */
+    float noise(float x, float y, float z, float w);
+
+    /**
+     * Samples the noise function at every integer position of the given area.
+     * The result for position (x, y) is stored at index <code>(x - minX) + width * (y - minY)</code>.
+     * @param area the area to sample
+     * @param scaleX the factor that x coordinates are multiplied with before sampling
+     * @param scaleY the factor that y coordinates are multiplied with before sampling
+     * @param out the target array, must hold at least <code>area.area()</code> elements
+     * @return out
+     */
+    default float[] fill(Rect2i area, float scaleX, float scaleY, float[] out) {
+        int width = area.width();
+        int index = 0;
+        for (int y = area.minY(); y <= area.maxY(); y++) {
+            float sy = y * scaleY;
+            for (int x = area.minX(); x <= area.maxX(); x++) {
+                out[index++] = noise(x * scaleX, sy);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Samples the noise function at every integer position of the given box.
+     * The results are stored in the layout used by
+     * {@link TeraMath#calculate3DArrayIndex(int, int, int, org.terasology.math.geom.Vector3i)}
+     * relative to <code>min</code>, i.e. x varies fastest, then z, then y.
+     * @param min the minimum corner of the box (inclusive)
+     * @param size the size of the box
+     * @param scaleX the factor that x coordinates are multiplied with before sampling
+     * @param scaleY the factor that y coordinates are multiplied with before sampling
+     * @param scaleZ the factor that z coordinates are multiplied with before sampling
+     * @param out the target array, must hold at least <code>size.x * size.y * size.z</code> elements
+     * @return out
+     */
+    default float[] fill(BaseVector3i min, BaseVector3i size, float scaleX, float scaleY, float scaleZ, float[] out) {
+        int index = 0;
+        for (int y = min.getY(); y < min.getY() + size.getY(); y++) {
+            float sy = y * scaleY;
+            for (int z = min.getZ(); z < min.getZ() + size.getZ(); z++) {
+                float sz = z * scaleZ;
+                for (int x = min.getX(); x < min.getX() + size.getX(); x++) {
+                    out[index++] = noise(x * scaleX, sy, sz);
+                }
+            }
+        }
+        return out;
+    }
+}
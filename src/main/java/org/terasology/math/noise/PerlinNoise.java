@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import org.terasology.math.TeraMath;
+
+/**
+ * Ken Perlin's improved gradient noise, see
+ * <a href="http://mrl.nyu.edu/~perlin/noise/">http://mrl.nyu.edu/~perlin/noise/</a>.
+ * The noise value is zero at all integer lattice points.
+ */
+public final class PerlinNoise implements Noise {
+
+    private final int[] perm;
+
+    /**
+     * @param seed the seed for the permutation table
+     */
+    public PerlinNoise(long seed) {
+        perm = Permutations.create(seed);
+    }
+
+    @Override
+    public float noise(float x, float y) {
+        int ix = TeraMath.floorToInt(x);
+        int iy = TeraMath.floorToInt(y);
+        float fx = x - ix;
+        float fy = y - iy;
+        ix &= Permutations.MASK;
+        iy &= Permutations.MASK;
+
+        float u = TeraMath.fadePerlin(fx);
+        float v = TeraMath.fadePerlin(fy);
+
+        int a = perm[ix] + iy;
+        int b = perm[ix + 1] + iy;
+
+        float x0 = TeraMath.lerp(grad(perm[a], fx, fy), grad(perm[b], fx - 1, fy), u);
+        float x1 = TeraMath.lerp(grad(perm[a + 1], fx, fy - 1), grad(perm[b + 1], fx - 1, fy - 1), u);
+        return TeraMath.lerp(x0, x1, v);
+    }
+
+    @Override
+    public float noise(float x, float y, float z) {
+        int ix = TeraMath.floorToInt(x);
+        int iy = TeraMath.floorToInt(y);
+        int iz = TeraMath.floorToInt(z);
+        float fx = x - ix;
+        float fy = y - iy;
+        float fz = z - iz;
+        ix &= Permutations.MASK;
+        iy &= Permutations.MASK;
+        iz &= Permutations.MASK;
+
+        float u = TeraMath.fadePerlin(fx);
+        float v = TeraMath.fadePerlin(fy);
+        float w = TeraMath.fadePerlin(fz);
+
+        int a = perm[ix] + iy;
+        int aa = perm[a] + iz;
+        int ab = perm[a + 1] + iz;
+        int b = perm[ix + 1] + iy;
+        int ba = perm[b] + iz;
+        int bb = perm[b + 1] + iz;
+
+        return TeraMath.triLerp(
+                grad(perm[aa], fx, fy, fz),
+                grad(perm[ba], fx - 1, fy, fz),
+                grad(perm[ab], fx, fy - 1, fz),
+                grad(perm[bb], fx - 1, fy - 1, fz),
+                grad(perm[aa + 1], fx, fy, fz - 1),
+                grad(perm[ba + 1], fx - 1, fy, fz - 1),
+                grad(perm[ab + 1], fx, fy - 1, fz - 1),
+                grad(perm[bb + 1], fx - 1, fy - 1, fz - 1),
+                u, v, w);
+    }
+
+    @Override
+    public float noise(float x, float y, float z, float w) {
+        int ix = TeraMath.floorToInt(x);
+        int iy = TeraMath.floorToInt(y);
+        int iz = TeraMath.floorToInt(z);
+        int iw = TeraMath.floorToInt(w);
+        float fx = x - ix;
+        float fy = y - iy;
+        float fz = z - iz;
+        float fw = w - iw;
+        ix &= Permutations.MASK;
+        iy &= Permutations.MASK;
+        iz &= Permutations.MASK;
+        iw &= Permutations.MASK;
+
+        float u = TeraMath.fadePerlin(fx);
+        float v = TeraMath.fadePerlin(fy);
+        float t = TeraMath.fadePerlin(fz);
+        float s = TeraMath.fadePerlin(fw);
+
+        int a = perm[ix] + iy;
+        int aa = perm[a] + iz;
+        int ab = perm[a + 1] + iz;
+        int b = perm[ix + 1] + iy;
+        int ba = perm[b] + iz;
+        int bb = perm[b + 1] + iz;
+
+        int aaa = perm[aa] + iw;
+        int aab = perm[aa + 1] + iw;
+        int aba = perm[ab] + iw;
+        int abb = perm[ab + 1] + iw;
+        int baa = perm[ba] + iw;
+        int bab = perm[ba + 1] + iw;
+        int bba = perm[bb] + iw;
+        int bbb = perm[bb + 1] + iw;
+
+        float w0 = TeraMath.triLerp(
+                grad(perm[aaa], fx, fy, fz, fw),
+                grad(perm[baa], fx - 1, fy, fz, fw),
+                grad(perm[aba], fx, fy - 1, fz, fw),
+                grad(perm[bba], fx - 1, fy - 1, fz, fw),
+                grad(perm[aab], fx, fy, fz - 1, fw),
+                grad(perm[bab], fx - 1, fy, fz - 1, fw),
+                grad(perm[abb], fx, fy - 1, fz - 1, fw),
+                grad(perm[bbb], fx - 1, fy - 1, fz - 1, fw),
+                u, v, t);
+        float w1 = TeraMath.triLerp(
+                grad(perm[aaa + 1], fx, fy, fz, fw - 1),
+                grad(perm[baa + 1], fx - 1, fy, fz, fw - 1),
+                grad(perm[aba + 1], fx, fy - 1, fz, fw - 1),
+                grad(perm[bba + 1], fx - 1, fy - 1, fz, fw - 1),
+                grad(perm[aab + 1], fx, fy, fz - 1, fw - 1),
+                grad(perm[bab + 1], fx - 1, fy, fz - 1, fw - 1),
+                grad(perm[abb + 1], fx, fy - 1, fz - 1, fw - 1),
+                grad(perm[bbb + 1], fx - 1, fy - 1, fz - 1, fw - 1),
+                u, v, t);
+        return TeraMath.lerp(w0, w1, s);
+    }
+
+    private static float grad(int hash, float x, float y) {
+        switch (hash & 7) {
+            case 0:
+                return x + y;
+            case 1:
+                return -x + y;
+            case 2:
+                return x - y;
+            case 3:
+                return -x - y;
+            case 4:
+                return x;
+            case 5:
+                return -x;
+            case 6:
+                return y;
+            default:
+                return -y;
+        }
+    }
+
+    private static float grad(int hash, float x, float y, float z) {
+        int h = hash & 15;
+        float u = (h < 8) ? x : y;
+        float v = (h < 4) ? y : (h == 12 || h == 14) ? x : z;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    private static float grad(int hash, float x, float y, float z, float w) {
+        int h = hash & 31;
+        float a = (h < 24) ? x : y;
+        float b = (h < 16) ? y : z;
+        float c = (h < 8) ? z : w;
+        return ((h & 1) == 0 ? a : -a) + ((h & 2) == 0 ? b : -b) + ((h & 4) == 0 ? c : -c);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import java.util.Random;
+
+/**
+ * Creates the seeded permutation tables that are shared by the noise implementations.
+ */
+final class Permutations {
+
+    /**
+     * The number of distinct lattice hashes
+     */
+    static final int SIZE = 256;
+
+    /**
+     * Masks lattice coordinates into the range of the table
+     */
+    static final int MASK = SIZE - 1;
+
+    private Permutations() {
+    }
+
+    /**
+     * Creates a random permutation of [0..255] that is repeated once, so that
+     * lookups of the form <code>perm[i + perm[j]]</code> never need to be masked.
+     * @param seed the seed for the random number generator
+     * @return an array of length 512
+     */
+    static int[] create(long seed) {
+        Random rng = new Random(seed);
+        int[] perm = new int[SIZE * 2];
+        for (int i = 0; i < SIZE; i++) {
+            perm[i] = i;
+        }
+        for (int i = SIZE - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        System.arraycopy(perm, 0, perm, SIZE, SIZE);
+        return perm;
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import org.terasology.math.TeraMath;
+
+/**
+ * Simplex noise in 2D, 3D and 4D, based on the reference implementation by Stefan Gustavson, see
+ * <a href="http://staffwww.itn.liu.se/~stegu/simplexnoise/simplexnoise.pdf">Simplex noise demystified</a>.
+ * Compared to {@link PerlinNoise}, it has fewer directional artifacts and scales better to higher dimensions.
+ */
+public final class SimplexNoise implements Noise {
+
+    private static final float[] GRAD3 = {
+        1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1, 0,
+        1, 0, 1, -1, 0, 1, 1, 0, -1, -1, 0, -1,
+        0, 1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1
+    };
+
+    private static final float[] GRAD4 = {
+        0, 1, 1, 1, 0, 1, 1, -1, 0, 1, -1, 1, 0, 1, -1, -1,
+        0, -1, 1, 1, 0, -1, 1, -1, 0, -1, -1, 1, 0, -1, -1, -1,
+        1, 0, 1, 1, 1, 0, 1, -1, 1, 0, -1, 1, 1, 0, -1, -1,
+        -1, 0, 1, 1, -1, 0, 1, -1, -1, 0, -1, 1, -1, 0, -1, -1,
+        1, 1, 0, 1, 1, 1, 0, -1, 1, -1, 0, 1, 1, -1, 0, -1,
+        -1, 1, 0, 1, -1, 1, 0, -1, -1, -1, 0, 1, -1, -1, 0, -1,
+        1, 1, 1, 0, 1, 1, -1, 0, 1, -1, 1, 0, 1, -1, -1, 0,
+        -1, 1, 1, 0, -1, 1, -1, 0, -1, -1, 1, 0, -1, -1, -1, 0
+    };
+
+    // skewing and unskewing factors for 2, 3 and 4 dimensions
+    private static final float F2 = (float) (0.5 * (Math.sqrt(3.0) - 1.0));
+    private static final float G2 = (float) ((3.0 - Math.sqrt(3.0)) / 6.0);
+    private static final float F3 = 1.0f / 3.0f;
+    private static final float G3 = 1.0f / 6.0f;
+    private static final float F4 = (float) ((Math.sqrt(5.0) - 1.0) / 4.0);
+    private static final float G4 = (float) ((5.0 - Math.sqrt(5.0)) / 20.0);
+
+    private final int[] perm;
+
+    /**
+     * The permutation table modulo 12, pre-multiplied with the stride of {@link #GRAD3}
+     */
+    private final int[] permGrad3;
+
+    /**
+     * @param seed the seed for the permutation table
+     */
+    public SimplexNoise(long seed) {
+        perm = Permutations.create(seed);
+        permGrad3 = new int[perm.length];
+        for (int i = 0; i < perm.length; i++) {
+            permGrad3[i] = (perm[i] % 12) * 3;
+        }
+    }
+
+    @Override
+    public float noise(float xin, float yin) {
+        // skew the input space to determine which simplex cell we're in
+        float s = (xin + yin) * F2;
+        int i = TeraMath.floorToInt(xin + s);
+        int j = TeraMath.floorToInt(yin + s);
+        float t = (i + j) * G2;
+        float x0 = xin - (i - t);
+        float y0 = yin - (j - t);
+
+        // determine which of the two triangles we're in
+        int i1;
+        int j1;
+        if (x0 > y0) {
+            i1 = 1;
+            j1 = 0;
+        } else {
+            i1 = 0;
+            j1 = 1;
+        }
+
+        float x1 = x0 - i1 + G2;
+        float y1 = y0 - j1 + G2;
+        float x2 = x0 - 1.0f + 2.0f * G2;
+        float y2 = y0 - 1.0f + 2.0f * G2;
+
+        int ii = i & Permutations.MASK;
+        int jj = j & Permutations.MASK;
+
+        float n = corner(permGrad3[ii + perm[jj]], x0, y0)
+                + corner(permGrad3[ii + i1 + perm[jj + j1]], x1, y1)
+                + corner(permGrad3[ii + 1 + perm[jj + 1]], x2, y2);
+
+        // scale the result to cover the range [-1..1]
+        return 70.0f * n;
+    }
+
+    @Override
+    public float noise(float xin, float yin, float zin) {
+        float s = (xin + yin + zin) * F3;
+        int i = TeraMath.floorToInt(xin + s);
+        int j = TeraMath.floorToInt(yin + s);
+        int k = TeraMath.floorToInt(zin + s);
+        float t = (i + j + k) * G3;
+        float x0 = xin - (i - t);
+        float y0 = yin - (j - t);
+        float z0 = zin - (k - t);
+
+        // rank the coordinates to determine which of the six tetrahedra we're in
+        int rankx = 0;
+        int ranky = 0;
+        int rankz = 0;
+        if (x0 >= y0) {
+            rankx++;
+        } else {
+            ranky++;
+        }
+        if (x0 >= z0) {
+            rankx++;
+        } else {
+            rankz++;
+        }
+        if (y0 >= z0) {
+            ranky++;
+        } else {
+            rankz++;
+        }
+
+        int i1 = rankx >= 2 ? 1 : 0;
+        int j1 = ranky >= 2 ? 1 : 0;
+        int k1 = rankz >= 2 ? 1 : 0;
+        int i2 = rankx >= 1 ? 1 : 0;
+        int j2 = ranky >= 1 ? 1 : 0;
+        int k2 = rankz >= 1 ? 1 : 0;
+
+        float x1 = x0 - i1 + G3;
+        float y1 = y0 - j1 + G3;
+        float z1 = z0 - k1 + G3;
+        float x2 = x0 - i2 + 2.0f * G3;
+        float y2 = y0 - j2 + 2.0f * G3;
+        float z2 = z0 - k2 + 2.0f * G3;
+        float x3 = x0 - 1.0f + 3.0f * G3;
+        float y3 = y0 - 1.0f + 3.0f * G3;
+        float z3 = z0 - 1.0f + 3.0f * G3;
+
+        int ii = i & Permutations.MASK;
+        int jj = j & Permutations.MASK;
+        int kk = k & Permutations.MASK;
+
+        float n = corner(permGrad3[ii + perm[jj + perm[kk]]], x0, y0, z0)
+                + corner(permGrad3[ii + i1 + perm[jj + j1 + perm[kk + k1]]], x1, y1, z1)
+                + corner(permGrad3[ii + i2 + perm[jj + j2 + perm[kk + k2]]], x2, y2, z2)
+                + corner(permGrad3[ii + 1 + perm[jj + 1 + perm[kk + 1]]], x3, y3, z3);
+
+        return 32.0f * n;
+    }
+
+    @Override
+    public float noise(float x, float y, float z, float w) {
+        float s = (x + y + z + w) * F4;
+        int i = TeraMath.floorToInt(x + s);
+        int j = TeraMath.floorToInt(y + s);
+        int k = TeraMath.floorToInt(z + s);
+        int l = TeraMath.floorToInt(w + s);
+        float t = (i + j + k + l) * G4;
+        float x0 = x - (i - t);
+        float y0 = y - (j - t);
+        float z0 = z - (k - t);
+        float w0 = w - (l - t);
+
+        // rank the coordinates to determine which of the 24 simplices we're in
+        int rankx = 0;
+        int ranky = 0;
+        int rankz = 0;
+        int rankw = 0;
+        if (x0 > y0) {
+            rankx++;
+        } else {
+            ranky++;
+        }
+        if (x0 > z0) {
+            rankx++;
+        } else {
+            rankz++;
+        }
+        if (x0 > w0) {
+            rankx++;
+        } else {
+            rankw++;
+        }
+        if (y0 > z0) {
+            ranky++;
+        } else {
+            rankz++;
+        }
+        if (y0 > w0) {
+            ranky++;
+        } else {
+            rankw++;
+        }
+        if (z0 > w0) {
+            rankz++;
+        } else {
+            rankw++;
+        }
+
+        int i1 = rankx >= 3 ? 1 : 0;
+        int j1 = ranky >= 3 ? 1 : 0;
+        int k1 = rankz >= 3 ? 1 : 0;
+        int l1 = rankw >= 3 ? 1 : 0;
+        int i2 = rankx >= 2 ? 1 : 0;
+        int j2 = ranky >= 2 ? 1 : 0;
+        int k2 = rankz >= 2 ? 1 : 0;
+        int l2 = rankw >= 2 ? 1 : 0;
+        int i3 = rankx >= 1 ? 1 : 0;
+        int j3 = ranky >= 1 ? 1 : 0;
+        int k3 = rankz >= 1 ? 1 : 0;
+        int l3 = rankw >= 1 ? 1 : 0;
+
+        float x1 = x0 - i1 + G4;
+        float y1 = y0 - j1 + G4;
+        float z1 = z0 - k1 + G4;
+        float w1 = w0 - l1 + G4;
+        float x2 = x0 - i2 + 2.0f * G4;
+        float y2 = y0 - j2 + 2.0f * G4;
+        float z2 = z0 - k2 + 2.0f * G4;
+        float w2 = w0 - l2 + 2.0f * G4;
+        float x3 = x0 - i3 + 3.0f * G4;
+        float y3 = y0 - j3 + 3.0f * G4;
+        float z3 = z0 - k3 + 3.0f * G4;
+        float w3 = w0 - l3 + 3.0f * G4;
+        float x4 = x0 - 1.0f + 4.0f * G4;
+        float y4 = y0 - 1.0f + 4.0f * G4;
+        float z4 = z0 - 1.0f + 4.0f * G4;
+        float w4 = w0 - 1.0f + 4.0f * G4;
+
+        int ii = i & Permutations.MASK;
+        int jj = j & Permutations.MASK;
+        int kk = k & Permutations.MASK;
+        int ll = l & Permutations.MASK;
+
+        float n = corner(perm[ii + perm[jj + perm[kk + perm[ll]]]], x0, y0, z0, w0)
+                + corner(perm[ii + i1 + perm[jj + j1 + perm[kk + k1 + perm[ll + l1]]]], x1, y1, z1, w1)
+                + corner(perm[ii + i2 + perm[jj + j2 + perm[kk + k2 + perm[ll + l2]]]], x2, y2, z2, w2)
+                + corner(perm[ii + i3 + perm[jj + j3 + perm[kk + k3 + perm[ll + l3]]]], x3, y3, z3, w3)
+                + corner(perm[ii + 1 + perm[jj + 1 + perm[kk + 1 + perm[ll + 1]]]], x4, y4, z4, w4);
+
+        return 27.0f * n;
+    }
+
+    private static float corner(int gi, float x, float y) {
+        float t = 0.5f - x * x - y * y;
+        if (t < 0) {
+            return 0;
+        }
+        t *= t;
+        return t * t * (GRAD3[gi] * x + GRAD3[gi + 1] * y);
+    }
+
+    private static float corner(int gi, float x, float y, float z) {
+        float t = 0.6f - x * x - y * y - z * z;
+        if (t < 0) {
+            return 0;
+        }
+        t *= t;
+        return t * t * (GRAD3[gi] * x + GRAD3[gi + 1] * y + GRAD3[gi + 2] * z);
+    }
+
+    private static float corner(int hash, float x, float y, float z, float w) {
+        float t = 0.6f - x * x - y * y - z * z - w * w;
+        if (t < 0) {
+            return 0;
+        }
+        t *= t;
+        int gi = (hash & 31) * 4;
+        return t * t * (GRAD4[gi] * x + GRAD4[gi + 1] * y + GRAD4[gi + 2] * z + GRAD4[gi + 3] * w);
+    }
+}
@@ -0,0 +1,640 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.terasology.math.geom.BaseVector3i;
+import org.terasology.math.geom.DirectBuffers;
+import org.terasology.math.geom.Rect2i;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A persistent hash table that maps integer 3D positions to fixed-size records. The table lives in
+ * a memory-mapped file, so opening a store does not read or deserialize any entries.
+ * <br><br>
+ * Positions are packed into a <code>long</code> key (21 bits per axis, see {@link #pack(int, int, int)})
+ * and stored in open-addressing slots with linear probing. Each slot consists of the key,
+ * a state flag and the record bytes.
+ * <br><br>
+ * Inserting a new position writes the key and the record first and the state flag that makes the slot visible last,
+ * so an insert that is interrupted by a crash of the process is not visible. The operating system writes
+ * the mapped pages back in no particular order, though. After a power loss or a system crash, only the changes
+ * before the last {@link #flush()} are guaranteed to be intact; later inserts can be visible with incomplete records.
+ * Overwriting an existing record is not atomic.
+ * If the store was not closed properly, the entry count is restored by a full scan on the next {@link #open}.
+ * Growing and {@link #compact() compacting} the table writes a new file that atomically replaces the old one.
+ * <br><br>
+ * This class is not thread-safe.
+ */
+public final class Vector3iRecordStore implements Closeable {
+
+    /**
+     * Receives the entries of a region query. The store must not be modified while a query is running:
+     * {@link #put}, {@link #remove}, {@link #compact()} and {@link #close()} throw an {@link IllegalStateException}.
+     */
+    public interface RecordVisitor {
+
+        /**
+         * @param x the x coordinate of the entry
+         * @param y the y coordinate of the entry
+         * @param z the z coordinate of the entry
+         * @param record the record bytes between position and limit - only valid during the call
+         */
+        void visit(int x, int y, int z, ByteBuffer record);
+    }
+
+    /**
+     * The smallest coordinate that can be stored on every axis
+     */
+    public static final int MIN_COORD = -(1 << 20);
+
+    /**
+     * The largest coordinate that can be stored on every axis
+     */
+    public static final int MAX_COORD = (1 << 20) - 1;
+
+    private static final int MAGIC = 0x54565233;  // "TVR3"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+    private static final int MAGIC_POS = 0;
+    private static final int VERSION_POS = 4;
+    private static final int RECORD_SIZE_POS = 8;
+    private static final int CAPACITY_POS = 12;
+    private static final int COUNT_POS = 16;
+    private static final int TOMBSTONES_POS = 20;
+    private static final int CLEAN_POS = 24;
+
+    private static final int STATE_EMPTY = 0;
+    private static final int STATE_FULL = 1;
+    private static final int STATE_DELETED = 2;
+
+    private static final int KEY_OFFSET = 0;
+    private static final int STATE_OFFSET = 8;
+    private static final int RECORD_OFFSET = 12;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int COORD_BITS = 21;
+    private static final long COORD_MASK = (1L << COORD_BITS) - 1;
+
+    private final Path file;
+    private final int recordSize;
+    private final int slotSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private ByteBuffer recordView;
+    private int capacity;
+    private int count;
+    private int tombstones;
+    private boolean querying;
+
+    private Vector3iRecordStore(Path file, int recordSize) {
+        this.file = file;
+        this.recordSize = recordSize;
+        this.slotSize = RECORD_OFFSET + recordSize;
+    }
+
+    /**
+     * Opens an existing store or creates a new one.
+     * @param file the file that backs the store
+     * @param recordSize the number of bytes per record, must match the size of an existing store
+     * @return the store
+     * @throws IOException if the file cannot be opened or is not a store with the given record size
+     */
+    public static Vector3iRecordStore open(Path file, int recordSize) throws IOException {
+        Preconditions.checkArgument(recordSize > 0, "recordSize must be positive");
+
+        Vector3iRecordStore store = new Vector3iRecordStore(file, recordSize);
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            store.create(file, MIN_CAPACITY);
+        }
+        store.map();
+        return store;
+    }
+
+    /**
+     * @param x the x coordinate in [{@link #MIN_COORD}..{@link #MAX_COORD}]
+     * @param y the y coordinate in [{@link #MIN_COORD}..{@link #MAX_COORD}]
+     * @param z the z coordinate in [{@link #MIN_COORD}..{@link #MAX_COORD}]
+     * @return the packed key
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & COORD_MASK) << (2 * COORD_BITS)) | ((y & COORD_MASK) << COORD_BITS) | (z & COORD_MASK);
+    }
+
+    /**
+     * @param key the packed key
+     * @return the x coordinate
+     */
+    public static int unpackX(long key) {
+        return (int) (key << (64 - 3 * COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    /**
+     * @param key the packed key
+     * @return the y coordinate
+     */
+    public static int unpackY(long key) {
+        return (int) (key << (64 - 2 * COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    /**
+     * @param key the packed key
+     * @return the z coordinate
+     */
+    public static int unpackZ(long key) {
+        return (int) (key << (64 - COORD_BITS) >> (64 - COORD_BITS));
+    }
+
+    /**
+     * @return the number of bytes per record
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of slots in the table
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param pos the position
+     * @return true if an entry for the position exists
+     */
+    public boolean contains(BaseVector3i pos) {
+        return contains(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if an entry for the position exists
+     */
+    public boolean contains(int x, int y, int z) {
+        checkCoords(x, y, z);
+        return findSlot(pack(x, y, z)) >= 0;
+    }
+
+    /**
+     * Copies the record of a position into the given buffer, starting at its current position.
+     * @param pos the position
+     * @param dst the target buffer with at least {@link #getRecordSize()} bytes remaining
+     * @return true if the entry exists, false if nothing was copied
+     */
+    public boolean get(BaseVector3i pos, ByteBuffer dst) {
+        return get(pos.getX(), pos.getY(), pos.getZ(), dst);
+    }
+
+    /**
+     * Copies the record of a position into the given buffer, starting at its current position.
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param dst the target buffer with at least {@link #getRecordSize()} bytes remaining
+     * @return true if the entry exists, false if nothing was copied
+     */
+    public boolean get(int x, int y, int z, ByteBuffer dst) {
+        checkCoords(x, y, z);
+        int slot = findSlot(pack(x, y, z));
+        if (slot < 0) {
+            return false;
+        }
+        dst.put(record(slot));
+        return true;
+    }
+
+    /**
+     * Inserts or replaces the record of a position.
+     * @param pos the position
+     * @param src the source buffer - {@link #getRecordSize()} bytes are read from its current position
+     */
+    public void put(BaseVector3i pos, ByteBuffer src) {
+        put(pos.getX(), pos.getY(), pos.getZ(), src);
+    }
+
+    /**
+     * Inserts or replaces the record of a position.
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param src the source buffer - {@link #getRecordSize()} bytes are read from its current position
+     */
+    public void put(int x, int y, int z, ByteBuffer src) {
+        checkNotQuerying();
+        checkCoords(x, y, z);
+        Preconditions.checkArgument(src.remaining() >= recordSize, "source buffer has less than %s bytes remaining", recordSize);
+
+        long key = pack(x, y, z);
+        int existing = findSlot(key);
+        if (existing >= 0) {
+            writeRecord(existing, src);
+            return;
+        }
+
+        if ((count + tombstones + 1) * 2 > capacity) {
+            // grow only if the table is really full, otherwise getting rid of tombstones is enough
+            int newCapacity = ((count + 1) * 4 > capacity) ? capacity * 2 : capacity;
+            rewrite(newCapacity);
+        }
+
+        int slot = findFreeSlot(key);
+        int base = slotBase(slot);
+        boolean reused = buffer.getInt(base + STATE_OFFSET) == STATE_DELETED;
+        buffer.putLong(base + KEY_OFFSET, key);
+        writeRecord(slot, src);
+        buffer.putInt(base + STATE_OFFSET, STATE_FULL);  // commit point
+
+        count++;
+        if (reused) {
+            tombstones--;
+        }
+        writeCounts();
+    }
+
+    /**
+     * @param pos the position
+     * @return true if the entry existed and was removed
+     */
+    public boolean remove(BaseVector3i pos) {
+        return remove(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if the entry existed and was removed
+     */
+    public boolean remove(int x, int y, int z) {
+        checkNotQuerying();
+        checkCoords(x, y, z);
+        int slot = findSlot(pack(x, y, z));
+        if (slot < 0) {
+            return false;
+        }
+        buffer.putInt(slotBase(slot) + STATE_OFFSET, STATE_DELETED);
+        count--;
+        tombstones++;
+        writeCounts();
+        return true;
+    }
+
+    /**
+     * Visits all entries whose x and z coordinates are inside the given area, at any height.
+     * Since the height is not bounded, this always scans the entire table, regardless of the size of the area.
+     * @param area the area in the x/z plane
+     * @param visitor the visitor
+     */
+    public void query(Rect2i area, RecordVisitor visitor) {
+        if (area.isEmpty()) {
+            return;
+        }
+        boolean outer = querying;
+        querying = true;
+        try {
+            scan(area, visitor);
+        } finally {
+            querying = outer;
+        }
+    }
+
+    private void scan(Rect2i area, RecordVisitor visitor) {
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = slotBase(slot);
+            if (buffer.getInt(base + STATE_OFFSET) == STATE_FULL) {
+                long key = buffer.getLong(base + KEY_OFFSET);
+                int x = unpackX(key);
+                int z = unpackZ(key);
+                if (x >= area.minX() && x <= area.maxX() && z >= area.minY() && z <= area.maxY()) {
+                    visitor.visit(x, unpackY(key), z, record(slot));
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits all entries inside the given box. Depending on the volume of the box,
+     * either every position is looked up or the entire table is scanned.
+     * @param min the minimum corner (inclusive)
+     * @param max the maximum corner (inclusive)
+     * @param visitor the visitor
+     */
+    public void query(BaseVector3i min, BaseVector3i max, RecordVisitor visitor) {
+        // positions outside of the valid range cannot be stored
+        int minX = Math.max(min.getX(), MIN_COORD);
+        int minY = Math.max(min.getY(), MIN_COORD);
+        int minZ = Math.max(min.getZ(), MIN_COORD);
+        int maxX = Math.min(max.getX(), MAX_COORD);
+        int maxY = Math.min(max.getY(), MAX_COORD);
+        int maxZ = Math.min(max.getZ(), MAX_COORD);
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return;
+        }
+
+        boolean outer = querying;
+        querying = true;
+        try {
+            scan(minX, minY, minZ, maxX, maxY, maxZ, visitor);
+        } finally {
+            querying = outer;
+        }
+    }
+
+    private void scan(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, RecordVisitor visitor) {
+        long volume = (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+        if (volume < capacity) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        int slot = findSlot(pack(x, y, z));
+                        if (slot >= 0) {
+                            visitor.visit(x, y, z, record(slot));
+                        }
+                    }
+                }
+            }
+        } else {
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = slotBase(slot);
+                if (buffer.getInt(base + STATE_OFFSET) == STATE_FULL) {
+                    long key = buffer.getLong(base + KEY_OFFSET);
+                    int x = unpackX(key);
+                    int y = unpackY(key);
+                    int z = unpackZ(key);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ) {
+                        visitor.visit(x, y, z, record(slot));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the table without deleted entries and with the smallest capacity that keeps the load factor below 50%.
+     * @throws IOException if the new file cannot be written
+     */
+    public void compact() throws IOException {
+        checkNotQuerying();
+        int newCapacity = MIN_CAPACITY;
+        while (newCapacity < count * 2 + 2) {
+            newCapacity *= 2;
+        }
+        rewriteChecked(newCapacity);
+    }
+
+    /**
+     * Forces all changes to be written to the storage device.
+     */
+    public void flush() {
+        writeCounts();
+        buffer.force();
+    }
+
+    /**
+     * Flushes all changes and marks the store as cleanly closed.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        checkNotQuerying();
+        writeCounts();
+        buffer.putInt(CLEAN_POS, 1);
+        buffer.force();
+        unmap();
+    }
+
+    private void create(Path target, int newCapacity) throws IOException {
+        long length = HEADER_SIZE + (long) newCapacity * slotSize;
+        Preconditions.checkState(length <= Integer.MAX_VALUE, "store exceeds the maximum mappable size");
+        try (FileChannel fc = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer mapped = fc.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            mapped.putInt(MAGIC_POS, MAGIC);
+            mapped.putInt(VERSION_POS, VERSION);
+            mapped.putInt(RECORD_SIZE_POS, recordSize);
+            mapped.putInt(CAPACITY_POS, newCapacity);
+            mapped.putInt(COUNT_POS, 0);
+            mapped.putInt(TOMBSTONES_POS, 0);
+            mapped.putInt(CLEAN_POS, 1);
+            mapped.force();
+            DirectBuffers.free(mapped);
+        }
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        int magic = header.getInt(MAGIC_POS);
+        int version = header.getInt(VERSION_POS);
+        int storedRecordSize = header.getInt(RECORD_SIZE_POS);
+        int storedCapacity = header.getInt(CAPACITY_POS);
+        DirectBuffers.free(header);
+
+        if (magic != MAGIC || version != VERSION) {
+            channel.close();
+            throw new IOException("Not a record store: " + file);
+        }
+        if (storedRecordSize != recordSize) {
+            channel.close();
+            throw new IOException("Record size mismatch: expected " + recordSize + ", found " + storedRecordSize);
+        }
+
+        capacity = storedCapacity;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * slotSize);
+        recordView = buffer.duplicate();
+
+        if (buffer.getInt(CLEAN_POS) == 1) {
+            count = buffer.getInt(COUNT_POS);
+            tombstones = buffer.getInt(TOMBSTONES_POS);
+        } else {
+            recount();
+        }
+        buffer.putInt(CLEAN_POS, 0);
+        writeCounts();
+    }
+
+    private void recount() {
+        count = 0;
+        tombstones = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int state = buffer.getInt(slotBase(slot) + STATE_OFFSET);
+            if (state == STATE_FULL) {
+                count++;
+            } else if (state == STATE_DELETED) {
+                tombstones++;
+            }
+        }
+    }
+
+    private void rewrite(int newCapacity) {
+        try {
+            rewriteChecked(newCapacity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not resize " + file, e);
+        }
+    }
+
+    /**
+     * Copies all entries into a temporary file which then replaces the current one
+     */
+    private void rewriteChecked(int newCapacity) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        create(temp, newCapacity);
+        try (FileChannel fc = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = fc.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * slotSize);
+            int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = slotBase(slot);
+                if (buffer.getInt(base + STATE_OFFSET) == STATE_FULL) {
+                    long key = buffer.getLong(base + KEY_OFFSET);
+                    int idx = hash(key) & mask;
+                    while (target.getInt(HEADER_SIZE + idx * slotSize + STATE_OFFSET) != STATE_EMPTY) {
+                        idx = (idx + 1) & mask;
+                    }
+                    int targetBase = HEADER_SIZE + idx * slotSize;
+                    target.putLong(targetBase + KEY_OFFSET, key);
+                    target.position(targetBase + RECORD_OFFSET);
+                    target.put(record(slot));
+                    target.putInt(targetBase + STATE_OFFSET, STATE_FULL);
+                }
+            }
+            target.putInt(COUNT_POS, count);
+            target.putInt(CLEAN_POS, 1);
+            target.force();
+            DirectBuffers.free(target);
+        }
+
+        // neither file may be mapped while it is replaced, which fails on Windows otherwise
+        unmap();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            map();
+        }
+    }
+
+    /**
+     * Closes the file and releases the mapping immediately instead of waiting for the garbage collector
+     */
+    private void unmap() throws IOException {
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        recordView = null;
+        channel.close();
+        channel = null;
+        DirectBuffers.free(mapped);
+    }
+
+    private int findSlot(long key) {
+        int mask = capacity - 1;
+        int idx = hash(key) & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            int base = slotBase(idx);
+            int state = buffer.getInt(base + STATE_OFFSET);
+            if (state == STATE_EMPTY) {
+                return -1;
+            }
+            if (state == STATE_FULL && buffer.getLong(base + KEY_OFFSET) == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the first empty or deleted slot in the probe sequence of the key - the key must not be present
+     */
+    private int findFreeSlot(long key) {
+        int mask = capacity - 1;
+        int idx = hash(key) & mask;
+        while (buffer.getInt(slotBase(idx) + STATE_OFFSET) == STATE_FULL) {
+            idx = (idx + 1) & mask;
+        }
+        return idx;
+    }
+
+    private void writeRecord(int slot, ByteBuffer src) {
+        ByteBuffer part = src.duplicate();
+        part.limit(part.position() + recordSize);
+        buffer.position(slotBase(slot) + RECORD_OFFSET);
+        buffer.put(part);
+        src.position(src.position() + recordSize);
+    }
+
+    private ByteBuffer record(int slot) {
+        int start = slotBase(slot) + RECORD_OFFSET;
+        recordView.limit(start + recordSize);
+        recordView.position(start);
+        return recordView;
+    }
+
+    private void writeCounts() {
+        buffer.putInt(COUNT_POS, count);
+        buffer.putInt(TOMBSTONES_POS, tombstones);
+    }
+
+    private int slotBase(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    private static int hash(long key) {
+        // finalizer of MurmurHash3
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void checkNotQuerying() {
+        Preconditions.checkState(!querying, "the store cannot be modified during a query");
+    }
+
+    private static void checkCoords(int x, int y, int z) {
+        Preconditions.checkArgument(x >= MIN_COORD && x <= MAX_COORD
+                && y >= MIN_COORD && y <= MAX_COORD
+                && z >= MIN_COORD && z <= MAX_COORD, "coordinates out of range: (%s, %s, %s)", x, y, z);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math;
+
+import java.util.BitSet;
+
+import org.junit.Test;
+import org.terasology.math.ArrayIndexer3.Layout;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ArrayIndexer3Test {
+
+    private final Vector3i size = new Vector3i(5, 7, 3);
+
+    @Test
+    public void xFastestMatchesTeraMath() {
+        ArrayIndexer3 indexer = new ArrayIndexer3(size);
+        for (int y = 0; y < size.y; y++) {
+            for (int z = 0; z < size.z; z++) {
+                for (int x = 0; x < size.x; x++) {
+                    assertEquals(TeraMath.calculate3DArrayIndex(x, y, z, size), indexer.index(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void zFastest() {
+        ArrayIndexer3 indexer = new ArrayIndexer3(size, Layout.Z_FASTEST, true);
+        assertEquals(0, indexer.index(0, 0, 0));
+        assertEquals(1, indexer.index(0, 0, 1));
+        assertEquals(size.z, indexer.index(1, 0, 0));
+        assertEquals(size.x * size.z, indexer.index(0, 1, 0));
+        assertBijective(indexer);
+    }
+
+    @Test
+    public void morton() {
+        ArrayIndexer3 indexer = new ArrayIndexer3(new Vector3i(8, 8, 8), Layout.MORTON, true);
+        assertEquals(1, indexer.index(1, 0, 0));
+        assertEquals(2, indexer.index(0, 1, 0));
+        assertEquals(4, indexer.index(0, 0, 1));
+        assertEquals(7, indexer.index(1, 1, 1));
+        assertEquals(8, indexer.index(2, 0, 0));
+        assertEquals(511, indexer.index(7, 7, 7));
+        assertBijective(indexer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mortonRequiresCube() {
+        new ArrayIndexer3(new Vector3i(8, 16, 8), Layout.MORTON, false);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void boundsChecked() {
+        new ArrayIndexer3(size, Layout.X_FASTEST, true).index(0, size.y, 0);
+    }
+
+    @Test
+    public void neighbourOffsets() {
+        for (Layout layout : new Layout[] {Layout.X_FASTEST, Layout.Z_FASTEST}) {
+            ArrayIndexer3 indexer = new ArrayIndexer3(size, layout, false);
+            int center = indexer.index(2, 3, 1);
+            assertEquals(indexer.index(3, 3, 1), center + indexer.getNeighbourOffset(ArrayIndexer3.POS_X));
+            assertEquals(indexer.index(1, 3, 1), center + indexer.getNeighbourOffset(ArrayIndexer3.NEG_X));
+            assertEquals(indexer.index(2, 4, 1), center + indexer.getNeighbourOffset(ArrayIndexer3.POS_Y));
+            assertEquals(indexer.index(2, 2, 1), center + indexer.getNeighbourOffset(ArrayIndexer3.NEG_Y));
+            assertEquals(indexer.index(2, 3, 2), center + indexer.getNeighbourOffset(ArrayIndexer3.POS_Z));
+            assertEquals(indexer.index(2, 3, 0), center + indexer.getNeighbourOffset(ArrayIndexer3.NEG_Z));
+        }
+    }
+
+    @Test
+    public void rowIndices() {
+        ArrayIndexer3[] indexers = {
+            new ArrayIndexer3(new Vector3i(16, 16, 16)),
+            new ArrayIndexer3(new Vector3i(16, 16, 16), Layout.Z_FASTEST, true),
+            new ArrayIndexer3(new Vector3i(16, 16, 16), Layout.MORTON, true)
+        };
+        int[] row = new int[12];
+        for (ArrayIndexer3 indexer : indexers) {
+            indexer.rowIndices(3, 5, 7, 10, row, 2);
+            for (int i = 0; i < 10; i++) {
+                assertEquals(indexer.index(3 + i, 5, 7), row[2 + i]);
+            }
+        }
+    }
+
+    private static void assertBijective(ArrayIndexer3 indexer) {
+        BitSet used = new BitSet(indexer.getVolume());
+        for (int y = 0; y < indexer.getSizeY(); y++) {
+            for (int z = 0; z < indexer.getSizeZ(); z++) {
+                for (int x = 0; x < indexer.getSizeX(); x++) {
+                    int index = indexer.index(x, y, z);
+                    assertFalse(used.get(index));
+                    used.set(index);
+                }
+            }
+        }
+        assertEquals(indexer.getVolume(), used.cardinality());
+        assertEquals(indexer.getVolume(), used.length());
+    }
+}
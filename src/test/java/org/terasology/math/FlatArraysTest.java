@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FlatArraysTest {
+
+    private final Random rng = new Random(1234);
+
+    @Test
+    public void rotateMatchesJagged() {
+        for (int size : new int[] {1, 5, 31, 32, 33, 70}) {
+            float[][] jagged = randomJagged(size, size);
+            float[] flat = FlatArrays.flatten(jagged, new float[size * size]);
+            float[] expected = FlatArrays.flatten(rotateReference(jagged), new float[size * size]);
+            assertArrayEquals(expected, FlatArrays.flatten(TeraMath.rotateArray(jagged), new float[size * size]), 0.0f);
+
+            assertArrayEquals(expected, FlatArrays.rotate90(flat, size, size, new float[size * size]), 0.0f);
+            assertArrayEquals(expected, FlatArrays.rotate90InPlace(flat.clone(), size), 0.0f);
+
+            float[] expected180 = FlatArrays.flatten(rotateReference(rotateReference(jagged)), new float[size * size]);
+            assertArrayEquals(expected180, FlatArrays.rotate180(flat, size, size, new float[size * size]), 0.0f);
+            assertArrayEquals(expected180, FlatArrays.rotate180InPlace(flat.clone(), size, size), 0.0f);
+
+            float[] expected270 = FlatArrays.flatten(rotateReference(rotateReference(rotateReference(jagged))),
+                    new float[size * size]);
+            assertArrayEquals(expected270, FlatArrays.rotate270(flat, size, size, new float[size * size]), 0.0f);
+            assertArrayEquals(expected270, FlatArrays.rotate270InPlace(flat.clone(), size), 0.0f);
+        }
+    }
+
+    @Test
+    public void shiftMatchesJagged() {
+        int size = 37;
+        float[][] jagged = randomJagged(size, size);
+        float[] flat = FlatArrays.flatten(jagged, new float[size * size]);
+        int[][] offsets = {{0, 0}, {1, 0}, {0, 1}, {5, -7}, {-30, 3}, {36, 36}};
+        for (int[] offset : offsets) {
+            float[] expected = FlatArrays.flatten(shiftReference(jagged, offset[0], offset[1]), new float[size * size]);
+            float[][] shifted = TeraMath.shiftArray(jagged, offset[0], offset[1]);
+            assertArrayEquals(expected, FlatArrays.flatten(shifted, new float[size * size]), 0.0f);
+            assertArrayEquals(expected, FlatArrays.shift(flat, size, size, offset[0], offset[1], new float[size * size]), 0.0f);
+            assertArrayEquals(expected, FlatArrays.shiftInPlace(flat.clone(), size, size, offset[0], offset[1]), 0.0f);
+        }
+    }
+
+    @Test
+    public void rectangularRotationRoundTrip() {
+        int width = 45;
+        int height = 67;
+        float[] flat = FlatArrays.flatten(randomJagged(width, height), new float[width * height]);
+        float[] rotated = FlatArrays.rotate90(flat, width, height, new float[width * height]);
+        assertArrayEquals(flat, FlatArrays.rotate270(rotated, height, width, new float[width * height]), 0.0f);
+
+        float[] transposed = FlatArrays.transpose(flat, width, height, new float[width * height]);
+        assertArrayEquals(flat, FlatArrays.transpose(transposed, height, width, new float[width * height]), 0.0f);
+    }
+
+    @Test
+    public void transposeInPlace() {
+        int size = 50;
+        float[] flat = FlatArrays.flatten(randomJagged(size, size), new float[size * size]);
+        float[] expected = FlatArrays.transpose(flat, size, size, new float[size * size]);
+        assertArrayEquals(expected, FlatArrays.transposeInPlace(flat.clone(), size), 0.0f);
+    }
+
+    @Test
+    public void flip() {
+        int width = 3;
+        int height = 2;
+        float[] flat = {1, 2, 3, 4, 5, 6};
+        assertArrayEquals(new float[] {3, 2, 1, 6, 5, 4}, FlatArrays.flipX(flat, width, height, new float[6]), 0.0f);
+        assertArrayEquals(new float[] {3, 2, 1, 6, 5, 4}, FlatArrays.flipXInPlace(flat.clone(), width, height), 0.0f);
+        assertArrayEquals(new float[] {4, 5, 6, 1, 2, 3}, FlatArrays.flipY(flat, width, height, new float[6]), 0.0f);
+        assertArrayEquals(new float[] {4, 5, 6, 1, 2, 3}, FlatArrays.flipYInPlace(flat.clone(), width, height), 0.0f);
+    }
+
+    @Test
+    public void unflattenRoundTrip() {
+        float[][] jagged = randomJagged(7, 4);
+        float[] flat = FlatArrays.flatten(jagged, new float[28]);
+        float[][] result = FlatArrays.unflatten(flat, 7, 4, new float[7][4]);
+        for (int x = 0; x < 7; x++) {
+            assertArrayEquals(jagged[x], result[x], 0.0f);
+        }
+    }
+
+    @Test
+    public void emptyArrays() {
+        float[] empty = new float[0];
+        assertArrayEquals(empty, FlatArrays.shift(empty, 0, 5, 1, 2, new float[0]), 0.0f);
+        assertArrayEquals(empty, FlatArrays.shift(empty, 5, 0, 1, 2, new float[0]), 0.0f);
+        assertArrayEquals(empty, FlatArrays.shiftInPlace(empty, 0, 5, 1, 2), 0.0f);
+        assertArrayEquals(empty, FlatArrays.shiftInPlace(empty, 5, 0, 1, 2), 0.0f);
+        assertEquals(0, TeraMath.shiftArray(new float[0][0], 1, 2).length);
+        assertEquals(0, TeraMath.rotateArray(new float[0][0]).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aliasingIsRejected() {
+        float[] flat = new float[16];
+        FlatArrays.rotate90(flat, 4, 4, flat);
+    }
+
+    private float[][] randomJagged(int width, int height) {
+        float[][] array = new float[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                array[x][y] = rng.nextFloat();
+            }
+        }
+        return array;
+    }
+
+    /**
+     * The original jagged implementation of {@link TeraMath#rotateArray(float[][])}
+     */
+    private static float[][] rotateReference(float[][] array) {
+        int size = array.length;
+        float[][] newArray = new float[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                newArray[i][j] = array[j][size - i - 1];
+            }
+        }
+        return newArray;
+    }
+
+    /**
+     * The original jagged implementation of {@link TeraMath#shiftArray(float[][], int, int)}
+     */
+    private static float[][] shiftReference(float[][] array, int x, int y) {
+        int size = array.length;
+        float[][] newArray = new float[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                newArray[i][j] = array[(i + x + size) % size][(j + y + size) % size];
+            }
+        }
+        return newArray;
+    }
+}
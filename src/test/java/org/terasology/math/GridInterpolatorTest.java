@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.terasology.math.GridInterpolator.Fade;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+
+public class GridInterpolatorTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void upsample2DMatchesBiLerp() {
+        Random rng = new Random(1234);
+        int sx = 5;
+        int sy = 4;
+        float[] src = randomArray(rng, sx * sy);
+
+        for (Fade fade : Fade.values()) {
+            for (int factor = 1; factor <= 8; factor++) {
+                GridInterpolator gi = new GridInterpolator(factor, fade);
+                int dx = gi.maxTargetSize(sx);
+                int dy = gi.maxTargetSize(sy) - 1;
+                float[] dst = new float[dx * dy];
+                gi.upsample(src, sx, sy, dst, dx, dy);
+
+                for (int y = 0; y < dy; y++) {
+                    for (int x = 0; x < dx; x++) {
+                        int cx = Math.min(x / factor, sx - 2);
+                        int cy = Math.min(y / factor, sy - 2);
+                        float tx = fade.apply((float) (x - cx * factor) / factor);
+                        float ty = fade.apply((float) (y - cy * factor) / factor);
+                        float expected = TeraMath.biLerp(
+                                src[cx + sx * cy], src[cx + 1 + sx * cy],
+                                src[cx + sx * (cy + 1)], src[cx + 1 + sx * (cy + 1)], tx, ty);
+                        assertEquals(expected, dst[x + dx * y], EPSILON);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void upsample3DMatchesTriLerp() {
+        Random rng = new Random(4321);
+        Vector3i srcSize = new Vector3i(3, 4, 5);
+        float[] src = randomArray(rng, srcSize.x * srcSize.y * srcSize.z);
+
+        for (int factor = 1; factor <= 4; factor++) {
+            GridInterpolator gi = new GridInterpolator(factor, Fade.PERLIN);
+            Vector3i dstSize = new Vector3i(gi.maxTargetSize(srcSize.x) - 1, gi.maxTargetSize(srcSize.y), gi.maxTargetSize(srcSize.z));
+            float[] dst = new float[dstSize.x * dstSize.y * dstSize.z];
+            gi.upsample(src, srcSize.x, srcSize.y, srcSize.z, dst, dstSize.x, dstSize.y, dstSize.z);
+
+            for (int y = 0; y < dstSize.y; y++) {
+                for (int z = 0; z < dstSize.z; z++) {
+                    for (int x = 0; x < dstSize.x; x++) {
+                        int cx = Math.min(x / factor, srcSize.x - 2);
+                        int cy = Math.min(y / factor, srcSize.y - 2);
+                        int cz = Math.min(z / factor, srcSize.z - 2);
+                        float tx = TeraMath.fadePerlin((float) (x - cx * factor) / factor);
+                        float ty = TeraMath.fadePerlin((float) (y - cy * factor) / factor);
+                        float tz = TeraMath.fadePerlin((float) (z - cz * factor) / factor);
+                        float expected = TeraMath.triLerp(
+                                src[TeraMath.calculate3DArrayIndex(cx, cy, cz, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx + 1, cy, cz, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx, cy + 1, cz, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx + 1, cy + 1, cz, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx, cy, cz + 1, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx + 1, cy, cz + 1, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx, cy + 1, cz + 1, srcSize)],
+                                src[TeraMath.calculate3DArrayIndex(cx + 1, cy + 1, cz + 1, srcSize)],
+                                tx, ty, tz);
+                        assertEquals(expected, dst[TeraMath.calculate3DArrayIndex(x, y, z, dstSize)], EPSILON);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void targetTooLarge() {
+        GridInterpolator gi = new GridInterpolator(4, Fade.LINEAR);
+        gi.upsample(new float[4], 2, 2, new float[36], 6, 6);
+    }
+
+    private static float[] randomArray(Random rng, int length) {
+        float[] array = new float[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = rng.nextFloat() * 2 - 1;
+        }
+        return array;
+    }
+}
@@ -16,6 +16,7 @@
 package org.terasology.math;
 
 import org.junit.Test;
+import org.terasology.math.geom.Vector3i;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -80,6 +81,130 @@ public void powInt() {
         }
     }
 
+    @Test
+    public void fastSinCosFloat() {
+        float[] sinCos = new float[2];
+        for (float angle = -1000f; angle <= 1000f; angle += 0.0123f) {
+            assertEquals("sin(" + angle + ")", Math.sin(angle), TeraMath.fastSin(angle), 4e-7);
+            assertEquals("cos(" + angle + ")", Math.cos(angle), TeraMath.fastCos(angle), 4e-7);
+            assertEquals("sin(" + angle + ")", Math.sin(angle), TeraMath.fastSinPoly(angle), 2e-7);
+            assertEquals("cos(" + angle + ")", Math.cos(angle), TeraMath.fastCosPoly(angle), 2e-7);
+            TeraMath.sinCos(angle, sinCos);
+            assertEquals(TeraMath.fastSin(angle), sinCos[0], 0.0);
+            assertEquals(TeraMath.fastCos(angle), sinCos[1], 0.0);
+        }
+    }
+
+    @Test
+    public void fastSinCosDouble() {
+        double[] sinCos = new double[2];
+        for (double angle = -1000.0; angle <= 1000.0; angle += 0.0123) {
+            assertEquals("sin(" + angle + ")", Math.sin(angle), TeraMath.fastSin(angle), 3e-7);
+            assertEquals("cos(" + angle + ")", Math.cos(angle), TeraMath.fastCos(angle), 3e-7);
+            assertEquals("sin(" + angle + ")", Math.sin(angle), TeraMath.fastSinPoly(angle), 1e-10);
+            assertEquals("cos(" + angle + ")", Math.cos(angle), TeraMath.fastCosPoly(angle), 1e-10);
+            TeraMath.sinCos(angle, sinCos);
+            assertEquals(TeraMath.fastSin(angle), sinCos[0], 0.0);
+            assertEquals(TeraMath.fastCos(angle), sinCos[1], 0.0);
+        }
+    }
+
+    @Test
+    public void fastAtan2() {
+        for (double y = -10.0; y <= 10.0; y += 0.0173) {
+            for (double x = -10.0; x <= 10.0; x += 0.0173) {
+                assertEquals("atan2(" + y + ", " + x + ")", Math.atan2(y, x), TeraMath.fastAtan2(y, x), 3e-8);
+                assertEquals("atan2(" + y + ", " + x + ")", Math.atan2(y, x), TeraMath.fastAtan2((float) y, (float) x), 3e-7);
+            }
+        }
+        assertEquals(0.0, TeraMath.fastAtan2(0.0, 0.0), 0.0);
+        assertEquals(Math.PI, TeraMath.fastAtan2(0.0, -1.0), 3e-8);
+        assertEquals(-Math.PI / 2, TeraMath.fastAtan2(-1.0, 0.0), 3e-8);
+    }
+
+    @Test
+    public void fastAcos() {
+        for (double v = -1.0; v <= 1.0; v += 0.00011) {
+            assertEquals("acos(" + v + ")", Math.acos(v), TeraMath.fastAcos(v), 3e-8);
+            assertEquals("acos(" + v + ")", Math.acos((float) v), TeraMath.fastAcos((float) v), 3e-7);
+        }
+        assertEquals(0.0, TeraMath.fastAcos(1.0), 3e-8);
+        assertEquals(Math.PI, TeraMath.fastAcos(-1.0), 3e-8);
+    }
+
+    @Test
+    public void invSqrt() {
+        for (double v = 1e-6; v < 1e6; v *= 1.0173) {
+            double expected = 1.0 / Math.sqrt(v);
+            assertEqualsRatio("invSqrt(" + v + ")", expected, TeraMath.invSqrt(v), 5e-6);
+            assertEqualsRatio("invSqrt(" + v + ")", 1.0 / Math.sqrt((float) v), TeraMath.invSqrt((float) v), 5e-6);
+        }
+    }
+
+    @Test
+    public void floorDivMod() {
+        int[] edges = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -65537, -65536, -1025, -1024, -33, -32, -31, -3, -2, -1,
+                0, 1, 2, 3, 31, 32, 33, 1024, 1025, 65536, 65537, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        for (int dividend : edges) {
+            for (int divisor : edges) {
+                if (divisor != 0) {
+                    assertFloorDivMod(dividend, divisor);
+                }
+            }
+        }
+        for (int dividend = -1000; dividend <= 1000; dividend++) {
+            for (int divisor = -50; divisor <= 50; divisor++) {
+                if (divisor != 0) {
+                    assertFloorDivMod(dividend, divisor);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void floorDivModPow2() {
+        int[] values = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -65537, -1025, -33, -32, -31, -1, 0, 1, 31, 32, 33,
+                65537, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        for (int power = 0; power <= 30; power++) {
+            int divisor = 1 << power;
+            assertEquals(power, TeraMath.sizeOfPower(divisor));
+            for (int value : values) {
+                assertEquals(value + " / " + divisor, Math.floorDiv(value, divisor), TeraMath.floorDivPow2(value, power));
+                assertEquals(value + " % " + divisor, Math.floorMod(value, divisor), TeraMath.floorModPow2(value, power));
+            }
+        }
+    }
+
+    @Test
+    public void sizeOfPower() {
+        assertEquals(0, TeraMath.sizeOfPower(-5));
+        assertEquals(0, TeraMath.sizeOfPower(0));
+        assertEquals(0, TeraMath.sizeOfPower(1));
+        assertEquals(1, TeraMath.sizeOfPower(3));
+        assertEquals(5, TeraMath.sizeOfPower(63));
+        assertEquals(30, TeraMath.sizeOfPower(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void splitChunkPos() {
+        Vector3i power = new Vector3i(5, 8, 4);
+        Vector3i chunk = new Vector3i();
+        Vector3i rel = new Vector3i();
+        for (int i = -600; i <= 600; i += 7) {
+            Vector3i worldPos = new Vector3i(i, -i * 3, i + 17);
+            TeraMath.splitChunkPos(worldPos, power, chunk, rel);
+            assertEquals(new Vector3i(Math.floorDiv(i, 32), Math.floorDiv(-i * 3, 256), Math.floorDiv(i + 17, 16)), chunk);
+            assertEquals(new Vector3i(Math.floorMod(i, 32), Math.floorMod(-i * 3, 256), Math.floorMod(i + 17, 16)), rel);
+            assertEquals(chunk, TeraMath.calcChunkPos(worldPos, power, new Vector3i()));
+            assertEquals(rel, TeraMath.calcRelativePos(worldPos, power, new Vector3i()));
+        }
+    }
+
+    private void assertFloorDivMod(int dividend, int divisor) {
+        assertEquals(dividend + " / " + divisor, Math.floorDiv(dividend, divisor), TeraMath.floorDiv(dividend, divisor));
+        assertEquals(dividend + " % " + divisor, Math.floorMod(dividend, divisor), TeraMath.floorMod(dividend, divisor));
+    }
+
     // JUnit's assertEquals(expected, value, delta) uses delta as the maximum difference from expected and value
     // This approach is not acceptable for large doubles whose precision decreases as numbers grows
     // Therefore this function uses delta as the maximum deviation of the actual from the expected value
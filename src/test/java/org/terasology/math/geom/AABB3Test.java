@@ -0,0 +1,231 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AABB3Test {
+
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void emptyBox() {
+        AABB3f box = new AABB3f();
+        assertTrue(box.isEmpty());
+        assertEquals(0, box.volume(), 0);
+        assertFalse(box.contains(0, 0, 0));
+
+        box.union(1, 2, 3);
+        assertFalse(box.isEmpty());
+        assertEquals(new AABB3f(1, 2, 3, 1, 2, 3), box);
+    }
+
+    @Test
+    public void containsAndIntersects() {
+        AABB3f box = new AABB3f(0, 0, 0, 2, 3, 4);
+        assertTrue(box.contains(0, 3, 2));
+        assertFalse(box.contains(0, 3.1f, 2));
+        assertTrue(box.contains(new AABB3f(1, 1, 1, 2, 2, 2)));
+        assertFalse(box.contains(new AABB3f()));
+
+        assertTrue(box.intersects(new AABB3f(2, 3, 4, 5, 5, 5)));
+        assertFalse(box.intersects(new AABB3f(2.1f, 0, 0, 5, 5, 5)));
+
+        AABB3f other = new AABB3f(1, -1, 2, 5, 1, 3);
+        assertEquals(new AABB3f(1, 0, 2, 2, 1, 3), new AABB3f(box).intersection(other));
+        assertEquals(new AABB3f(0, -1, 0, 5, 3, 4), new AABB3f(box).union(other));
+        assertTrue(new AABB3f(box).intersection(new AABB3f(3, 3, 3, 4, 4, 4)).isEmpty());
+
+        assertEquals(24, box.volume(), EPSILON);
+        assertEquals(52, box.surfaceArea(), EPSILON);
+        assertEquals(4 + 1, box.distanceSquared(4, 4, 2), EPSILON);
+    }
+
+    @Test
+    public void rayIntersection() {
+        AABB3f box = new AABB3f(-1, -1, -1, 1, 1, 1);
+        assertEquals(4, box.intersectRay(-5, 0, 0, 1, 0, 0), EPSILON);
+        assertEquals(0, box.intersectRay(0, 0, 0, 0, 1, 0), EPSILON);
+        assertEquals(-1, box.intersectRay(-5, 0, 0, -1, 0, 0), EPSILON);
+        assertEquals(-1, box.intersectRay(-5, 2, 0, 1, 0, 0), EPSILON);
+        assertEquals(-1, box.intersectRay(-5, 0, 0, 1, 1, 0), EPSILON);
+        // origin on a slab boundary with zero direction component
+        assertEquals(4, box.intersectRay(-5, 1, 0, 1, 0, 0), EPSILON);
+
+        float s = (float) Math.sqrt(1 / 3.0);
+        assertEquals((float) Math.sqrt(3) * 4, box.intersectRay(-5, -5, -5, s, s, s), 1e-4f);
+    }
+
+    @Test
+    public void transformMatchesCorners() {
+        Random rng = new Random(1234);
+        Matrix4f m = new Matrix4f(new Quat4f(new Vector3f(1, 2, 3).normalize(), 0.8f), new Vector3f(3, -2, 1), 1.5f);
+        AABB3f box = new AABB3f(-1, 2, 0.5f, 3, 4, 1);
+
+        AABB3f expected = new AABB3f();
+        for (int c = 0; c < 8; c++) {
+            Vector3f p = new Vector3f((c & 1) == 0 ? box.minX : box.maxX, (c & 2) == 0 ? box.minY : box.maxY, (c & 4) == 0 ? box.minZ : box.maxZ);
+            m.transformPoint(p);
+            expected.union(p);
+        }
+        AABB3f actual = box.transform(m, new AABB3f());
+        assertBoxEquals(expected, actual, 1e-4f);
+
+        // batch transform in place
+        int count = 37;
+        float[] boxes = randomBoxes(rng, count);
+        float[] copy = boxes.clone();
+        AABB3f.transformAll(boxes, count, m, boxes);
+        for (int i = 0; i < count; i++) {
+            assertBoxEquals(new AABB3f().set(copy, count, i).transform(m, new AABB3f()), new AABB3f().set(boxes, count, i), 0);
+        }
+    }
+
+    @Test
+    public void batchQueries() {
+        Random rng = new Random(4321);
+        int count = 150;
+        float[] boxes = randomBoxes(rng, count);
+        long[] result = new long[(count + 63) / 64];
+        AABB3f box = new AABB3f();
+
+        int hits = AABB3f.containsAll(boxes, count, 1, 2, 3, result);
+        int expectedHits = 0;
+        for (int i = 0; i < count; i++) {
+            boolean expected = box.set(boxes, count, i).contains(1, 2, 3);
+            assertEquals(expected, (result[i / 64] & (1L << i)) != 0);
+            expectedHits += expected ? 1 : 0;
+        }
+        assertEquals(expectedHits, hits);
+        assertTrue(hits > 0);
+
+        AABB3f query = new AABB3f(-2, -2, -2, 0, 1, 2);
+        hits = AABB3f.intersectsAll(boxes, count, query, result);
+        expectedHits = 0;
+        for (int i = 0; i < count; i++) {
+            boolean expected = box.set(boxes, count, i).intersects(query);
+            assertEquals(expected, (result[i / 64] & (1L << i)) != 0);
+            expectedHits += expected ? 1 : 0;
+        }
+        assertEquals(expectedHits, hits);
+
+        float[] distances = new float[count];
+        int nearest = AABB3f.intersectRayAll(boxes, count, -20, 0.5f, 0.5f, 1, 0, 0, distances);
+        float best = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            float t = box.set(boxes, count, i).intersectRay(-20, 0.5f, 0.5f, 1, 0, 0);
+            assertEquals(t, distances[i], 0);
+            if (t >= 0) {
+                best = Math.min(best, t);
+            }
+        }
+        assertEquals(best, distances[nearest], 0);
+
+        AABB3f union = AABB3f.unionAll(boxes, count, new AABB3f());
+        AABB3f expected = new AABB3f();
+        for (int i = 0; i < count; i++) {
+            expected.union(box.set(boxes, count, i));
+        }
+        assertEquals(expected, union);
+    }
+
+    @Test
+    public void pointAccumulation() {
+        Random rng = new Random(5678);
+        float[] xyz = new float[3 * 500];
+        List<Vector3f> pts = new ArrayList<>();
+        AABB3f expected = new AABB3f();
+        for (int i = 0; i < 500; i++) {
+            Vector3f p = new Vector3f(rng.nextFloat(), rng.nextFloat() * 2, rng.nextFloat() * 3);
+            xyz[3 * i] = p.x;
+            xyz[3 * i + 1] = p.y;
+            xyz[3 * i + 2] = p.z;
+            pts.add(p);
+            expected.union(p);
+        }
+
+        assertEquals(expected, new AABB3f().unionPoints(xyz, 0, 500));
+        assertEquals(expected, pts.parallelStream().collect(AABB3f.collector()));
+        assertTrue(new ArrayList<Vector3f>().stream().collect(AABB3f.collector()).isEmpty());
+    }
+
+    @Test
+    public void unionPointsSkipsNaN() {
+        double[] xyz = {1, 2, 3, Double.NaN, -4, 5, 6, Double.NaN, -7};
+        AABB3d expected = new AABB3d();
+        for (int i = 0; i < xyz.length; i += 3) {
+            expected.union(xyz[i], xyz[i + 1], xyz[i + 2]);
+        }
+        assertEquals(expected, new AABB3d().unionPoints(xyz, 0, 3));
+        assertEquals(new AABB3d(1, -4, -7, 6, 2, 5), expected);
+    }
+
+    @Test
+    public void doublePrecision() {
+        AABB3d box = new AABB3d(new Vector3d(0, 0, 0), new Vector3d(1, 1, 1));
+        assertEquals(0.5, box.intersectRay(-0.5, 0.5, 0.5, 1, 0, 0), 1e-12);
+        assertEquals(new Vector3d(0.5, 0.5, 0.5), box.getCenter(new Vector3d()));
+
+        Matrix4d m = new Matrix4d();
+        m.setIdentity();
+        m.setTranslation(new Vector3d(1, 2, 3));
+        assertEquals(new AABB3d(1, 2, 3, 2, 3, 4), box.transform(m, new AABB3d()));
+    }
+
+    private static float[] randomBoxes(Random rng, int count) {
+        float[] boxes = new float[count * AABB3f.COMPONENTS];
+        for (int i = 0; i < count; i++) {
+            for (int c = 0; c < 3; c++) {
+                float min = rng.nextFloat() * 10 - 5;
+                boxes[c * count + i] = min;
+                boxes[(c + 3) * count + i] = min + rng.nextFloat() * 5;
+            }
+        }
+        return boxes;
+    }
+
+    private static void assertBoxEquals(AABB3f expected, AABB3f actual, float epsilon) {
+        assertEquals(expected.minX, actual.minX, epsilon);
+        assertEquals(expected.minY, actual.minY, epsilon);
+        assertEquals(expected.minZ, actual.minZ, epsilon);
+        assertEquals(expected.maxX, actual.maxX, epsilon);
+        assertEquals(expected.maxY, actual.maxY, epsilon);
+        assertEquals(expected.maxZ, actual.maxZ, epsilon);
+    }
+
+    @Test
+    public void equalsMatchesHashCode() {
+        AABB3f zero = new AABB3f(0f, 0f, 0f, 1f, 1f, 1f);
+        AABB3f negativeZero = new AABB3f(-0f, 0f, 0f, 1f, 1f, 1f);
+        assertNotEquals(zero, negativeZero);
+        assertEquals(zero, new AABB3f(0f, 0f, 0f, 1f, 1f, 1f));
+        assertEquals(zero.hashCode(), new AABB3f(0f, 0f, 0f, 1f, 1f, 1f).hashCode());
+
+        AABB3d nan = new AABB3d(Double.NaN, 0, 0, 1, 1, 1);
+        AABB3d otherNan = new AABB3d(Double.NaN, 0, 0, 1, 1, 1);
+        assertEquals(nan, otherNan);
+        assertEquals(nan.hashCode(), otherNan.hashCode());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BoundingBoxTest {
+
+    @Test
+    public void addAllMatchesAdd() {
+        Random rng = new Random(1234);
+        float[] xy = new float[2 + 2 * 100];
+        for (int i = 0; i < xy.length; i++) {
+            xy[i] = rng.nextFloat() * 100 - 50;
+        }
+
+        BoundingBox expected = new BoundingBox();
+        for (int i = 0; i < 100; i++) {
+            expected.add(xy[2 + 2 * i], xy[3 + 2 * i]);
+        }
+
+        BoundingBox actual = new BoundingBox();
+        actual.addAll(xy, 2, 0);
+        assertTrue(actual.isEmpty());
+        actual.addAll(xy, 2, 100);
+        assertEquals(expected.toRect2f(), actual.toRect2f());
+    }
+
+    @Test
+    public void addAllSkipsNaN() {
+        float[] xy = {1, 2, Float.NaN, 7, 3, Float.NaN, -1, 4};
+        BoundingBox expected = new BoundingBox();
+        for (int i = 0; i < xy.length; i += 2) {
+            expected.add(xy[i], xy[i + 1]);
+        }
+        BoundingBox actual = new BoundingBox();
+        actual.addAll(xy, 0, 4);
+        assertEquals(expected.toRect2f(), actual.toRect2f());
+        assertEquals(Rect2f.createFromMinAndMax(-1, 2, 3, 7), actual.toRect2f());
+    }
+
+    @Test
+    public void combine() {
+        BoundingBox a = new BoundingBox(new Vector2f(1, 2));
+        BoundingBox b = new BoundingBox(new Vector2f(-3, 5));
+        assertEquals(Rect2f.createFromMinAndMax(-3, 2, 1, 5), a.combine(b).toRect2f());
+        assertEquals(Rect2f.createFromMinAndMax(-3, 2, 1, 5), a.combine(new BoundingBox()).toRect2f());
+        assertFalse(new BoundingBox().combine(a).isEmpty());
+        assertTrue(new BoundingBox().combine(new BoundingBox()).isEmpty());
+    }
+
+    @Test
+    public void parallelCollector() {
+        Random rng = new Random(4321);
+        List<Vector2f> pts = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            pts.add(new Vector2f(rng.nextFloat() * 10, rng.nextFloat() * -10));
+        }
+
+        assertEquals(BoundingBox.compute(pts), pts.parallelStream().collect(BoundingBox.collector()));
+        assertEquals(Rect2f.EMPTY, new ArrayList<Vector2f>().stream().collect(BoundingBox.collector()));
+    }
+}
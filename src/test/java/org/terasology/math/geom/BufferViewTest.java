@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BufferViewTest {
+
+    @Test
+    public void vectorViewReadsAndWrites() {
+        FloatBuffer buffer = FloatBuffer.allocate(9);
+        buffer.put(new float[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        buffer.position(0);
+
+        Vector3fView view = new Vector3fView(buffer, 0);
+        assertEquals(new Vector3f(1, 2, 3), view);
+
+        view.setIndex(2);
+        assertEquals(new Vector3f(7, 8, 9), view);
+        assertEquals(new Vector3f(7, 8, 9), view.get(new Vector3f()));
+
+        view.setIndex(1).set(-1, -2, -3);
+        assertEquals(-2, buffer.get(4), 0);
+        view.setZ(10);
+        assertEquals(10, buffer.get(5), 0);
+        view.set(new Vector3f(11, 12, 13));
+        assertEquals(11, buffer.get(3), 0);
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void directByteBuffer() {
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4 * 4).order(ByteOrder.nativeOrder());
+        Vector3fView view = new Vector3fView(bytes, 1);
+        view.set(1.5f, 2.5f, 3.5f);
+        assertEquals(2.5f, bytes.asFloatBuffer().get(2), 0);
+        assertEquals(0, bytes.position());
+    }
+
+    @Test
+    public void putAllKeepsPosition() {
+        Matrix4f[] matrices = new Matrix4f[3];
+        for (int i = 0; i < matrices.length; i++) {
+            matrices[i] = new Matrix4f();
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++) {
+                    matrices[i].set(r, c, i * 100 + r * 4 + c);
+                }
+            }
+        }
+
+        FloatBuffer buffer = FloatBuffer.allocate(5 + 3 * 16);
+        buffer.position(5);
+        Matrix4f.putAll(matrices, buffer);
+        assertEquals(5, buffer.position());
+
+        Matrix4fView view = new Matrix4fView(buffer, 5);
+        for (int i = 0; i < matrices.length; i++) {
+            view.setOffset(5 + i * Matrix4fView.COMPONENTS);
+            assertEquals(matrices[i], view);
+            assertEquals(matrices[i], view.get(new Matrix4f()));
+        }
+
+        // same layout as appendToBuffer
+        FloatBuffer appended = FloatBuffer.allocate(16);
+        matrices[1].appendToBuffer(appended);
+        for (int k = 0; k < 16; k++) {
+            assertEquals(appended.get(k), buffer.get(5 + 16 + k), 0);
+        }
+    }
+
+    @Test
+    public void matrixViewWrites() {
+        FloatBuffer buffer = FloatBuffer.allocate(16);
+        Matrix4fView view = new Matrix4fView(buffer, 0);
+        view.set(Matrix4f.IDENTITY);
+        assertEquals(1, buffer.get(0), 0);
+        assertEquals(1, buffer.get(15), 0);
+
+        view.set(2, 3, 7);
+        assertEquals(7, view.getM23(), 0);
+        assertEquals(7, view.get(2, 3), 0);
+        assertEquals(7, buffer.get(11), 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void matrixViewChecksIndex() {
+        new Matrix4fView(FloatBuffer.allocate(16), 0).get(0, 4);
+    }
+}
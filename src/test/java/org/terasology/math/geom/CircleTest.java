@@ -16,6 +16,7 @@
 
 package org.terasology.math.geom;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -33,4 +34,13 @@ public void testContains() {
         assertTrue(c.contains(new Vector2f(2, 4)));
         assertFalse(c.contains(new Vector2f(1, 4)));
     }
+
+    @Test
+    public void testCenter() {
+        Circle c = new Circle(3, 5, 2);
+        assertEquals(3, c.centerX(), 0);
+        assertEquals(5, c.centerY(), 0);
+        assertEquals(new Vector2f(3, 5), c.getCenter(new Vector2f()));
+        assertEquals(ImmutableVector2f.of(3, 5), c.getCenter());
+    }
 }
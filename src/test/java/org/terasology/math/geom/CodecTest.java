@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CodecTest {
+
+    @Test
+    public void littleEndian() {
+        ByteBuffer buffer = ByteBuffer.allocate(Vector2iCodec.BYTES).order(ByteOrder.BIG_ENDIAN);
+        Vector2iCodec.write(new Vector2i(1, 0x01020304), buffer);
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        assertEquals(Vector2iCodec.BYTES, buffer.position());
+
+        byte[] expected = {1, 0, 0, 0, 4, 3, 2, 1};
+        assertTrue(Arrays.equals(expected, buffer.array()));
+    }
+
+    @Test
+    public void singleValues() {
+        ByteBuffer buffer = ByteBuffer.allocate(Vector3fCodec.BYTES + Quat4dCodec.BYTES + Matrix4fCodec.BYTES);
+        Vector3f vec = new Vector3f(1.5f, -2, 3);
+        Quat4d quat = new Quat4d(new Vector3d(0, 1, 0), 0.5);
+        Matrix4f mat = new Matrix4f(new float[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+        Vector3fCodec.write(vec, buffer);
+        Quat4dCodec.write(quat, buffer);
+        Matrix4fCodec.write(mat, buffer);
+        assertEquals(0, buffer.remaining());
+
+        buffer.flip();
+        assertEquals(vec, Vector3fCodec.read(buffer, new Vector3f()));
+        assertEquals(quat, Quat4dCodec.read(buffer, new Quat4d()));
+        assertEquals(mat, Matrix4fCodec.read(buffer, new Matrix4f()));
+    }
+
+    @Test
+    public void bulkAndReader() {
+        int count = 10;
+        Vector3d[] src = new Vector3d[count];
+        for (int i = 0; i < count; i++) {
+            src[i] = new Vector3d(i, i * 2, -i);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * Vector3dCodec.BYTES);
+        Vector3dCodec.writeAll(src, 0, count, buffer);
+        buffer.flip();
+
+        Vector3d[] dst = new Vector3d[count];
+        dst[3] = new Vector3d();
+        Vector3d reused = dst[3];
+        Vector3dCodec.readAll(buffer, dst, 0, count);
+        assertSame(reused, dst[3]);
+        assertTrue(Arrays.equals(src, dst));
+
+        buffer.rewind();
+        Vector3dCodec.Reader reader = new Vector3dCodec.Reader(buffer);
+        Vector3d first = reader.next();
+        assertEquals(src[0], first);
+        for (int i = 1; i < count; i++) {
+            assertTrue(reader.hasNext());
+            assertSame(first, reader.next());
+            assertEquals(src[i], first);
+        }
+        assertFalse(reader.hasNext());
+        assertEquals(count * Vector3dCodec.BYTES, reader.getBytesRead());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void shapes() {
+        Rect2i[] rects = {
+            Rect2i.createFromMinAndSize(1, 2, 3, 4),
+            Rect2i.EMPTY,
+            Rect2i.createFromMinAndMax(-5, -5, 5, 5),
+        };
+        Rect2f rectf = Rect2f.createFromMinAndSize(0.5f, -1.5f, 2, 3);
+        Polygon poly = Polygon.createCopy(Arrays.asList(new Vector2f(0, 0), new Vector2f(4, 0), new Vector2f(2, 3)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(rects.length * ShapeCodec.RECT2I_BYTES + ShapeCodec.RECT2F_BYTES
+                + ShapeCodec.getBytes(poly));
+        ShapeCodec.writeAll(rects, 0, rects.length, buffer);
+        ShapeCodec.write(rectf, buffer);
+        ShapeCodec.write(poly, buffer);
+        assertEquals(0, buffer.remaining());
+
+        buffer.flip();
+        Rect2i[] decoded = new Rect2i[rects.length];
+        ShapeCodec.readAll(buffer, decoded, 0, rects.length);
+        assertTrue(Arrays.equals(rects, decoded));
+        assertEquals(rectf, ShapeCodec.readRect2f(buffer));
+        assertEquals(poly.getVertices(), ShapeCodec.readPolygon(buffer).getVertices());
+    }
+
+    @Test
+    public void readerStartsAtBufferPosition() {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + 2 * Vector3fCodec.BYTES);
+        buffer.position(16);
+        Vector3fCodec.write(new Vector3f(1, 2, 3), buffer);
+        Vector3fCodec.write(new Vector3f(4, 5, 6), buffer);
+        buffer.position(16);
+
+        Vector3fCodec.Reader reader = new Vector3fCodec.Reader(buffer);
+        assertEquals(0, reader.getBytesRead());
+        assertEquals(new Vector3f(1, 2, 3), reader.next());
+        assertEquals(Vector3fCodec.BYTES, reader.getBytesRead());
+        assertEquals(new Vector3f(4, 5, 6), reader.next());
+        assertEquals(2 * Vector3fCodec.BYTES, reader.getBytesRead());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void invalidPolygonRestoresByteOrder() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(0, 5);
+        try {
+            ShapeCodec.readPolygon(buffer);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        }
+    }
+}
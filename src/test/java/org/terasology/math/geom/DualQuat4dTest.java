@@ -0,0 +1,207 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.math.geom;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link DualQuat4d} class
+ */
+public class DualQuat4dTest {
+
+    private static final double EPSILON = 1e-8;
+
+    @Test
+    public void testIdentity() {
+        DualQuat4d dq = new DualQuat4d();
+        Vector3d p = new Vector3d(1, 2, 3);
+        dq.transformPoint(p);
+        assertVectorEquals(new Vector3d(1, 2, 3), p);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random rng = new Random(1234);
+        for (int i = 0; i < 100; i++) {
+            Quat4d rot = randomQuat(rng);
+            Vector3d trans = randomVector(rng);
+            DualQuat4d dq = new DualQuat4d(rot, trans);
+
+            assertVectorEquals(trans, dq.getTranslation(new Vector3d()));
+            Quat4d rotOut = dq.getRotation(new Quat4d());
+            assertEquals(rot.getX(), rotOut.getX(), EPSILON);
+            assertEquals(rot.getY(), rotOut.getY(), EPSILON);
+            assertEquals(rot.getZ(), rotOut.getZ(), EPSILON);
+            assertEquals(rot.getW(), rotOut.getW(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testTransformMatchesMatrix() {
+        Random rng = new Random(4321);
+        for (int i = 0; i < 100; i++) {
+            Quat4d rot = randomQuat(rng);
+            Vector3d trans = randomVector(rng);
+            DualQuat4d dq = new DualQuat4d(rot, trans);
+            Matrix4d mat = new Matrix4d(rot, trans, 1);
+
+            Vector3d p1 = randomVector(rng);
+            Vector3d p2 = new Vector3d(p1);
+            dq.transformPoint(p1);
+            mat.transformPoint(p2);
+            assertVectorEquals(p2, p1);
+
+            Vector3d v1 = randomVector(rng);
+            Vector3d v2 = new Vector3d(v1);
+            dq.transformVector(v1);
+            mat.transformVector(v2);
+            assertVectorEquals(v2, v1);
+
+            assertMatrixEquals(mat, dq.getMatrix(new Matrix4d()));
+            assertMatrixEquals(mat, new DualQuat4d().set(mat).getMatrix(new Matrix4d()));
+        }
+    }
+
+    @Test
+    public void testMulComposes() {
+        Random rng = new Random(5678);
+        for (int i = 0; i < 100; i++) {
+            DualQuat4d a = new DualQuat4d(randomQuat(rng), randomVector(rng));
+            DualQuat4d b = new DualQuat4d(randomQuat(rng), randomVector(rng));
+            DualQuat4d ab = new DualQuat4d(a).mul(b);
+
+            Vector3d p1 = randomVector(rng);
+            Vector3d p2 = new Vector3d(p1);
+            ab.transformPoint(p1);
+            a.transformPoint(b.transformPoint(p2));
+            assertVectorEquals(p2, p1);
+
+            // aliasing
+            b.mul(a, b);
+            assertDualQuatEquals(ab, b);
+        }
+    }
+
+    @Test
+    public void testNormalize() {
+        DualQuat4d dq = new DualQuat4d(new Quat4d(new Vector3d(0, 1, 0), 1.2), new Vector3d(3, -4, 5));
+        DualQuat4d scaled = new DualQuat4d(dq);
+        double[] values = new double[DualQuat4d.SIZE];
+        scaled.get(values, 0);
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= 3.5;
+        }
+        scaled.set(values, 0).normalize();
+        assertDualQuatEquals(dq, scaled);
+    }
+
+    @Test
+    public void testBlend() {
+        DualQuat4d a = new DualQuat4d(new Quat4d(new Vector3d(0, 0, 1), 0), new Vector3d(0, 0, 0));
+        DualQuat4d b = new DualQuat4d(new Quat4d(new Vector3d(0, 0, 1), Math.PI / 2), new Vector3d(2, 0, 0));
+        DualQuat4d mid = DualQuat4d.blend(a, b, 0.5, new DualQuat4d());
+
+        Quat4d rot = mid.getRotation(new Quat4d());
+        Quat4d expected = new Quat4d(new Vector3d(0, 0, 1), Math.PI / 4);
+        assertEquals(Math.abs(expected.getW()), Math.abs(rot.getW()), EPSILON);
+        assertEquals(Math.abs(expected.getZ()), Math.abs(rot.getZ()), EPSILON);
+
+        // the blend result must not depend on the sign of the input
+        DualQuat4d negB = new DualQuat4d();
+        double[] values = new double[DualQuat4d.SIZE];
+        b.get(values, 0);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -values[i];
+        }
+        negB.set(values, 0);
+        assertDualQuatEquals(mid, DualQuat4d.blend(a, negB, 0.5, new DualQuat4d()));
+    }
+
+    @Test
+    public void testBlendAllMatchesBlend() {
+        Random rng = new Random(2468);
+        int boneCount = 6;
+        int vertexCount = 20;
+        int influences = 2;
+
+        DualQuat4d[] bones = new DualQuat4d[boneCount];
+        double[] palette = new double[boneCount * DualQuat4d.SIZE];
+        for (int i = 0; i < boneCount; i++) {
+            bones[i] = new DualQuat4d(randomQuat(rng), randomVector(rng));
+            bones[i].get(palette, i * DualQuat4d.SIZE);
+        }
+
+        int[] indices = new int[vertexCount * influences];
+        double[] weights = new double[vertexCount * influences];
+        for (int v = 0; v < vertexCount; v++) {
+            indices[v * 2] = rng.nextInt(boneCount);
+            indices[v * 2 + 1] = rng.nextInt(boneCount);
+            double w = rng.nextDouble();
+            weights[v * 2] = 1 - w;
+            weights[v * 2 + 1] = w;
+        }
+
+        double[] out = new double[vertexCount * DualQuat4d.SIZE];
+        DualQuat4d.blendAll(palette, indices, weights, influences, vertexCount, out);
+
+        DualQuat4d actual = new DualQuat4d();
+        DualQuat4d expected = new DualQuat4d();
+        for (int v = 0; v < vertexCount; v++) {
+            DualQuat4d.blend(bones[indices[v * 2]], bones[indices[v * 2 + 1]], weights[v * 2 + 1], expected);
+            actual.set(out, v * DualQuat4d.SIZE);
+            assertDualQuatEquals(expected, actual);
+        }
+    }
+
+    private static Quat4d randomQuat(Random rng) {
+        Vector3d axis = new Vector3d(rng.nextDouble() - 0.5, rng.nextDouble() - 0.5, rng.nextDouble() - 0.5);
+        axis.normalize();
+        return new Quat4d(axis, rng.nextDouble() * 2 * Math.PI);
+    }
+
+    private static Vector3d randomVector(Random rng) {
+        return new Vector3d(rng.nextDouble() * 20 - 10, rng.nextDouble() * 20 - 10, rng.nextDouble() * 20 - 10);
+    }
+
+    private static void assertVectorEquals(Vector3d expected, Vector3d actual) {
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+        assertEquals(expected.z, actual.z, EPSILON);
+    }
+
+    private static void assertDualQuatEquals(DualQuat4d expected, DualQuat4d actual) {
+        double[] e = new double[DualQuat4d.SIZE];
+        double[] a = new double[DualQuat4d.SIZE];
+        expected.get(e, 0);
+        actual.get(a, 0);
+        for (int i = 0; i < DualQuat4d.SIZE; i++) {
+            assertEquals(e[i], a[i], EPSILON);
+        }
+    }
+
+    private static void assertMatrixEquals(Matrix4d expected, Matrix4d actual) {
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                assertEquals(expected.get(r, c), actual.get(r, c), EPSILON);
+            }
+        }
+    }
+}
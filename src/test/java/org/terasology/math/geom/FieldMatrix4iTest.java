@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FieldMatrix4iTest {
+
+    @Test
+    public void rotationTable() {
+        assertEquals(FieldMatrix4i.id(), new FieldMatrix4i().setRotation(0));
+
+        Set<FieldMatrix4i> rotations = new HashSet<>();
+        FieldMatrix4i m = new FieldMatrix4i();
+        for (int i = 0; i < FieldMatrix4i.ROTATION_COUNT; i++) {
+            m.setRotation(i);
+            assertEquals(1, m.determinant());
+            assertEquals(i, m.getRotationIndex());
+            rotations.add(new FieldMatrix4i(m));
+
+            // rotations are orthogonal, so the transpose is the inverse
+            FieldMatrix4i inv = new FieldMatrix4i(m).transpose();
+            assertEquals(FieldMatrix4i.id(), inv.mul(m));
+        }
+        assertEquals(FieldMatrix4i.ROTATION_COUNT, rotations.size());
+
+        // the rotations form a group
+        FieldMatrix4i product = new FieldMatrix4i();
+        for (int a = 0; a < FieldMatrix4i.ROTATION_COUNT; a++) {
+            for (int b = 0; b < FieldMatrix4i.ROTATION_COUNT; b++) {
+                product.mul(new FieldMatrix4i().setRotation(a), new FieldMatrix4i().setRotation(b));
+                assertTrue(product.getRotationIndex() >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void axisRotations() {
+        Vector3i v = new Vector3i();
+        float quarter = (float) Math.PI / 2;
+        assertEquals(new Vector3i(0, 0, 1), new FieldMatrix4i().rotX(quarter).transform(new Vector3i(0, 1, 0), v));
+        assertEquals(new Vector3i(1, 0, 0), new FieldMatrix4i().rotY(quarter).transform(new Vector3i(0, 0, 1), v));
+        assertEquals(new Vector3i(0, 1, 0), new FieldMatrix4i().rotZ(quarter).transform(new Vector3i(1, 0, 0), v));
+        assertEquals(new Vector3i(0, -1, 0), new FieldMatrix4i().rotZ(-quarter).transform(new Vector3i(1, 0, 0), v));
+        assertEquals(new Vector3i(-1, 0, 0), new FieldMatrix4i().rotZ(2 * quarter).transform(new Vector3i(1, 0, 0), v));
+        assertEquals(FieldMatrix4i.id(), new FieldMatrix4i().rotY(4 * quarter));
+    }
+
+    @Test
+    public void mulIsAliasSafe() {
+        FieldMatrix4i a = new FieldMatrix4i().rotX((float) Math.PI / 2).translate(1, 2, 3);
+        FieldMatrix4i b = new FieldMatrix4i().rotY((float) Math.PI / 2).translate(-4, 5, 0);
+        FieldMatrix4i expected = new FieldMatrix4i().mul(a, b);
+        assertEquals(expected, new FieldMatrix4i(a).mul(b));
+        assertNotEquals(expected, new FieldMatrix4i(b).mul(a));
+
+        FieldMatrix4i square = new FieldMatrix4i().mul(a, a);
+        assertEquals(square, new FieldMatrix4i(a).mul(a));
+
+        Vector3i p = new Vector3i(7, -3, 2);
+        assertEquals(a.transformPoint(b.transformPoint(p, new Vector3i())), expected.transformPoint(p, new Vector3i()));
+    }
+
+    @Test
+    public void bulkTransform() {
+        FieldMatrix4i m = new FieldMatrix4i().setRotation(17).translate(10, -20, 30);
+        int count = 20;
+        int[] xyz = new int[2 + 3 * count];
+        for (int i = 0; i < xyz.length; i++) {
+            xyz[i] = i * 7 - 50;
+        }
+        int[] copy = xyz.clone();
+        m.transformPoints(xyz, 2, count);
+
+        Vector3i p = new Vector3i();
+        for (int i = 0; i < count; i++) {
+            int s = 2 + 3 * i;
+            m.transformPoint(copy[s], copy[s + 1], copy[s + 2], p);
+            assertEquals(p, new Vector3i(xyz[s], xyz[s + 1], xyz[s + 2]));
+        }
+        assertEquals(copy[0], xyz[0]);
+        assertEquals(copy[1], xyz[1]);
+    }
+
+    @Test
+    public void arrayRoundTrip() {
+        int[] values = new int[16];
+        for (int i = 0; i < 16; i++) {
+            values[i] = i * i - 3;
+        }
+        FieldMatrix4i m = new FieldMatrix4i(values);
+        assertEquals(values[6], m.m12);
+        assertEquals(values[6], m.get(1, 2));
+        assertEquals(m, new FieldMatrix4i(m.getValues()));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrustumTest {
+
+    private final Matrix4f projection = MatrixUtility.createPerspectiveProjectionMatrix((float) Math.PI / 2, 1, 1, 100);
+
+    @Test
+    public void points() {
+        Frustum frustum = new Frustum(projection);
+        assertTrue(frustum.contains(0, 0, -10));
+        assertTrue(frustum.contains(9, -9, -10));
+        assertTrue(frustum.contains(new Vector3f(0, 0, -99)));
+        assertFalse(frustum.contains(0, 0, 10));
+        assertFalse(frustum.contains(0, 0, -0.5f));
+        assertFalse(frustum.contains(0, 0, -101));
+        assertFalse(frustum.contains(11, 0, -10));
+        assertFalse(frustum.contains(0, -11, -10));
+    }
+
+    @Test
+    public void planesAreNormalized() {
+        Frustum frustum = new Frustum(projection);
+        Vector4f plane = new Vector4f();
+        for (int p = 0; p < Frustum.PLANES; p++) {
+            frustum.getPlane(p, plane);
+            assertEquals(1, plane.x * plane.x + plane.y * plane.y + plane.z * plane.z, 1e-5f);
+        }
+        assertEquals(1, frustum.distance(Frustum.NEAR, 0, 0, -2), 1e-4f);
+        assertEquals(50, frustum.distance(Frustum.FAR, 0, 0, -50), 1e-3f);
+    }
+
+    @Test
+    public void reversedZ() {
+        Matrix4f reversed = MatrixUtility.setReversedZPerspectiveProjectionMatrix((float) Math.PI / 2, 1, 1, 100, new Matrix4f());
+        Frustum frustum = new Frustum().setReversedZ(reversed);
+        assertTrue(frustum.contains(0, 0, -10));
+        assertTrue(frustum.contains(9, -9, -10));
+        assertTrue(frustum.contains(0, 0, -99));
+        assertFalse(frustum.contains(0, 0, -0.5f));
+        assertFalse(frustum.contains(0, 0, -101));
+        assertFalse(frustum.contains(11, 0, -10));
+        assertEquals(1, frustum.distance(Frustum.NEAR, 0, 0, -2), 1e-4f);
+        assertEquals(50, frustum.distance(Frustum.FAR, 0, 0, -50), 1e-3f);
+    }
+
+    @Test
+    public void viewProjection() {
+        Matrix4f view = MatrixUtility.createViewMatrix(0, 0, 0, 1, 0, 0, 0, 1, 0);
+        Matrix4f viewProj = new Matrix4f();
+        viewProj.mul(projection, view);
+        Frustum frustum = new Frustum(viewProj);
+        assertTrue(frustum.contains(10, 0, 0));
+        assertFalse(frustum.contains(-10, 0, 0));
+        assertFalse(frustum.contains(0, 0, -10));
+    }
+
+    @Test
+    public void spheresAndBoxes() {
+        Frustum frustum = new Frustum(projection);
+        assertTrue(frustum.intersectsSphere(0, 0, 5, 6));
+        assertFalse(frustum.intersectsSphere(0, 0, 5, 4));
+        assertTrue(frustum.intersectsSphere(15, 0, -10, 4));
+        assertFalse(frustum.intersectsSphere(20, 0, -10, 4));
+
+        assertTrue(frustum.intersectsAABB(-1, -1, -11, 1, 1, -9));
+        assertTrue(frustum.intersectsAABB(-1000, -1000, -1000, 1000, 1000, 1000));
+        assertFalse(frustum.intersectsAABB(-1, -1, 1, 1, 1, 3));
+        assertFalse(frustum.intersectsAABB(50, -1, -11, 52, 1, -9));
+
+        assertEquals(0, frustum.testAABB(-1, -1, -11, 1, 1, -9, Frustum.ALL_PLANES));
+        int mask = frustum.testAABB(-1, -1, -200, 1, 1, -9, Frustum.ALL_PLANES);
+        assertEquals(1 << Frustum.FAR, mask);
+        assertEquals(Frustum.OUTSIDE, frustum.testAABB(-1, -1, 1, 1, 1, 3, Frustum.ALL_PLANES));
+        assertEquals(0, frustum.testAABB(-1, -1, 1, 1, 1, 3, 0));
+    }
+
+    @Test
+    public void batchCull() {
+        Random rng = new Random(1234);
+        Frustum frustum = new Frustum(projection);
+
+        int groupSize = 8;
+        int groupCount = 40;
+        int count = groupSize * groupCount - 3;
+        float[] boxes = new float[count * 6];
+        float[] groups = new float[groupCount * 6];
+        for (int g = 0; g < groupCount; g++) {
+            float gx = rng.nextFloat() * 300 - 150;
+            float gz = rng.nextFloat() * 300 - 150;
+            groups[g] = gx;
+            groups[groupCount + g] = -64;
+            groups[2 * groupCount + g] = gz;
+            groups[3 * groupCount + g] = gx + 16;
+            groups[4 * groupCount + g] = groupSize * 16 - 48;
+            groups[5 * groupCount + g] = gz + 16;
+            for (int k = 0; k < groupSize && g * groupSize + k < count; k++) {
+                int i = g * groupSize + k;
+                boxes[i] = gx;
+                boxes[count + i] = k * 16 - 64;
+                boxes[2 * count + i] = gz;
+                boxes[3 * count + i] = gx + 16;
+                boxes[4 * count + i] = k * 16 - 48;
+                boxes[5 * count + i] = gz + 16;
+            }
+        }
+
+        long[] flat = new long[(count + 63) / 64];
+        int flatCount = frustum.cull(boxes, count, flat);
+
+        int expectedCount = 0;
+        for (int i = 0; i < count; i++) {
+            boolean expected = frustum.intersectsAABB(boxes[i], boxes[count + i], boxes[2 * count + i],
+                    boxes[3 * count + i], boxes[4 * count + i], boxes[5 * count + i]);
+            assertEquals(expected, Frustum.isVisible(flat, i));
+            if (expected) {
+                expectedCount++;
+            }
+        }
+        assertEquals(expectedCount, flatCount);
+        assertTrue(flatCount > 0 && flatCount < count);
+
+        byte[] lastPlane = new byte[count];
+        for (int frame = 0; frame < 2; frame++) {
+            long[] coherent = new long[flat.length];
+            assertEquals(flatCount, frustum.cull(boxes, count, coherent, lastPlane));
+            long[] grouped = new long[flat.length];
+            assertEquals(flatCount, frustum.cull(boxes, count, groups, groupSize, grouped, lastPlane));
+            for (int w = 0; w < flat.length; w++) {
+                assertEquals(flat[w], coherent[w]);
+                assertEquals(flat[w], grouped[w]);
+            }
+        }
+    }
+}
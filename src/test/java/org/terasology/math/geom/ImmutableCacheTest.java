@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the shared instances that are returned by the factory methods of the immutable types
+ */
+public class ImmutableCacheTest {
+
+    @Test
+    public void smallIntegerVectors() {
+        for (int x = -2; x <= 2; x++) {
+            for (int y = -2; y <= 2; y++) {
+                for (int z = -2; z <= 2; z++) {
+                    ImmutableVector3i v = ImmutableVector3i.of(x, y, z);
+                    assertEquals(new Vector3i(x, y, z), v);
+                    boolean cached = Math.abs(x) <= 1 && Math.abs(y) <= 1 && Math.abs(z) <= 1;
+                    if (cached) {
+                        assertSame(v, ImmutableVector3i.of(x, y, z));
+                    } else {
+                        assertNotSame(v, ImmutableVector3i.of(x, y, z));
+                    }
+                }
+            }
+        }
+        assertSame(BaseVector3i.ZERO, ImmutableVector3i.of(0, 0, 0));
+        assertSame(BaseVector3i.ONE, ImmutableVector3i.of(1, 1, 1));
+    }
+
+    @Test
+    public void unitAxes() {
+        assertSame(ImmutableVector3f.of(1, 0, 0), ImmutableVector3f.of(1, 0, 0));
+        assertSame(BaseVector4d.ZERO, ImmutableVector4d.of(0, 0, 0, 0));
+        assertSame(BaseVector2f.ONE, ImmutableVector2f.of(1, 1));
+        assertSame(ImmutableVector2d.of(0, -1), ImmutableVector2d.of(0, -1));
+        assertNotSame(ImmutableVector2f.of(0.5f, 0), ImmutableVector2f.of(0.5f, 0));
+    }
+
+    @Test
+    public void negativeZeroIsNotCached() {
+        ImmutableVector3f v = ImmutableVector3f.of(-0.0f, 0, 0);
+        assertEquals(Float.floatToIntBits(-0.0f), Float.floatToIntBits(v.getX()));
+        assertNotSame(BaseVector3f.ZERO, v);
+    }
+
+    @Test
+    public void identities() {
+        assertSame(BaseQuat4f.IDENTITY, ImmutableQuat4f.of(0, 0, 0, 1));
+        assertSame(BaseQuat4d.IDENTITY, ImmutableQuat4d.of(0, 0, 0, 1));
+        assertNotSame(BaseQuat4f.IDENTITY, ImmutableQuat4f.of(0, 0, 0, -1));
+    }
+
+    @Test
+    public void conversionsAndArithmeticDoNotUseCache() {
+        ImmutableVector3i converted = ImmutableVector3i.createOrUse(new Vector3i(0, 1, 0));
+        assertEquals(ImmutableVector3i.of(0, 1, 0), converted);
+        assertNotSame(ImmutableVector3i.of(0, 1, 0), converted);
+        ImmutableVector2i difference = ImmutableVector2i.of(1, 0).sub(2, 0);
+        assertEquals(ImmutableVector2i.of(-1, 0), difference);
+        assertNotSame(ImmutableVector2i.of(-1, 0), difference);
+        Matrix4f m = new Matrix4f();
+        m.setIdentity();
+        assertEquals(BaseMatrix4f.IDENTITY, ImmutableMatrix4f.createOrUse(m));
+        assertNotSame(BaseMatrix4f.IDENTITY, ImmutableMatrix4f.createOrUse(m));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link IntervalTree} and {@link Rect2iSweepLine} against brute-force results.
+ */
+public class IntervalTreeTest {
+
+    @Test
+    public void rowsMatchBruteForce() {
+        List<Rect2i> rects = randomRects(new Random(123), 300);
+        IntervalTree rows = IntervalTree.ofRows(rects);
+        IntervalTree cols = IntervalTree.ofColumns(rects);
+
+        for (int a = -60; a <= 60; a += 3) {
+            for (int b = a; b <= a + 20; b += 7) {
+                TreeSet<Integer> expectedRows = new TreeSet<>();
+                TreeSet<Integer> expectedCols = new TreeSet<>();
+                for (int i = 0; i < rects.size(); i++) {
+                    Rect2i rc = rects.get(i);
+                    if (!rc.isEmpty() && rc.minY() <= b && rc.maxY() >= a) {
+                        expectedRows.add(i);
+                    }
+                    if (!rc.isEmpty() && rc.minX() <= b && rc.maxX() >= a) {
+                        expectedCols.add(i);
+                    }
+                }
+
+                TreeSet<Integer> actual = new TreeSet<>();
+                rows.forEachOverlap(a, b, actual::add);
+                Assert.assertEquals(expectedRows, actual);
+
+                actual.clear();
+                cols.forEachOverlap(a, b, actual::add);
+                Assert.assertEquals(expectedCols, actual);
+            }
+        }
+    }
+
+    @Test
+    public void overlapsIntoArray() {
+        List<Rect2i> rects = Arrays.asList(
+                Rect2i.createFromMinAndMax(0, 0, 4, 4),
+                Rect2i.createFromMinAndMax(0, 5, 4, 9),
+                Rect2i.createFromMinAndSize(0, 2, 3, 0),
+                Rect2i.createFromMinAndMax(0, 3, 4, 6));
+        IntervalTree rows = IntervalTree.ofRows(rects);
+        Assert.assertEquals(3, rows.size());
+
+        int[] result = new int[2];
+        Assert.assertEquals(2, rows.getOverlaps(4, 4, result));
+        Arrays.sort(result);
+        Assert.assertArrayEquals(new int[] {0, 3}, result);
+
+        Assert.assertEquals(3, rows.getOverlaps(0, 9, result));
+        Assert.assertEquals(0, rows.getOverlaps(10, 20, result));
+    }
+
+    @Test
+    public void sweepLineMatchesBruteForce() {
+        List<Rect2i> rects = randomRects(new Random(456), 200);
+        Rect2iSweepLine sweep = new Rect2iSweepLine(rects);
+
+        for (int y = -70; y <= 70; y += 1 + (y & 3)) {
+            sweep.advanceTo(y);
+            TreeSet<Integer> expected = new TreeSet<>();
+            TreeSet<Integer> expectedInRange = new TreeSet<>();
+            for (int i = 0; i < rects.size(); i++) {
+                Rect2i rc = rects.get(i);
+                if (!rc.isEmpty() && rc.minY() <= y && rc.maxY() >= y) {
+                    expected.add(i);
+                    if (rc.minX() <= 10 && rc.maxX() >= -5) {
+                        expectedInRange.add(i);
+                    }
+                }
+            }
+
+            TreeSet<Integer> actual = new TreeSet<>();
+            for (int k = 0; k < sweep.getActiveCount(); k++) {
+                actual.add(sweep.getActive(k));
+            }
+            Assert.assertEquals(expected, actual);
+
+            actual.clear();
+            sweep.forEachActive(-5, 10, actual::add);
+            Assert.assertEquals(expectedInRange, actual);
+        }
+
+        sweep.reset();
+        Assert.assertEquals(0, sweep.getActiveCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sweepLineCannotMoveBackwards() {
+        Rect2iSweepLine sweep = new Rect2iSweepLine(randomRects(new Random(1), 10));
+        sweep.advanceTo(5);
+        sweep.advanceTo(4);
+    }
+
+    private static List<Rect2i> randomRects(Random rng, int count) {
+        List<Rect2i> rects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rects.add(Rect2i.createFromMinAndSize(rng.nextInt(120) - 60, rng.nextInt(120) - 60, rng.nextInt(20), rng.nextInt(20)));
+        }
+        return rects;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link KdTree2f} and {@link KdTree3f} against linear scans.
+ */
+public class KdTreeTest {
+
+    private static final int COUNT = 2000;
+
+    @Test
+    public void nearest2D() {
+        Random rng = new Random(1234);
+        float[] xs = randomArray(rng, COUNT);
+        float[] ys = randomArray(rng, COUNT);
+        KdTree2f tree = KdTree2f.create(xs, ys, COUNT);
+
+        int[] indices = new int[5];
+        float[] dists = new float[5];
+        for (int q = 0; q < 200; q++) {
+            float x = rng.nextFloat() * 120 - 60;
+            float y = rng.nextFloat() * 120 - 60;
+            float[] expected = new float[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                expected[i] = (xs[i] - x) * (xs[i] - x) + (ys[i] - y) * (ys[i] - y);
+            }
+            int nearest = tree.nearest(x, y);
+            Assert.assertEquals(min(expected), expected[nearest], 0);
+
+            Assert.assertEquals(5, tree.nearest(x, y, indices, dists));
+            Arrays.sort(expected);
+            for (int k = 0; k < 5; k++) {
+                Assert.assertEquals(expected[k], dists[k], 0);
+                Assert.assertEquals(expected[k], (xs[indices[k]] - x) * (xs[indices[k]] - x) + (ys[indices[k]] - y) * (ys[indices[k]] - y), 0);
+            }
+        }
+    }
+
+    @Test
+    public void nearest3D() {
+        Random rng = new Random(5678);
+        float[] xs = randomArray(rng, COUNT);
+        float[] ys = randomArray(rng, COUNT);
+        float[] zs = randomArray(rng, COUNT);
+        KdTree3f tree = KdTree3f.create(xs, ys, zs, COUNT);
+
+        int[] indices = new int[8];
+        float[] dists = new float[8];
+        for (int q = 0; q < 200; q++) {
+            Vector3f p = new Vector3f(rng.nextFloat() * 120 - 60, rng.nextFloat() * 120 - 60, rng.nextFloat() * 120 - 60);
+            float[] expected = new float[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                expected[i] = p.distanceSquared(new Vector3f(xs[i], ys[i], zs[i]));
+            }
+            int nearest = tree.nearest(p);
+            Assert.assertEquals(min(expected), expected[nearest], 0.0001f);
+
+            Assert.assertEquals(8, tree.nearest(p.x, p.y, p.z, indices, dists));
+            Arrays.sort(expected);
+            for (int k = 0; k < 8; k++) {
+                Assert.assertEquals(expected[k], dists[k], 0.0001f);
+            }
+        }
+    }
+
+    @Test
+    public void radiusAndBox() {
+        Random rng = new Random(9012);
+        float[] xs = randomArray(rng, COUNT);
+        float[] ys = randomArray(rng, COUNT);
+        float[] zs = randomArray(rng, COUNT);
+        KdTree2f tree2 = KdTree2f.create(xs, ys, COUNT);
+        KdTree3f tree3 = KdTree3f.create(xs, ys, zs, COUNT);
+
+        int[] result = new int[COUNT];
+        for (int q = 0; q < 50; q++) {
+            float x = rng.nextFloat() * 100 - 50;
+            float y = rng.nextFloat() * 100 - 50;
+            float z = rng.nextFloat() * 100 - 50;
+            float r = rng.nextFloat() * 20;
+
+            int[] expected2 = new int[COUNT];
+            int[] expected3 = new int[COUNT];
+            int[] expectedBox = new int[COUNT];
+            int n2 = 0;
+            int n3 = 0;
+            int nBox = 0;
+            for (int i = 0; i < COUNT; i++) {
+                float dx = xs[i] - x;
+                float dy = ys[i] - y;
+                float dz = zs[i] - z;
+                if (dx * dx + dy * dy <= r * r) {
+                    expected2[n2++] = i;
+                }
+                if (dx * dx + dy * dy + dz * dz <= r * r) {
+                    expected3[n3++] = i;
+                }
+                if (Math.abs(dx) <= r && Math.abs(dy) <= r && Math.abs(dz) <= r) {
+                    expectedBox[nBox++] = i;
+                }
+            }
+
+            assertSameIndices(expected2, n2, result, tree2.withinRadius(x, y, r, result));
+            assertSameIndices(expected3, n3, result, tree3.withinRadius(x, y, z, r, result));
+            assertSameIndices(expectedBox, nBox, result, tree3.withinBox(x - r, y - r, z - r, x + r, y + r, z + r, result));
+        }
+
+        Assert.assertEquals(COUNT, tree2.withinRadius(0, 0, 1000, new int[3]));
+        Assert.assertEquals(0, tree2.withinBox(Rect2f.EMPTY, result));
+    }
+
+    @Test
+    public void parallelBuild() {
+        Random rng = new Random(3456);
+        int count = 8 * KdTree.PARALLEL_THRESHOLD;
+        float[] xs = randomArray(rng, count);
+        float[] ys = randomArray(rng, count);
+        float[] zs = randomArray(rng, count);
+        KdTree3f tree = KdTree3f.createParallel(xs, ys, zs, count);
+        Assert.assertEquals(count, tree.size());
+
+        for (int q = 0; q < 100; q++) {
+            int i = rng.nextInt(count);
+            int nearest = tree.nearest(xs[i], ys[i], zs[i]);
+            Assert.assertEquals(xs[i], xs[nearest], 0);
+            Assert.assertEquals(ys[i], ys[nearest], 0);
+            Assert.assertEquals(zs[i], zs[nearest], 0);
+        }
+    }
+
+    @Test
+    public void emptyTree() {
+        KdTree2f tree = KdTree2f.create(new float[0], new float[0], 0);
+        Assert.assertEquals(-1, tree.nearest(1, 2));
+        Assert.assertEquals(0, tree.nearest(1, 2, new int[4], new float[4]));
+        Assert.assertEquals(0, tree.withinRadius(1, 2, 10, new int[4]));
+    }
+
+    private static void assertSameIndices(int[] expected, int expectedCount, int[] actual, int actualCount) {
+        Assert.assertEquals(expectedCount, actualCount);
+        int[] sorted = Arrays.copyOf(actual, actualCount);
+        Arrays.sort(sorted);
+        Assert.assertArrayEquals(Arrays.copyOf(expected, expectedCount), sorted);
+    }
+
+    private static float min(float[] values) {
+        float min = Float.POSITIVE_INFINITY;
+        for (float v : values) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    private static float[] randomArray(Random rng, int length) {
+        float[] array = new float[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = rng.nextFloat() * 100 - 50;
+        }
+        return array;
+    }
+}
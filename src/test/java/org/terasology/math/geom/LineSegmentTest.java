@@ -93,4 +93,20 @@ public void randomCuts() {
             }
         }
     }
+
+    @Test
+    public void primitiveAccessTest() {
+        LineSegment seg = new LineSegment(1, 2, 5, 10);
+        Assert.assertEquals(1, seg.startX(), 0);
+        Assert.assertEquals(2, seg.startY(), 0);
+        Assert.assertEquals(5, seg.endX(), 0);
+        Assert.assertEquals(10, seg.endY(), 0);
+
+        Vector2f out = new Vector2f();
+        Assert.assertEquals(new Vector2f(1, 2), seg.getStart(out));
+        Assert.assertEquals(new Vector2f(5, 10), seg.getEnd(out));
+        Assert.assertEquals(new Vector2f(seg.getDir()), seg.getDir(out));
+        Assert.assertEquals(new Vector2f(3, 6), seg.lerp(0.5f, out));
+        Assert.assertEquals(seg.lerp(0.25f), seg.lerp(0.25f, out));
+    }
 }
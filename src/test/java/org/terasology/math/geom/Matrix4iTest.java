@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Pins the behaviour of the array-based {@link Matrix4i}.
+ */
+public class Matrix4iTest {
+
+    @Test
+    public void rotXKeepsLegacyValues() {
+        Matrix4i m = new Matrix4i();
+        for (float angle = -4; angle <= 4; angle += 0.25f) {
+            m.rotX(angle);
+            int cos = (int) Math.cos(angle);
+            int sin = (int) Math.sin(angle);
+            assertArrayEquals(new int[] {1, 0, 0, 0, 0, cos, sin, 0, 0, -sin, cos, 0, 0, 0, 0, 1}, m.val);
+        }
+    }
+
+    @Test
+    public void getValuesReturnsBackingArray() {
+        Matrix4i m = Matrix4i.id();
+        assertSame(m.val, m.getValues());
+        m.getValues()[3] = 5;
+        assertEquals(new Vector3i(5, 0, 0), m.getTranslation());
+        assertEquals(1f, m.determinant(), 0f);
+    }
+
+    @Test
+    public void fieldMatrixConversion() {
+        FieldMatrix4i fm = new FieldMatrix4i().setRotation(11).translate(1, 2, 3);
+        Matrix4i m = fm.get(new Matrix4i());
+        assertEquals(fm, new FieldMatrix4i().set(m));
+        assertEquals(fm.transformPoint(new Vector3i(4, 5, 6), new Vector3i()), m.transformPoint(new Vector3i(4, 5, 6), new Vector3i()));
+    }
+}
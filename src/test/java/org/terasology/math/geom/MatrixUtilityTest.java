@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MatrixUtilityTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    private final Vector3f eye = new Vector3f(3, 4, 5);
+    private final Vector3f center = new Vector3f(-2, 1, 0);
+    private final Vector3f up = new Vector3f(0, 2, 0);
+
+    @Test
+    public void viewMatrixMapsEyeToOrigin() {
+        Matrix4f view = MatrixUtility.setViewMatrix(eye, center, up, new Matrix4f());
+
+        Vector3f p = new Vector3f(eye);
+        view.transformPoint(p);
+        assertEquals(0, p.length(), EPSILON);
+
+        p.set(center);
+        view.transformPoint(p);
+        assertEquals(0, p.x, EPSILON);
+        assertEquals(0, p.y, EPSILON);
+        assertEquals(-center.distance(eye), p.z, EPSILON);
+
+        // the up vector must not be modified
+        assertEquals(new Vector3f(0, 2, 0), up);
+    }
+
+    @Test
+    public void viewMatrixTranslation() {
+        // createViewMatrix keeps its historic translation column -eye, setViewMatrix uses -R * eye
+        Matrix4f legacy = MatrixUtility.createViewMatrix(eye, center, up);
+        Matrix4f lookAt = MatrixUtility.setViewMatrix(eye, center, up, new Matrix4f());
+        float[][] expectedRotation = {
+            {0.7071068f, 0f, -0.7071068f},
+            {-0.2761724f, 0.9205746f, -0.2761724f},
+            {0.6509446f, 0.3905667f, 0.6509446f}};
+        float[] legacyTranslation = {-3, -4, -5};
+        float[] lookAtTranslation = {1.4142136f, -1.4729194f, -6.7698234f};
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                assertEquals(expectedRotation[r][c], legacy.get(r, c), EPSILON);
+                assertEquals(expectedRotation[r][c], lookAt.get(r, c), EPSILON);
+            }
+            assertEquals(legacyTranslation[r], legacy.get(r, 3), EPSILON);
+            assertEquals(lookAtTranslation[r], lookAt.get(r, 3), EPSILON);
+        }
+        assertTrue(legacy.epsilonEquals(MatrixUtility.createViewMatrix(eye.x, eye.y, eye.z, center.x, center.y, center.z, up.x, up.y, up.z), 0));
+    }
+
+    @Test
+    public void setMatchesCreate() {
+        Matrix4f out = new Matrix4f();
+        assertTrue(MatrixUtility.createPerspectiveProjectionMatrix(1.2f, 1.5f, 0.1f, 500)
+                .epsilonEquals(MatrixUtility.setPerspectiveProjectionMatrix(1.2f, 1.5f, 0.1f, 500, out), EPSILON));
+        assertTrue(MatrixUtility.createOrthogonalProjectionMatrix(-2, 3, 4, -1, 1, 10)
+                .epsilonEquals(MatrixUtility.setOrthogonalProjectionMatrix(-2, 3, 4, -1, 1, 10, out), EPSILON));
+    }
+
+    @Test
+    public void viewProjectionIsProduct() {
+        Matrix4f view = MatrixUtility.setViewMatrix(eye, center, up, new Matrix4f());
+        Matrix4f projection = MatrixUtility.createPerspectiveProjectionMatrix(1.2f, 1.5f, 0.1f, 500);
+        Matrix4f expected = new Matrix4f();
+        expected.mul(projection, view);
+
+        Matrix4f fused = MatrixUtility.setViewProjectionMatrix(eye, center, up, 1.2f, 1.5f, 0.1f, 500, new Matrix4f());
+        assertTrue(expected.epsilonEquals(fused, 1e-4));
+    }
+
+    @Test
+    public void perspectiveDepthRange() {
+        Matrix4f m = new Matrix4f();
+        MatrixUtility.setPerspectiveProjectionMatrix(1, 1, 2, 50, m);
+        assertEquals(-1, depth(m, -2), EPSILON);
+        assertEquals(1, depth(m, -50), EPSILON);
+
+        MatrixUtility.setReversedZPerspectiveProjectionMatrix(1, 1, 2, 50, m);
+        assertEquals(1, depth(m, -2), EPSILON);
+        assertEquals(0, depth(m, -50), EPSILON);
+
+        MatrixUtility.setInfinitePerspectiveProjectionMatrix(1, 1, 2, m);
+        assertEquals(-1, depth(m, -2), EPSILON);
+        assertEquals(1, depth(m, -1e7f), EPSILON);
+
+        MatrixUtility.setReversedZInfinitePerspectiveProjectionMatrix(1, 1, 2, m);
+        assertEquals(1, depth(m, -2), EPSILON);
+        assertEquals(0, depth(m, -1e7f), EPSILON);
+    }
+
+    @Test
+    public void normalMatrixIsInverseTranspose() {
+        Matrix4f mv = new Matrix4f(new Quat4f(new Vector3f(1, 2, 3), 0.7f), new Vector3f(1, 2, 3), 2.5f);
+        mv.m01 += 0.3f;
+
+        Matrix3f expected = new Matrix3f(
+                mv.m00, mv.m01, mv.m02,
+                mv.m10, mv.m11, mv.m12,
+                mv.m20, mv.m21, mv.m22);
+        expected.invert();
+        expected.transpose();
+
+        Matrix3f actual = MatrixUtility.setNormalMatrix(mv, new Matrix3f());
+        assertTrue(expected.epsilonEquals(actual, EPSILON));
+        assertTrue(expected.epsilonEquals(MatrixUtility.calcNormalMatrix(mv), EPSILON));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void normalMatrixOfSingularMatrix() {
+        MatrixUtility.setNormalMatrix(new Matrix4f(), new Matrix3f());
+    }
+
+    @Test
+    public void doublePrecision() {
+        Vector3d eyed = new Vector3d(eye.x, eye.y, eye.z);
+        Vector3d centerd = new Vector3d(center.x, center.y, center.z);
+        Vector3d upd = new Vector3d(up.x, up.y, up.z);
+
+        Matrix4d view = MatrixUtility.setViewMatrix(eyed, centerd, upd, new Matrix4d());
+        Matrix4d projection = MatrixUtility.setPerspectiveProjectionMatrix(1.2, 1.5, 0.1, 500, new Matrix4d());
+        Matrix4d expected = new Matrix4d();
+        expected.mul(projection, view);
+
+        Matrix4d fused = MatrixUtility.setViewProjectionMatrix(eyed, centerd, upd, 1.2, 1.5, 0.1, 500, new Matrix4d());
+        assertTrue(expected.epsilonEquals(fused, 1e-10));
+
+        Matrix4f viewf = MatrixUtility.setViewMatrix(eye, center, up, new Matrix4f());
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                assertEquals(viewf.get(r, c), view.get(r, c), EPSILON);
+            }
+        }
+    }
+
+    private static float depth(Matrix4f m, float z) {
+        Vector4f p = new Vector4f(0, 0, z, 1);
+        m.transform(p);
+        return p.z / p.w;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NormalCodecTest {
+
+    private static final float MAX_ANGLE = 1e-4f;
+
+    @Test
+    public void roundTrip() {
+        Random rng = new Random(1234);
+        Vector3f out = new Vector3f();
+        for (int i = 0; i < 10000; i++) {
+            Vector3f n = randomUnit(rng);
+            NormalCodec.decode(NormalCodec.encode(n), out);
+            assertEquals(1f, out.length(), 1e-6f);
+            assertTrue(angle(n, out) < MAX_ANGLE);
+        }
+    }
+
+    @Test
+    public void axes() {
+        Vector3f out = new Vector3f();
+        float[][] axes = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+        for (float[] a : axes) {
+            NormalCodec.decode(NormalCodec.encode(a[0], a[1], a[2]), out);
+            assertEquals(a[0], out.x, 1e-6f);
+            assertEquals(a[1], out.y, 1e-6f);
+            assertEquals(a[2], out.z, 1e-6f);
+        }
+    }
+
+    @Test
+    public void buffers() {
+        Random rng = new Random(3456);
+        int count = 100;
+        float[] src = new float[count * 3];
+        for (int i = 0; i < count; i++) {
+            Vector3f n = randomUnit(rng);
+            src[i * 3] = n.x;
+            src[i * 3 + 1] = n.y;
+            src[i * 3 + 2] = n.z;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count * NormalCodec.BYTES);
+        NormalCodec.putAll(src, 0, count, buffer);
+        buffer.flip();
+        float[] dst = new float[count * 3];
+        NormalCodec.getAll(buffer, dst, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            Vector3f n = new Vector3f(src[i * 3], src[i * 3 + 1], src[i * 3 + 2]);
+            assertTrue(angle(n, new Vector3f(dst[i * 3], dst[i * 3 + 1], dst[i * 3 + 2])) < MAX_ANGLE);
+            buffer.position(i * NormalCodec.BYTES);
+            assertTrue(angle(n, NormalCodec.get(buffer, new Vector3f())) < MAX_ANGLE);
+        }
+    }
+
+    private static Vector3f randomUnit(Random rng) {
+        Vector3f v = new Vector3f((float) rng.nextGaussian(), (float) rng.nextGaussian(), (float) rng.nextGaussian());
+        v.normalize();
+        return v;
+    }
+
+    private static float angle(Vector3f a, Vector3f b) {
+        Vector3f cross = new Vector3f().cross(a, b);
+        return (float) Math.atan2(cross.length(), a.dot(b));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapArrayTest {
+
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void vectorGetSetAcrossPages() {
+        long size = OffHeapVector3fArray.PAGE_SIZE + 10;
+        try (OffHeapVector3fArray array = new OffHeapVector3fArray(size)) {
+            assertEquals(2, array.getPageCount());
+            array.set(0, new Vector3f(1, 2, 3));
+            array.set(size - 1, 4, 5, 6);
+
+            assertEquals(new Vector3f(1, 2, 3), array.get(0, new Vector3f()));
+            assertEquals(new Vector3f(4, 5, 6), array.get(size - 1, new Vector3f()));
+            assertEquals(5, array.getY(size - 1), 0);
+            assertEquals(new Vector3f(), array.get(12345, new Vector3f()));
+            assertEquals(ByteOrder.nativeOrder(), array.getPage(1).order());
+            assertEquals(10 * 3 * 4, array.getPage(1).capacity());
+
+            // bulk copy across the page boundary
+            long start = OffHeapVector3fArray.PAGE_SIZE - 2;
+            float[] src = {1, 1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 4};
+            array.copyFrom(src, 0, start, 4);
+            assertEquals(new Vector3f(3, 3, 3), array.get(start + 2, new Vector3f()));
+            float[] dst = new float[src.length];
+            array.copyTo(start, 4, dst, 0);
+            for (int i = 0; i < src.length; i++) {
+                assertEquals(src[i], dst[i], 0);
+            }
+        }
+    }
+
+    @Test
+    public void vectorArithmetic() {
+        Random rng = new Random(1234);
+        int size = 100;
+        Vector3f[] a = new Vector3f[size];
+        Vector3f[] b = new Vector3f[size];
+        try (OffHeapVector3fArray offA = new OffHeapVector3fArray(size);
+             OffHeapVector3fArray offB = new OffHeapVector3fArray(size)) {
+            for (int i = 0; i < size; i++) {
+                a[i] = new Vector3f(rng.nextFloat(), rng.nextFloat(), rng.nextFloat());
+                b[i] = new Vector3f(rng.nextFloat(), rng.nextFloat(), rng.nextFloat());
+                offA.set(i, a[i]);
+                offB.set(i, b[i]);
+            }
+
+            offA.add(offB);
+            offA.scale(2);
+            offA.scaleAdd(-0.5f, offB);
+            offA.sub(offB);
+            offA.normalize();
+
+            Vector3f tmp = new Vector3f();
+            for (int i = 0; i < size; i++) {
+                Vector3f expected = new Vector3f(a[i]).add(b[i]).mul(2);
+                expected.add(new Vector3f(b[i]).mul(-0.5f)).sub(b[i]).normalize();
+                offA.get(i, tmp);
+                assertEquals(expected.x, tmp.x, EPSILON);
+                assertEquals(expected.y, tmp.y, EPSILON);
+                assertEquals(expected.z, tmp.z, EPSILON);
+            }
+
+            offB.fill(Vector3f.one());
+            assertEquals(Vector3f.one(), offB.get(size - 1, tmp));
+        }
+    }
+
+    @Test
+    public void matrixMul() {
+        Random rng = new Random(5678);
+        int size = 20;
+        Matrix4f view = randomMatrix(rng);
+        try (OffHeapMatrix4fArray a = new OffHeapMatrix4fArray(size);
+             OffHeapMatrix4fArray b = new OffHeapMatrix4fArray(size)) {
+            Matrix4f[] ma = new Matrix4f[size];
+            Matrix4f[] mb = new Matrix4f[size];
+            for (int i = 0; i < size; i++) {
+                ma[i] = randomMatrix(rng);
+                mb[i] = randomMatrix(rng);
+                a.set(i, ma[i]);
+                b.set(i, mb[i]);
+            }
+
+            a.mul(a, b);
+            a.mulLeft(view);
+
+            Matrix4f actual = new Matrix4f();
+            for (int i = 0; i < size; i++) {
+                Matrix4f expected = new Matrix4f();
+                expected.mul(ma[i], mb[i]);
+                expected.mul(view, new Matrix4f(expected));
+                a.get(i, actual);
+                for (int r = 0; r < 4; r++) {
+                    for (int c = 0; c < 4; c++) {
+                        assertEquals(expected.get(r, c), actual.get(r, c), EPSILON);
+                        assertEquals(expected.get(r, c), a.get(i, r, c), EPSILON);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closed() {
+        OffHeapVector3dArray array = new OffHeapVector3dArray(10);
+        array.close();
+        assertTrue(array.isClosed());
+        array.close();
+        array.get(0, new Vector3d());
+    }
+
+    @Test
+    public void pagesOutliveClose() {
+        ByteBuffer page;
+        try (OffHeapVector3fArray array = new OffHeapVector3fArray(10)) {
+            array.set(1, new Vector3f(1, 2, 3));
+            page = array.getPage(0);
+        }
+        assertEquals(2f, page.getFloat(4 * OffHeapVector3fArray.COMPONENTS + 4), 0f);
+        try (OffHeapMatrix4fArray array = new OffHeapMatrix4fArray(2)) {
+            float[] values = new float[16];
+            Arrays.fill(values, 5f);
+            array.set(1, new Matrix4f(values));
+            page = array.getPage(0);
+        }
+        assertEquals(5f, page.getFloat(4 * OffHeapMatrix4fArray.COMPONENTS + 4), 0f);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBounds() {
+        try (OffHeapMatrix3dArray array = new OffHeapMatrix3dArray(10)) {
+            array.get(10, new Matrix3d());
+        }
+    }
+
+    private static Matrix4f randomMatrix(Random rng) {
+        float[] values = new float[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rng.nextFloat() * 2 - 1;
+        }
+        return new Matrix4f(values);
+    }
+}
@@ -35,4 +35,20 @@ public void testBoundingBox() {
                 new Vector2f(2, 1)));
         Assert.assertEquals(Rect2f.createFromMinAndMax(0, 0, 2, 2), poly.getBounds());
     }
+
+    @Test
+    public void testPrimitiveAccess() {
+        float[] xy = {9, 9, 0, 0, 2, 0, 2, 1};
+        Polygon poly = Polygon.create(xy, 2, 3);
+        xy[2] = 5;
+        Assert.assertEquals(3, poly.vertexCount());
+        Assert.assertEquals(0, poly.vertexX(0), 0);
+        Assert.assertEquals(1, poly.vertexY(2), 0);
+        Assert.assertEquals(new Vector2f(2, 0), poly.getVertex(1, new Vector2f()));
+        Assert.assertEquals(ImmutableVector2f.of(2, 1), poly.getVertices().get(2));
+        Assert.assertSame(poly.getVertices(), poly.getVertices());
+        Assert.assertEquals(1, poly.area(), 0.0001f);
+        Assert.assertTrue(poly.contains(1.5f, 0.5f));
+        Assert.assertFalse(poly.contains(0.5f, 0.9f));
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class PositionQuantizerTest {
+
+    @Test
+    public void roundTrip2f() {
+        Random rng = new Random(1234);
+        Rect2f bounds = Rect2f.createFromMinAndSize(-100, 20, 500, 30);
+        for (int bits = 4; bits <= PositionQuantizer2f.MAX_BITS; bits += 4) {
+            PositionQuantizer2f quantizer = new PositionQuantizer2f(bounds, bits);
+            float errX = quantizer.getStepX() * 0.5f + 1e-4f;
+            float errY = quantizer.getStepY() * 0.5f + 1e-4f;
+            Vector2f out = new Vector2f();
+            for (int i = 0; i < 1000; i++) {
+                float x = bounds.minX() + rng.nextFloat() * bounds.width();
+                float y = bounds.minY() + rng.nextFloat() * bounds.height();
+                quantizer.decode(quantizer.encode(x, y), out);
+                assertEquals(x, out.x, errX);
+                assertEquals(y, out.y, errY);
+            }
+        }
+    }
+
+    @Test
+    public void roundTrip3f() {
+        Random rng = new Random(2345);
+        Vector3f min = new Vector3f(-64, 0, -1000);
+        Vector3f max = new Vector3f(64, 256, 1000);
+        for (int bits = 3; bits <= PositionQuantizer3f.MAX_BITS; bits += 3) {
+            PositionQuantizer3f quantizer = new PositionQuantizer3f(min, max, bits);
+            Vector3f out = new Vector3f();
+            for (int i = 0; i < 1000; i++) {
+                Vector3f pos = new Vector3f(
+                        min.x + rng.nextFloat() * (max.x - min.x),
+                        min.y + rng.nextFloat() * (max.y - min.y),
+                        min.z + rng.nextFloat() * (max.z - min.z));
+                quantizer.decode(quantizer.encode(pos), out);
+                assertEquals(pos.x, out.x, quantizer.getStepX() * 0.5f + 1e-4f);
+                assertEquals(pos.y, out.y, quantizer.getStepY() * 0.5f + 1e-4f);
+                assertEquals(pos.z, out.z, quantizer.getStepZ() * 0.5f + 1e-4f);
+            }
+        }
+    }
+
+    @Test
+    public void clampsOutside() {
+        PositionQuantizer2f quantizer = new PositionQuantizer2f(Rect2f.createFromMinAndMax(0, 0, 10, 10), 8);
+        Vector2f out = quantizer.decode(quantizer.encode(-5, 15), new Vector2f());
+        assertEquals(0, out.x, 1e-6f);
+        assertEquals(10, out.y, 1e-5f);
+    }
+
+    @Test
+    public void buffers() {
+        Random rng = new Random(3456);
+        int count = 100;
+        PositionQuantizer3f quantizer = new PositionQuantizer3f(new Vector3f(0, 0, 0), new Vector3f(16, 16, 16), 10);
+        assertEquals(4, quantizer.getBytes());
+
+        float[] src = new float[count * 3];
+        for (int i = 0; i < src.length; i++) {
+            src[i] = rng.nextFloat() * 16;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count * quantizer.getBytes());
+        quantizer.putAll(src, 0, count, buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+        float[] dst = new float[count * 3];
+        quantizer.getAll(buffer, dst, 0, count);
+
+        float eps = quantizer.getStepX() * 0.5f + 1e-5f;
+        for (int i = 0; i < src.length; i++) {
+            assertEquals(src[i], dst[i], eps);
+        }
+
+        buffer.position(quantizer.getBytes() * 7);
+        Vector3f pos = quantizer.get(buffer, new Vector3f());
+        assertEquals(src[21], pos.x, eps);
+        assertEquals(src[22], pos.y, eps);
+        assertEquals(src[23], pos.z, eps);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyBits() {
+        new PositionQuantizer3f(new Vector3f(0, 0, 0), new Vector3f(1, 1, 1), 22);
+    }
+}
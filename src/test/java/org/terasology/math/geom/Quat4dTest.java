@@ -75,6 +75,120 @@ public void testRandomYawPitchRoll() {
         }
     }
 
+    @Test
+    public void testNormalizeFast() {
+        Random r = new Random(4321);
+
+        for (int i = 0; i < 100; i++) {
+            Quat4d q1 = new Quat4d();
+            q1.set(r.nextDouble() * 100, r.nextDouble() * 100, r.nextDouble() * 100, r.nextDouble() * 100);
+            Quat4d q2 = new Quat4d(q1);
+            q1.normalize();
+            q2.normalizeFast();
+            assertQuat4dEquals(q1, q2, 1e-5);
+        }
+    }
+
+    @Test
+    public void testInterpolateIntoOut() {
+        Random r = new Random(5678);
+        Quat4d out = new Quat4d();
+        for (int i = 0; i < 100; i++) {
+            Quat4d q1 = randomQuat(r);
+            Quat4d q2 = randomQuat(r);
+            double alpha = r.nextDouble();
+            assertQuat4dEquals(BaseQuat4d.interpolate(q1, q2, alpha), BaseQuat4d.interpolate(q1, q2, alpha, out), 0);
+        }
+    }
+
+    @Test
+    public void testNlerpEndpoints() {
+        Random r = new Random(8765);
+        Quat4d out = new Quat4d();
+        for (int i = 0; i < 100; i++) {
+            Quat4d q1 = randomQuat(r);
+            Quat4d q2 = randomQuat(r);
+            BaseQuat4d.nlerp(q1, q2, 0, out);
+            assertSameRotation(q1, out, EPSILON);
+            BaseQuat4d.nlerp(q1, q2, 1, out);
+            assertSameRotation(q2, out, EPSILON);
+        }
+    }
+
+    @Test
+    public void testFastSlerp() {
+        Random r = new Random(1357);
+        Quat4d out = new Quat4d();
+        for (int i = 0; i < 1000; i++) {
+            Quat4d q1 = randomQuat(r);
+            Quat4d q2 = randomQuat(r);
+            double alpha = r.nextDouble();
+            Quat4d expected = BaseQuat4d.interpolate(q1, q2, alpha);
+            BaseQuat4d.fastSlerp(q1, q2, alpha, out);
+            assertSameRotation(expected, out, 1e-3);
+        }
+    }
+
+    @Test
+    public void testBatchInterpolation() {
+        Random r = new Random(2468);
+        int count = 17;
+        double[] q1 = new double[4 * count];
+        double[] q2 = new double[4 * count];
+        double[] alpha = new double[count];
+        Quat4d[] a = new Quat4d[count];
+        Quat4d[] b = new Quat4d[count];
+        for (int i = 0; i < count; i++) {
+            a[i] = randomQuat(r);
+            b[i] = randomQuat(r);
+            alpha[i] = r.nextDouble();
+            toSoA(a[i], q1, count, i);
+            toSoA(b[i], q2, count, i);
+        }
+
+        double[] nlerp = new double[4 * count];
+        double[] fast = new double[4 * count];
+        BaseQuat4d.nlerpAll(q1, q2, alpha, nlerp, count);
+        BaseQuat4d.fastSlerpAll(q1, q2, alpha, fast, count);
+
+        Quat4d out = new Quat4d();
+        for (int i = 0; i < count; i++) {
+            BaseQuat4d.nlerp(a[i], b[i], alpha[i], out);
+            assertQuat4dEquals(out, fromSoA(nlerp, count, i), EPSILON);
+            BaseQuat4d.fastSlerp(a[i], b[i], alpha[i], out);
+            assertQuat4dEquals(out, fromSoA(fast, count, i), EPSILON);
+        }
+    }
+
+    private static Quat4d randomQuat(Random r) {
+        return new Quat4d(r.nextDouble() * 2 - 1, r.nextDouble() * 2 - 1, r.nextDouble() * 2 - 1, r.nextDouble() * 2 - 1);
+    }
+
+    private static void toSoA(BaseQuat4d q, double[] array, int count, int i) {
+        array[i] = q.getX();
+        array[count + i] = q.getY();
+        array[2 * count + i] = q.getZ();
+        array[3 * count + i] = q.getW();
+    }
+
+    private static Quat4d fromSoA(double[] array, int count, int i) {
+        Quat4d q = new Quat4d();
+        q.set(array[i], array[count + i], array[2 * count + i], array[3 * count + i]);
+        return q;
+    }
+
+    /**
+     * q and -q represent the same rotation
+     */
+    private static void assertSameRotation(BaseQuat4d a, BaseQuat4d b, double epsilon) {
+        double dot = a.getX() * b.getX() + a.getY() * b.getY() + a.getZ() * b.getZ() + a.getW() * b.getW();
+        double sign = Math.signum(dot);
+        assertEquals("x not equal", a.getX(), sign * b.getX(), epsilon);
+        assertEquals("y not equal", a.getY(), sign * b.getY(), epsilon);
+        assertEquals("z not equal", a.getZ(), sign * b.getZ(), epsilon);
+        assertEquals("w not equal", a.getW(), sign * b.getW(), epsilon);
+    }
+
     @Test
     public void testYawPitchRoll() {
         double yaw = 0.3;
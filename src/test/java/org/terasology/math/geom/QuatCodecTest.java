@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuatCodecTest {
+
+    private static final float ERROR_32 = 2e-3f;
+    private static final float ERROR_48 = 7e-5f;
+
+    @Test
+    public void roundTrip32() {
+        Random rng = new Random(1234);
+        Quat4f out = new Quat4f();
+        for (int i = 0; i < 10000; i++) {
+            Quat4f q = randomQuat(rng);
+            assertSameRotation(q, QuatCodec.decode32(QuatCodec.encode32(q), out), ERROR_32);
+        }
+    }
+
+    @Test
+    public void roundTrip48() {
+        Random rng = new Random(2345);
+        Quat4f out = new Quat4f();
+        for (int i = 0; i < 10000; i++) {
+            Quat4f q = randomQuat(rng);
+            long bits = QuatCodec.encode48(q);
+            assertEquals(0, bits >>> 48);
+            assertSameRotation(q, QuatCodec.decode48(bits, out), ERROR_48);
+        }
+    }
+
+    @Test
+    public void axisAligned() {
+        Quat4f out = new Quat4f();
+        Quat4f[] quats = {
+            new Quat4f(1, 0, 0, 0),
+            new Quat4f(0, -1, 0, 0),
+            new Quat4f(0, 0, 1, 0),
+            new Quat4f(0, 0, 0, -1),
+        };
+        for (Quat4f q : quats) {
+            assertSameRotation(q, QuatCodec.decode48(QuatCodec.encode48(q), out), ERROR_48);
+        }
+    }
+
+    @Test
+    public void buffers() {
+        Random rng = new Random(3456);
+        int count = 50;
+        float[] src = new float[count * 4];
+        for (int i = 0; i < count; i++) {
+            Quat4f q = randomQuat(rng);
+            src[i * 4] = q.x;
+            src[i * 4 + 1] = q.y;
+            src[i * 4 + 2] = q.z;
+            src[i * 4 + 3] = q.w;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count * (QuatCodec.BYTES_32 + QuatCodec.BYTES_48));
+        QuatCodec.putAll32(src, 0, count, buffer);
+        QuatCodec.putAll48(src, 0, count, buffer);
+        assertEquals(0, buffer.remaining());
+        buffer.flip();
+
+        float[] dst32 = new float[count * 4];
+        float[] dst48 = new float[count * 4];
+        QuatCodec.getAll32(buffer, dst32, 0, count);
+        QuatCodec.getAll48(buffer, dst48, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            Quat4f q = new Quat4f(src[i * 4], src[i * 4 + 1], src[i * 4 + 2], src[i * 4 + 3]);
+            assertSameRotation(q, new Quat4f(dst32[i * 4], dst32[i * 4 + 1], dst32[i * 4 + 2], dst32[i * 4 + 3]), ERROR_32);
+            assertSameRotation(q, new Quat4f(dst48[i * 4], dst48[i * 4 + 1], dst48[i * 4 + 2], dst48[i * 4 + 3]), ERROR_48);
+
+            buffer.position(i * QuatCodec.BYTES_32);
+            assertSameRotation(q, QuatCodec.get32(buffer, new Quat4f()), ERROR_32);
+            buffer.position(count * QuatCodec.BYTES_32 + i * QuatCodec.BYTES_48);
+            assertSameRotation(q, QuatCodec.get48(buffer, new Quat4f()), ERROR_48);
+        }
+    }
+
+    private static Quat4f randomQuat(Random rng) {
+        Vector3f axis = new Vector3f(rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f, rng.nextFloat() - 0.5f);
+        axis.normalize();
+        return new Quat4f(axis, rng.nextFloat() * 2 * (float) Math.PI);
+    }
+
+    private static void assertSameRotation(Quat4f expected, Quat4f actual, float eps) {
+        float sign = Math.signum(expected.x * actual.x + expected.y * actual.y + expected.z * actual.z + expected.w * actual.w);
+        assertEquals(expected.x, sign * actual.x, eps);
+        assertEquals(expected.y, sign * actual.y, eps);
+        assertEquals(expected.z, sign * actual.z, eps);
+        assertEquals(expected.w, sign * actual.w, eps);
+    }
+}
@@ -40,4 +40,62 @@ public void testScale() {
         Rect2fTransformer t = new Rect2fTransformer(source, target);
         assertEquals(new Vector2f(31, 602), t.apply(4, 8));
     }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        Rect2fTransformer t = new Rect2fTransformer(Rect2f.createFromMinAndSize(-5, 3, 7, 9), Rect2f.createFromMinAndSize(2, 4, 0.5f, 18));
+        int count = 50;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] xy = new float[1 + 2 * count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i * 0.7f - 20;
+            ys[i] = 3 * i - 70;
+            xy[1 + 2 * i] = xs[i];
+            xy[2 + 2 * i] = ys[i];
+        }
+        float[] outXs = new float[count];
+        float[] outYs = new float[count];
+        t.applyAll(xs, ys, count, outXs, outYs);
+        t.applyAll(xy, 1, count);
+        Vector2f out = new Vector2f();
+        for (int i = 0; i < count; i++) {
+            Vector2f expected = t.apply(xs[i], ys[i]);
+            assertEquals(expected, t.apply(xs[i], ys[i], out));
+            assertEquals(expected, new Vector2f(outXs[i], outYs[i]));
+            assertEquals(expected, new Vector2f(xy[1 + 2 * i], xy[2 + 2 * i]));
+        }
+    }
+
+    @Test
+    public void testComposition() {
+        Rect2fTransformer first = new Rect2fTransformer(Rect2f.createFromMinAndSize(0, 0, 4, 4), Rect2f.createFromMinAndSize(10, 20, 3, 12));
+        Rect2fTransformer second = new Rect2fTransformer(Rect2f.createFromMinAndSize(5, 5, 10, 10), Rect2f.createFromMinAndSize(-3, 1, 7, 30));
+        Rect2fTransformer composed = first.andThen(second);
+        for (int i = -10; i < 10; i++) {
+            Vector2f expected = second.apply(first.applyX(i * 0.3f), first.applyY(i * 0.7f));
+            Vector2f actual = composed.apply(i * 0.3f, i * 0.7f);
+            assertEquals(expected.x, actual.x, 1e-4f);
+            assertEquals(expected.y, actual.y, 1e-4f);
+        }
+    }
+
+    @Test
+    public void testLargeCoordinates() {
+        Rect2fTransformer t = new Rect2fTransformer(Rect2f.createFromMinAndSize(1e6f, 1e6f, 10, 10), Rect2f.createFromMinAndSize(0, 0, 1000, 1000));
+        assertEquals(50f, t.applyX(1e6f + 0.5f), 0f);
+        assertEquals(50f, t.applyY(1e6f + 0.5f), 0f);
+        assertEquals(0f, t.applyX(1e6f), 0f);
+
+        float[] xs = {1e6f + 0.5f};
+        float[] ys = {1e6f + 0.5f};
+        t.applyAll(xs, ys, 1, xs, ys);
+        assertEquals(50f, xs[0], 0f);
+        assertEquals(50f, ys[0], 0f);
+
+        float[] xy = {1e6f + 0.5f, 1e6f + 0.5f};
+        t.applyAll(xy, 0, 1);
+        assertEquals(50f, xy[0], 0f);
+        assertEquals(50f, xy[1], 0f);
+    }
 }
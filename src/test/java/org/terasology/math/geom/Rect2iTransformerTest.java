@@ -40,4 +40,84 @@ public void testScale() {
         Rect2iTransformer t = new Rect2iTransformer(source, target);
         assertEquals(new Vector2i(31, 602), t.apply(4, 8));
     }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        Rect2i source = Rect2i.createFromMinAndSize(-5, 3, 7, 9);
+        Rect2iTransformer[] transformers = {
+            new Rect2iTransformer(source, Rect2i.createFromMinAndSize(2, 4, 21, 18)),
+            new Rect2iTransformer(source, Rect2i.createFromMinAndSize(2, 4, 10, 5))
+        };
+        int count = 50;
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i - 20;
+            ys[i] = 3 * i - 70;
+        }
+        for (Rect2iTransformer t : transformers) {
+            int[] outXs = new int[count];
+            int[] outYs = new int[count];
+            t.applyAll(xs, ys, count, outXs, outYs);
+            Vector2i out = new Vector2i();
+            for (int i = 0; i < count; i++) {
+                assertEquals(t.apply(xs[i], ys[i]), t.apply(xs[i], ys[i], out));
+                assertEquals(target(t, xs[i], ys[i]), new Vector2i(outXs[i], outYs[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testComposition() {
+        Rect2iTransformer first = new Rect2iTransformer(Rect2i.createFromMinAndSize(0, 0, 4, 4), Rect2i.createFromMinAndSize(10, 20, 8, 12));
+        Rect2iTransformer second = new Rect2iTransformer(Rect2i.createFromMinAndSize(5, 5, 10, 10), Rect2i.createFromMinAndSize(-3, 1, 20, 30));
+        Rect2iTransformer composed = first.andThen(second);
+        for (int x = -10; x < 10; x++) {
+            for (int y = -10; y < 10; y++) {
+                assertEquals(second.apply(first.apply(x, y)), composed.apply(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testNonIntegralComposition() {
+        // the first transformer halves x and doubles y, the second doubles x and keeps y
+        Rect2iTransformer first = new Rect2iTransformer(Rect2i.createFromMinAndSize(0, 0, 2, 3), Rect2i.createFromMinAndSize(0, 0, 1, 6));
+        Rect2iTransformer second = new Rect2iTransformer(Rect2i.createFromMinAndSize(0, 0, 1, 5), Rect2i.createFromMinAndSize(0, 0, 2, 5));
+        Rect2iTransformer composed = first.andThen(second);
+        assertEquals(new Vector2i(0, 2), composed.apply(1, 1));
+
+        int count = 40;
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i - 20;
+            ys[i] = 20 - i;
+        }
+        int[] outXs = new int[count];
+        int[] outYs = new int[count];
+        composed.applyAll(xs, ys, count, outXs, outYs);
+        for (int i = 0; i < count; i++) {
+            Vector2i expected = second.apply(first.apply(xs[i], ys[i]));
+            assertEquals(expected, composed.apply(xs[i], ys[i]));
+            assertEquals(expected, new Vector2i(outXs[i], outYs[i]));
+        }
+    }
+
+    @Test
+    public void testEmptySource() {
+        Rect2iTransformer t = new Rect2iTransformer(Rect2i.EMPTY, Rect2i.createFromMinAndSize(0, 0, 4, 4));
+        assertEquals(Rect2i.EMPTY, t.getSource());
+    }
+
+    /**
+     * The reference formula, evaluated without the integral fast path
+     */
+    private static Vector2i target(Rect2iTransformer t, int x, int y) {
+        Rect2i src = t.getSource();
+        Rect2i dst = t.getTarget();
+        return new Vector2i(
+            dst.minX() + (x - src.minX()) * dst.width() / src.width(),
+            dst.minY() + (y - src.minY()) * dst.height() / src.height());
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class Rotation24Test {
+
+    private static final float EPSILON = 1e-5f;
+
+    private final Vector3i[] vectors = {new Vector3i(1, 2, 3), new Vector3i(-4, 0, 7), new Vector3i(5, -6, -1)};
+
+    @Test
+    public void transformMatchesMatrix() {
+        FieldMatrix4i m = new FieldMatrix4i();
+        Vector3i expected = new Vector3i();
+        Vector3i actual = new Vector3i();
+        for (Rotation24 r : Rotation24.values()) {
+            r.getMatrix(m);
+            for (Vector3i v : vectors) {
+                m.transform(v, expected);
+                assertEquals(expected, r.transform(v, actual));
+            }
+        }
+    }
+
+    @Test
+    public void compositionAndInverse() {
+        Vector3i tmp = new Vector3i();
+        Vector3i expected = new Vector3i();
+        for (Rotation24 a : Rotation24.values()) {
+            assertSame(Rotation24.identity(), a.compose(a.inverse()));
+            assertSame(Rotation24.identity(), a.inverse().compose(a));
+            assertSame(a, Rotation24.of(a.getMatrix(new FieldMatrix4i())));
+            for (Rotation24 b : Rotation24.values()) {
+                Rotation24 ab = a.compose(b);
+                for (Vector3i v : vectors) {
+                    a.transform(b.transform(v, tmp), expected);
+                    assertEquals(expected, ab.transform(v, tmp));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void axisTurns() {
+        assertSame(Rotation24.identity(), Rotation24.aboutX(4));
+        assertSame(Rotation24.aboutY(3), Rotation24.aboutY(-1));
+        assertSame(Rotation24.aboutZ(2), Rotation24.aboutZ(1).compose(Rotation24.aboutZ(1)));
+        assertEquals(new Vector3i(0, 1, 0), Rotation24.aboutZ(1).transform(1, 0, 0, new Vector3i()));
+        assertEquals(new Vector3i(0, 0, 1), Rotation24.aboutX(1).transform(0, 1, 0, new Vector3i()));
+    }
+
+    @Test
+    public void quatAndMatrix() {
+        Quat4f q = new Quat4f();
+        Matrix3f m = new Matrix3f();
+        for (Rotation24 r : Rotation24.values()) {
+            r.getQuat(q);
+            r.getMatrix(m);
+            assertEquals(1, q.x * q.x + q.y * q.y + q.z * q.z + q.w * q.w, EPSILON);
+            for (Vector3i v : vectors) {
+                Vector3i expected = r.transform(v, new Vector3i());
+                Vector3f viaQuat = q.rotate(new Vector3f(v.x, v.y, v.z), new Vector3f());
+                Vector3f viaMatrix = new Vector3f(v.x, v.y, v.z);
+                m.transform(viaMatrix);
+                assertEquals(expected.x, viaQuat.x, EPSILON);
+                assertEquals(expected.y, viaQuat.y, EPSILON);
+                assertEquals(expected.z, viaQuat.z, EPSILON);
+                assertEquals(expected.x, viaMatrix.x, EPSILON);
+                assertEquals(expected.y, viaMatrix.y, EPSILON);
+                assertEquals(expected.z, viaMatrix.z, EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void boxes() {
+        int count = 2;
+        int[] boxes = {
+            -1, 4,
+            0, 5,
+            2, 6,
+            3, 4,
+            1, 8,
+            7, 9};
+        for (Rotation24 r : Rotation24.values()) {
+            int[] rotated = boxes.clone();
+            r.transformBoxes(rotated, count);
+            for (int i = 0; i < count; i++) {
+                Vector3i a = r.transform(boxes[i], boxes[count + i], boxes[2 * count + i], new Vector3i());
+                Vector3i b = r.transform(boxes[3 * count + i], boxes[4 * count + i], boxes[5 * count + i], new Vector3i());
+                assertEquals(Math.min(a.x, b.x), rotated[i]);
+                assertEquals(Math.min(a.y, b.y), rotated[count + i]);
+                assertEquals(Math.min(a.z, b.z), rotated[2 * count + i]);
+                assertEquals(Math.max(a.x, b.x), rotated[3 * count + i]);
+                assertEquals(Math.max(a.y, b.y), rotated[4 * count + i]);
+                assertEquals(Math.max(a.z, b.z), rotated[5 * count + i]);
+            }
+        }
+    }
+}
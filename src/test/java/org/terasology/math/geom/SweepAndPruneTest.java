@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.geom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the {@link SweepAndPrune} class.
+ */
+public class SweepAndPruneTest {
+
+    @Test
+    public void matchesNestedLoops() {
+        Random rng = new Random(789);
+        List<Rect2f> rects = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // integer coordinates produce many touching edges
+            rects.add(Rect2f.createFromMinAndSize(rng.nextInt(100), rng.nextInt(100), rng.nextInt(8), rng.nextInt(8)));
+        }
+
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < rects.size(); i++) {
+            for (int j = i + 1; j < rects.size(); j++) {
+                if (rects.get(i).intersects(rects.get(j))) {
+                    expected.add((long) i << 32 | j);
+                }
+            }
+        }
+
+        Set<Long> actual = new HashSet<>();
+        SweepAndPrune.forEachOverlap(rects, (first, second) -> {
+            Assert.assertTrue(first < second);
+            Assert.assertTrue(actual.add((long) first << 32 | second));
+        });
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void overlapsIntoArray() {
+        List<Rect2f> rects = Arrays.asList(
+                Rect2f.createFromMinAndMax(-2, -2, 1, 1),
+                Rect2f.EMPTY,
+                Rect2f.createFromMinAndMax(1, 0, 3, 1),
+                Rect2f.createFromMinAndMax(0.5f, 0.5f, 2, 2));
+
+        int[] pairs = new int[4];
+        Assert.assertEquals(2, SweepAndPrune.getOverlaps(rects, pairs));
+        Set<Long> actual = new HashSet<>();
+        actual.add((long) pairs[0] << 32 | pairs[1]);
+        actual.add((long) pairs[2] << 32 | pairs[3]);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(3L, 2L << 32 | 3)), actual);
+    }
+}
@@ -59,6 +59,16 @@ public void setVectorToTuple() {
         assertEquals(new Vector3d(12, 34, 56), v);
     }
 
+    @Test
+    public void normalizeFast() {
+        Vector3d result = v.set(3, -4, 12).normalizeFast();
+        assertSame(v, result);
+        assertEquals(3.0 / 13.0, v.getX(), 1e-5);
+        assertEquals(-4.0 / 13.0, v.getY(), 1e-5);
+        assertEquals(12.0 / 13.0, v.getZ(), 1e-5);
+        assertEquals(new Vector3d(), new Vector3d().normalizeFast());
+    }
+
     @Test
     public void setXComponent() {
         Vector3d result = v.setX(12.43);
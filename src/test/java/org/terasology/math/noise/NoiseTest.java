@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.noise;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.terasology.math.TeraMath;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NoiseTest {
+
+    private final Noise[] noises = {
+        new PerlinNoise(1234),
+        new SimplexNoise(1234),
+        new BrownianNoise(new PerlinNoise(1234), 4),
+        new BrownianNoise(new SimplexNoise(1234), 4, 2.1f, 0.6f)
+    };
+
+    @Test
+    public void sameSeedSameResult() {
+        Noise a = new SimplexNoise(42);
+        Noise b = new SimplexNoise(42);
+        Noise c = new SimplexNoise(43);
+        float va = a.noise(12.3f, -4.5f, 6.7f);
+        assertEquals(va, b.noise(12.3f, -4.5f, 6.7f), 0.0f);
+        assertNotEquals(va, c.noise(12.3f, -4.5f, 6.7f), 0.0f);
+    }
+
+    @Test
+    public void perlinIsZeroAtLatticePoints() {
+        Noise perlin = new PerlinNoise(99);
+        for (int i = -10; i < 10; i++) {
+            assertEquals(0, perlin.noise(i, 3 * i), 0.0f);
+            assertEquals(0, perlin.noise(i, -i, 2 * i), 0.0f);
+            assertEquals(0, perlin.noise(i, -i, 2 * i, 5), 0.0f);
+        }
+    }
+
+    @Test
+    public void valuesInRange() {
+        Random rng = new Random(4321);
+        for (Noise noise : noises) {
+            float min2 = Float.MAX_VALUE;
+            float max2 = -Float.MAX_VALUE;
+            for (int i = 0; i < 10000; i++) {
+                float x = rng.nextFloat() * 200 - 100;
+                float y = rng.nextFloat() * 200 - 100;
+                float z = rng.nextFloat() * 200 - 100;
+                float w = rng.nextFloat() * 200 - 100;
+                float v2 = noise.noise(x, y);
+                assertInRange(v2);
+                assertInRange(noise.noise(x, y, z));
+                assertInRange(noise.noise(x, y, z, w));
+                min2 = Math.min(min2, v2);
+                max2 = Math.max(max2, v2);
+            }
+            assertTrue("noise is not coherent", max2 - min2 > 0.5f);
+        }
+    }
+
+    @Test
+    public void continuity() {
+        for (Noise noise : noises) {
+            for (float x = -5; x < 5; x += 0.01f) {
+                float d = noise.noise(x + 0.001f, 0.37f, 1.21f) - noise.noise(x, 0.37f, 1.21f);
+                assertTrue("noise is not continuous", Math.abs(d) < 0.05f);
+            }
+        }
+    }
+
+    @Test
+    public void fill2D() {
+        Rect2i area = Rect2i.createFromMinAndSize(-3, 5, 7, 4);
+        float[] out = new float[area.area()];
+        for (Noise noise : noises) {
+            noise.fill(area, 0.1f, 0.2f, out);
+            for (int y = area.minY(); y <= area.maxY(); y++) {
+                for (int x = area.minX(); x <= area.maxX(); x++) {
+                    int index = (x - area.minX()) + area.width() * (y - area.minY());
+                    assertEquals(noise.noise(x * 0.1f, y * 0.2f), out[index], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fill3D() {
+        Vector3i min = new Vector3i(-2, 3, -4);
+        Vector3i size = new Vector3i(5, 3, 4);
+        float[] out = new float[size.x * size.y * size.z];
+        for (Noise noise : noises) {
+            noise.fill(min, size, 0.1f, 0.05f, 0.2f, out);
+            for (int y = 0; y < size.y; y++) {
+                for (int z = 0; z < size.z; z++) {
+                    for (int x = 0; x < size.x; x++) {
+                        float expected = noise.noise((min.x + x) * 0.1f, (min.y + y) * 0.05f, (min.z + z) * 0.2f);
+                        assertEquals(expected, out[TeraMath.calculate3DArrayIndex(x, y, z, size)], 0.0f);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void assertInRange(float value) {
+        assertTrue("noise value " + value + " out of range", value >= -1.1f && value <= 1.1f);
+    }
+}
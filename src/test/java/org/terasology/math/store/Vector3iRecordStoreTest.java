@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.math.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.math.geom.Rect2i;
+import org.terasology.math.geom.Vector3i;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class Vector3iRecordStoreTest {
+
+    private static final int RECORD_SIZE = 12;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void packRoundTrip() {
+        int[] values = {0, 1, -1, 1234, -98765, Vector3iRecordStore.MIN_COORD, Vector3iRecordStore.MAX_COORD};
+        for (int x : values) {
+            for (int y : values) {
+                for (int z : values) {
+                    long key = Vector3iRecordStore.pack(x, y, z);
+                    assertEquals(x, Vector3iRecordStore.unpackX(key));
+                    assertEquals(y, Vector3iRecordStore.unpackY(key));
+                    assertEquals(z, Vector3iRecordStore.unpackZ(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void putGetRemoveAndReopen() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("store.bin");
+        Random rng = new Random(1234);
+        Set<Vector3i> positions = new HashSet<>();
+        while (positions.size() < 2000) {
+            positions.add(new Vector3i(rng.nextInt(200) - 100, rng.nextInt(20) - 10, rng.nextInt(200) - 100));
+        }
+
+        try (Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            for (Vector3i pos : positions) {
+                store.put(pos, record(pos));
+            }
+            assertEquals(positions.size(), store.size());
+
+            // overwrite
+            Vector3i first = positions.iterator().next();
+            store.put(first, record(new Vector3i(7, 7, 7)));
+            assertRecord(store, first, new Vector3i(7, 7, 7));
+            store.put(first, record(first));
+        }
+
+        try (Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            assertEquals(positions.size(), store.size());
+            int removed = 0;
+            for (Vector3i pos : positions) {
+                assertRecord(store, pos, pos);
+                if (pos.x % 2 == 0) {
+                    assertTrue(store.remove(pos));
+                    assertFalse(store.remove(pos));
+                    removed++;
+                }
+            }
+            assertFalse(store.contains(500, 500, 500));
+            assertEquals(positions.size() - removed, store.size());
+
+            int oldCapacity = store.capacity();
+            store.compact();
+            assertTrue(store.capacity() <= oldCapacity);
+            for (Vector3i pos : positions) {
+                assertEquals(pos.x % 2 != 0, store.contains(pos));
+                if (pos.x % 2 != 0) {
+                    assertRecord(store, pos, pos);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void releasesFilesAfterGrowing() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("grow.bin");
+        try (Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            for (int i = 0; i < 500; i++) {
+                Vector3i pos = new Vector3i(i, -i, 2 * i);
+                store.put(pos, record(pos));
+            }
+            assertRecord(store, new Vector3i(123, -123, 246), new Vector3i(123, -123, 246));
+        }
+        assertFalse(Files.exists(file.resolveSibling("grow.bin.tmp")));
+        Files.delete(file);
+    }
+
+    @Test
+    public void recoversCountAfterCrash() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("crash.bin");
+        Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE);
+        for (int i = 0; i < 10; i++) {
+            store.put(i, i, i, record(new Vector3i(i, i, i)));
+        }
+        store.flush();
+
+        // simulate a crash after the commit of an entry, but before the header was updated
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            fc.write(ByteBuffer.allocate(4).putInt(0, 3), 16);
+        }
+
+        try (Vector3iRecordStore reopened = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            assertEquals(10, reopened.size());
+            assertRecord(reopened, new Vector3i(4, 4, 4), new Vector3i(4, 4, 4));
+        }
+    }
+
+    @Test
+    public void regionQueries() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("query.bin");
+        try (Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            for (int x = -5; x < 5; x++) {
+                for (int y = -2; y < 2; y++) {
+                    for (int z = -5; z < 5; z++) {
+                        store.put(x, y, z, record(new Vector3i(x, y, z)));
+                    }
+                }
+            }
+
+            Set<Vector3i> found = new HashSet<>();
+            store.query(Rect2i.createFromMinAndMax(-1, 0, 1, 2), (x, y, z, rec) -> {
+                assertEquals(x, rec.getInt(rec.position()));
+                found.add(new Vector3i(x, y, z));
+            });
+            assertEquals(3 * 3 * 4, found.size());
+
+            // small box - looked up position by position
+            found.clear();
+            store.query(new Vector3i(0, 0, 0), new Vector3i(1, 1, 1), (x, y, z, rec) -> found.add(new Vector3i(x, y, z)));
+            assertEquals(8, found.size());
+
+            // large box - full scan
+            found.clear();
+            store.query(new Vector3i(-100, -1, -100), new Vector3i(100, 5, 100), (x, y, z, rec) -> {
+                assertEquals(y, rec.getInt(rec.position() + 4));
+                found.add(new Vector3i(x, y, z));
+            });
+            assertEquals(10 * 3 * 10, found.size());
+        }
+    }
+
+    @Test
+    public void rejectsModificationDuringQuery() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("modify.bin");
+        try (Vector3iRecordStore store = Vector3iRecordStore.open(file, RECORD_SIZE)) {
+            store.put(1, 2, 3, record(new Vector3i(1, 2, 3)));
+            int[] rejected = new int[1];
+            store.query(Rect2i.createFromMinAndMax(0, 0, 5, 5), (x, y, z, rec) -> {
+                try {
+                    store.put(x + 1, y, z, record(new Vector3i(x + 1, y, z)));
+                } catch (IllegalStateException e) {
+                    rejected[0]++;
+                }
+                try {
+                    store.remove(x, y, z);
+                } catch (IllegalStateException e) {
+                    rejected[0]++;
+                }
+            });
+            assertEquals(2, rejected[0]);
+            assertEquals(1, store.size());
+
+            // the store can be modified again after the query
+            store.put(2, 2, 3, record(new Vector3i(2, 2, 3)));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void recordSizeMismatch() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("mismatch.bin");
+        Vector3iRecordStore.open(file, RECORD_SIZE).close();
+        Vector3iRecordStore.open(file, RECORD_SIZE + 1);
+    }
+
+    private static ByteBuffer record(Vector3i pos) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putInt(pos.x).putInt(pos.y).putInt(pos.z);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void assertRecord(Vector3iRecordStore store, Vector3i pos, Vector3i expected) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        assertTrue(store.get(pos, buffer));
+        buffer.flip();
+        assertEquals(expected.x, buffer.getInt());
+        assertEquals(expected.y, buffer.getInt());
+        assertEquals(expected.z, buffer.getInt());
+    }
+}